@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.common.util;
+
+import java.util.Arrays;
+import java.util.function.LongFunction;
+
+/**
+ * Open addressing hash map keyed on non-negative longs, e.g. the groupId:artifactId keys of a {@link SymbolTable}.
+ * Keys and values are held in two flat arrays so no entry or boxed key is allocated per mapping.
+ * <p>
+ * This is not thread safe and does not support removal.
+ *
+ * @param <V> the type of the values
+ */
+public final class LongObjectMap<V>
+{
+    private static final long FREE = -1;
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+
+    private Object[] values;
+
+    private int size;
+
+    public LongObjectMap()
+    {
+        this( MIN_CAPACITY );
+    }
+
+    /**
+     * @param expected the number of mappings expected, used to size the map so that it need not grow
+     */
+    public LongObjectMap( final int expected )
+    {
+        allocate( tableSize( expected ) );
+    }
+
+    /**
+     * @param key the key to look for
+     * @return the value mapped to the key or null
+     */
+    @SuppressWarnings( "unchecked" )
+    public V get( final long key )
+    {
+        if ( key < 0 )
+        {
+            return null;
+        }
+        final int mask = keys.length - 1;
+        for ( int i = index( key, mask ); ; i = ( i + 1 ) & mask )
+        {
+            if ( keys[i] == key )
+            {
+                return (V) values[i];
+            }
+            else if ( keys[i] == FREE )
+            {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * @param key the key to map ; must not be negative
+     * @param value the value to map
+     * @return the previous value mapped to the key or null
+     */
+    @SuppressWarnings( "unchecked" )
+    public V put( final long key, final V value )
+    {
+        final int i = slot( key );
+        final V previous = (V) values[i];
+        values[i] = value;
+        if ( keys[i] == FREE )
+        {
+            keys[i] = key;
+            grow();
+        }
+        return previous;
+    }
+
+    /**
+     * @param key the key to look for ; must not be negative
+     * @param function creates the value if the key is not mapped
+     * @return the existing or newly mapped value
+     */
+    @SuppressWarnings( "unchecked" )
+    public V computeIfAbsent( final long key, final LongFunction<? extends V> function )
+    {
+        final int i = slot( key );
+        if ( keys[i] == FREE )
+        {
+            final V value = function.apply( key );
+            keys[i] = key;
+            values[i] = value;
+            grow();
+            return value;
+        }
+        return (V) values[i];
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Returns the slot holding the key, or the free slot where it would be inserted.
+     */
+    private int slot( final long key )
+    {
+        if ( key < 0 )
+        {
+            throw new IllegalArgumentException( "Negative key " + key );
+        }
+        final int mask = keys.length - 1;
+        int i = index( key, mask );
+        while ( keys[i] != key && keys[i] != FREE )
+        {
+            i = ( i + 1 ) & mask;
+        }
+        return i;
+    }
+
+    /**
+     * Called once a key has been added ; keeps the load factor at or below a half.
+     */
+    private void grow()
+    {
+        if ( ++size * 2 <= keys.length )
+        {
+            return;
+        }
+        final long[] oldKeys = keys;
+        final Object[] oldValues = values;
+        allocate( keys.length * 2 );
+        final int mask = keys.length - 1;
+        for ( int j = 0; j < oldKeys.length; j++ )
+        {
+            if ( oldKeys[j] != FREE )
+            {
+                int i = index( oldKeys[j], mask );
+                while ( keys[i] != FREE )
+                {
+                    i = ( i + 1 ) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    private void allocate( final int capacity )
+    {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        Arrays.fill( keys, FREE );
+    }
+
+    private static int tableSize( final int expected )
+    {
+        final int capacity = Integer.highestOneBit( Math.max( MIN_CAPACITY, expected * 2 ) - 1 ) << 1;
+        return Math.max( MIN_CAPACITY, capacity );
+    }
+
+    private static int index( final long key, final int mask )
+    {
+        // Spread the bits of both halves (groupId and artifactId ids) over the table.
+        final long h = key * 0x9E3779B97F4A7C15L;
+        return (int) ( h ^ ( h >>> 32 ) ) & mask;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.common.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns groupIds and artifactIds to small int ids so that a groupId:artifactId may be used as a single long key
+ * (see {@link LongObjectMap}) instead of allocating and hashing a ProjectRef with its own copies of both strings.
+ * <p>
+ * Ids are handed out in order from zero and are never released ; the table is safe for concurrent use.
+ */
+public final class SymbolTable
+{
+    /**
+     * Returned by the lookup methods for a symbol (or groupId:artifactId) that has never been interned.
+     */
+    public static final int UNKNOWN = -1;
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+
+    private final List<String> symbols = new ArrayList<>();
+
+    /**
+     * @param symbol the string to intern
+     * @return the id of the symbol, allocating one if required
+     */
+    public int intern( final String symbol )
+    {
+        final Integer id = ids.get( symbol );
+        if ( id != null )
+        {
+            return id;
+        }
+        return ids.computeIfAbsent( symbol, k -> {
+            synchronized ( symbols )
+            {
+                symbols.add( k );
+                return symbols.size() - 1;
+            }
+        } );
+    }
+
+    /**
+     * @param symbol the string to look for
+     * @return the id of the symbol or {@link #UNKNOWN} if it has not been interned
+     */
+    public int lookup( final String symbol )
+    {
+        final Integer id = ids.get( symbol );
+        return id == null ? UNKNOWN : id;
+    }
+
+    /**
+     * @param id an id returned by {@link #intern(String)}
+     * @return the interned string
+     */
+    public String symbol( final int id )
+    {
+        synchronized ( symbols )
+        {
+            return symbols.get( id );
+        }
+    }
+
+    /**
+     * @param groupId the groupId to intern
+     * @param artifactId the artifactId to intern
+     * @return a key unique to the groupId:artifactId
+     */
+    public long internGA( final String groupId, final String artifactId )
+    {
+        return ga( intern( groupId ), intern( artifactId ) );
+    }
+
+    /**
+     * Looks up the key of a groupId:artifactId without interning either part ; this avoids growing the table
+     * with values that can never match.
+     *
+     * @param groupId the groupId to look for
+     * @param artifactId the artifactId to look for
+     * @return the key of the groupId:artifactId or {@link #UNKNOWN} if either part has not been interned
+     */
+    public long lookupGA( final String groupId, final String artifactId )
+    {
+        final int g = lookup( groupId );
+        final int a = g == UNKNOWN ? UNKNOWN : lookup( artifactId );
+        return a == UNKNOWN ? UNKNOWN : ga( g, a );
+    }
+
+    public int size()
+    {
+        return ids.size();
+    }
+
+    private static long ga( final int groupId, final int artifactId )
+    {
+        return ( (long) groupId << 32 ) | artifactId;
+    }
+}
@@ -20,6 +20,7 @@ import org.commonjava.maven.atlas.ident.ref.ProjectRef;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -28,12 +29,19 @@ import java.util.Map;
  * <p>
  *     String(groupId) : Map (where Map contains String(artifactId):String(value) ).
  * </p>
- * artifactId may be a wildcard (*) or an explicit value.
+ * artifactId may be a wildcard (*) or an explicit value. groupId may also end in a wildcard segment (e.g.
+ * {@code org.foo.*}) to match every groupId below it, such as {@code org.foo.bar} and {@code org.foo.bar.baz}.
+ * <p>
+ * An exact groupId is matched first, then the longest matching groupId prefix. Exact groupIds are held in a hash map
+ * while the prefixes are held in a trie keyed on the groupId segments so a lookup is O(segments) however many
+ * prefixes have been added.
  */
 public class WildcardMap<T>
 {
     public static final String WILDCARD = "*";
 
+    private static final String PREFIX_WILDCARD = "." + WILDCARD;
+
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
     /**
@@ -41,10 +49,16 @@ public class WildcardMap<T>
      * <p>
      * groupId : map where map is artifactId : value
      * </p>
-     * artifactId may be a wildcard '*'.
+     * artifactId may be a wildcard '*'. The groupId prefixes are included (as e.g. org.foo.*) as they share the
+     * artifactId maps with the trie.
      */
     private final Map<String, Map<String,T>> map = new LinkedHashMap<>();
 
+    /**
+     * Root of the trie of groupId prefixes.
+     */
+    private final Node<T> prefixes = new Node<>();
+
     /**
      * Size implementation
      * @return the size of the wildcard map
@@ -82,9 +96,16 @@ public class WildcardMap<T>
 
     private boolean internalContainsKey(String groupId, String artifactId)
     {
-        boolean result;
+        if ( containsKey( map.get( groupId ), artifactId ) )
+        {
+            return true;
+        }
+        return prefixes.children != null && containsKey( findPrefix( groupId, artifactId ), artifactId );
+    }
 
-        Map<String, T> vMap = map.get( groupId);
+    private boolean containsKey( Map<String, T> vMap, String artifactId )
+    {
+        boolean result;
 
         if ( vMap == null || vMap.isEmpty())
         {
@@ -120,7 +141,6 @@ public class WildcardMap<T>
         {
             vMap = new LinkedHashMap<>();
         }
-        boolean wildcard = false;
 
         if ( WILDCARD.equals(artifactId))
         {
@@ -132,26 +152,22 @@ public class WildcardMap<T>
             }
             vMap.clear();
         }
-        else
-        {
-            for ( Object o : vMap.keySet() )
-            {
-                if ( o.equals( WILDCARD ) )
-                {
-                    wildcard = true;
-                    break;
-                }
-            }
-        }
-        if ( wildcard )
+        else if ( vMap.containsKey( WILDCARD ) )
         {
             logger.warn( "Unable to add {} with value {} as wildcard mapping for {} already exists.",
                     key, value, groupId );
+            return;
         }
-        else
+
+        vMap.put(artifactId, value);
+        if ( map.put(groupId, vMap) == null && isPrefix( groupId ) )
         {
-            vMap.put(artifactId, value);
-            map.put(groupId, vMap);
+            Node<T> node = prefixes;
+            for ( String segment : groupId.substring( 0, groupId.length() - PREFIX_WILDCARD.length() ).split( "\\." ) )
+            {
+                node = node.child( segment );
+            }
+            node.artifacts = vMap;
         }
     }
 
@@ -185,10 +201,20 @@ public class WildcardMap<T>
     }
 
     private T get(String groupId, String artifactId)
+    {
+        T result = get( map.get( groupId ), artifactId );
+
+        if ( result == null && prefixes.children != null )
+        {
+            result = get( findPrefix( groupId, artifactId ), artifactId );
+        }
+        return result;
+    }
+
+    private T get( Map<String, T> value, String artifactId )
     {
         T result = null;
 
-        Map<String, T> value = map.get(groupId);
         if (value != null)
         {
             if ( value.get(WILDCARD) != null)
@@ -203,6 +229,41 @@ public class WildcardMap<T>
         return result;
     }
 
+    /**
+     * Walks the trie along the segments of the groupId.
+     *
+     * @return the artifactId map of the longest groupId prefix (excluding the groupId itself) matching the artifactId,
+     * or null.
+     */
+    private Map<String, T> findPrefix( String groupId, String artifactId )
+    {
+        Map<String, T> result = null;
+        Node<T> node = prefixes;
+        int start = 0;
+
+        while ( node != null )
+        {
+            final int end = groupId.indexOf( '.', start );
+            if ( end == -1 )
+            {
+                // The last segment ; a prefix only matches the groupIds below it.
+                break;
+            }
+            node = node.children == null ? null : node.children.get( groupId.substring( start, end ) );
+            if ( node != null && containsKey( node.artifacts, artifactId ) )
+            {
+                result = node.artifacts;
+            }
+            start = end + 1;
+        }
+        return result;
+    }
+
+    private static boolean isPrefix( String groupId )
+    {
+        return groupId.endsWith( PREFIX_WILDCARD ) && groupId.length() > PREFIX_WILDCARD.length();
+    }
+
 
     /**
      * @return Returns true if the underlying map is empty.
@@ -219,4 +280,20 @@ public class WildcardMap<T>
                 "map=" + map +
                 '}';
     }
+
+    private static final class Node<T>
+    {
+        private Map<String, Node<T>> children;
+
+        private Map<String, T> artifacts;
+
+        private Node<T> child( String segment )
+        {
+            if ( children == null )
+            {
+                children = new HashMap<>();
+            }
+            return children.computeIfAbsent( segment, k -> new Node<>() );
+        }
+    }
 }
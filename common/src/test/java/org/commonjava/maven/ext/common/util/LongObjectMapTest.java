@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.common.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class LongObjectMapTest
+{
+    @Test
+    public void testPutAndGet()
+    {
+        final LongObjectMap<String> map = new LongObjectMap<>();
+        final SymbolTable symbols = new SymbolTable();
+
+        for ( int i = 0; i < 10000; i++ )
+        {
+            assertNull( map.put( symbols.internGA( "org.foo.group" + i % 100, "artifact-" + i ), "v" + i ) );
+        }
+        assertEquals( 10000, map.size() );
+        assertEquals( "v42", map.put( symbols.internGA( "org.foo.group42", "artifact-42" ), "updated" ) );
+        assertEquals( 10000, map.size() );
+
+        for ( int i = 0; i < 10000; i++ )
+        {
+            assertEquals( i == 42 ? "updated" : "v" + i,
+                          map.get( symbols.lookupGA( "org.foo.group" + i % 100, "artifact-" + i ) ) );
+        }
+        assertNull( map.get( symbols.lookupGA( "org.foo.group1", "artifact-2" ) ) );
+        assertNull( map.get( symbols.lookupGA( "org.unknown", "artifact-1" ) ) );
+    }
+
+    @Test
+    public void testComputeIfAbsent()
+    {
+        final LongObjectMap<List<String>> map = new LongObjectMap<>( 2 );
+
+        for ( long key = 0; key < 100; key++ )
+        {
+            map.computeIfAbsent( key % 10, k -> new ArrayList<>() ).add( Long.toString( key ) );
+        }
+        assertEquals( 10, map.size() );
+        assertEquals( 10, map.get( 3 ).size() );
+        assertSame( map.get( 3 ), map.computeIfAbsent( 3, k -> new ArrayList<>() ) );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void testNegativeKey()
+    {
+        new LongObjectMap<String>().put( SymbolTable.UNKNOWN, "foo" );
+    }
+}
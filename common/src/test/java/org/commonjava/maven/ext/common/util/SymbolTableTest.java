@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.common.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class SymbolTableTest
+{
+    @Test
+    public void testIntern()
+    {
+        final SymbolTable symbols = new SymbolTable();
+
+        final int foo = symbols.intern( "org.foo" );
+        assertEquals( foo, symbols.intern( new String( "org.foo" ) ) );
+        assertEquals( "org.foo", symbols.symbol( foo ) );
+        assertEquals( SymbolTable.UNKNOWN, symbols.lookup( "org.bar" ) );
+
+        final long ga = symbols.internGA( "org.foo", "bar" );
+        assertEquals( ga, symbols.lookupGA( "org.foo", "bar" ) );
+        assertNotEquals( ga, symbols.internGA( "bar", "org.foo" ) );
+        assertEquals( SymbolTable.UNKNOWN, symbols.lookupGA( "org.foo", "baz" ) );
+        assertEquals( 2, symbols.size() );
+    }
+
+    @Test
+    public void testConcurrentIntern() throws Exception
+    {
+        final SymbolTable symbols = new SymbolTable();
+        final ExecutorService executor = Executors.newFixedThreadPool( 4 );
+        try
+        {
+            final List<Future<?>> futures = new ArrayList<>();
+            for ( int t = 0; t < 4; t++ )
+            {
+                futures.add( executor.submit( () -> {
+                    for ( int i = 0; i < 1000; i++ )
+                    {
+                        symbols.intern( "symbol-" + i );
+                    }
+                } ) );
+            }
+            for ( Future<?> future : futures )
+            {
+                future.get();
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        assertEquals( 1000, symbols.size() );
+        for ( int i = 0; i < 1000; i++ )
+        {
+            assertEquals( "symbol-" + i, symbols.symbol( symbols.lookup( "symbol-" + i ) ) );
+        }
+    }
+}
@@ -137,4 +137,37 @@ public class WildcardMapTest
                            Matchers.containsString( "Emptying map with keys [artifact] as replacing with wildcard mapping org.group:*"));
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testPrefixWildcard()
+    {
+        map.put( SimpleProjectRef.parse( "org.group.*:*" ), "1.0" );
+        map.put( SimpleProjectRef.parse( "org.group.sub.*:artifact" ), "2.0" );
+        map.put( SimpleProjectRef.parse( "org.group.sub.deep:other" ), "3.0" );
+
+        Assert.assertEquals( "1.0", map.get( SimpleProjectRef.parse( "org.group.child:artifact" ) ) );
+        Assert.assertEquals( "2.0", map.get( SimpleProjectRef.parse( "org.group.sub.deep:artifact" ) ) );
+        Assert.assertEquals( "1.0", map.get( SimpleProjectRef.parse( "org.group.sub.deep:unknown" ) ) );
+        Assert.assertEquals( "3.0", map.get( SimpleProjectRef.parse( "org.group.sub.deep:other" ) ) );
+        Assert.assertEquals( "1.0", map.get( SimpleProjectRef.parse( "org.group.sub:artifact" ) ) );
+
+        // A prefix only matches the groupIds below it.
+        Assert.assertFalse( map.containsKey( SimpleProjectRef.parse( "org.group:artifact" ) ) );
+        Assert.assertFalse( map.containsKey( SimpleProjectRef.parse( "org.groups.child:artifact" ) ) );
+        Assert.assertTrue( map.containsKey( SimpleProjectRef.parse( "org.group.sub.deep.deeper:artifact" ) ) );
+        Assert.assertEquals( 3, map.size() );
+    }
+
+    @Test
+    public void testPrefixWildcardReplacesExisting()
+    {
+        map.put( SimpleProjectRef.parse( "org.group.*:artifact" ), "1.0" );
+        map.put( SimpleProjectRef.parse( "org.group.*:*" ), "2.0" );
+        map.put( SimpleProjectRef.parse( "org.group.*:other" ), "3.0" );
+
+        Assert.assertEquals( "2.0", map.get( SimpleProjectRef.parse( "org.group.child:artifact" ) ) );
+        Assert.assertEquals( "2.0", map.get( SimpleProjectRef.parse( "org.group.child:other" ) ) );
+        Assert.assertThat( m_listAppender.list.toString(), Matchers.containsString(
+                        "Unable to add org.group.*:other with value 3.0 as wildcard mapping for org.group.* already exists" ) );
+    }
+}
@@ -31,10 +31,17 @@ import org.commonjava.maven.ext.common.util.ProjectComparator;
 import org.commonjava.maven.ext.common.util.WildcardMap;
 import org.commonjava.maven.ext.core.impl.Manipulator;
 import org.commonjava.maven.ext.core.impl.PreparseGroovyManipulator;
+import org.commonjava.maven.ext.core.impl.RESTBOMCollector;
 import org.commonjava.maven.ext.core.state.CommonState;
 import org.commonjava.maven.ext.core.state.DependencyState;
+import org.commonjava.maven.ext.core.state.PluginState;
+import org.commonjava.maven.ext.core.state.ProfileInjectionState;
+import org.commonjava.maven.ext.core.state.PropertyState;
+import org.commonjava.maven.ext.core.state.RESTState;
 import org.commonjava.maven.ext.core.state.RelocationState;
+import org.commonjava.maven.ext.core.state.RepositoryInjectionState;
 import org.commonjava.maven.ext.core.util.ManipulatorPriorityComparator;
+import org.commonjava.maven.ext.io.ModelIO;
 import org.commonjava.maven.ext.io.PomIO;
 import org.commonjava.maven.ext.io.resolver.ExtensionInfrastructure;
 import org.slf4j.Logger;
@@ -48,9 +55,11 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -96,6 +105,9 @@ public class ManipulationManager
     @ConfigValue( docIndex = "../index.html#write-changed")
     public static final String REWRITE_CHANGED = "manipulationWriteChanged";
 
+    @ConfigValue( docIndex = "../index.html#prefetch")
+    public static final String PREFETCH_THREADS = "prefetchThreads";
+
 
     private final Logger logger = LoggerFactory.getLogger( getClass() );
 
@@ -105,18 +117,21 @@ public class ManipulationManager
 
     private final PomIO pomIO;
 
+    private final ModelIO modelIO;
+
     private final PreparseGroovyManipulator preparseGroovyManipulator;
 
     private final PME jsonReport = new PME();
 
     @Inject
     public ManipulationManager( Map<String, Manipulator> manipulators,
-                                Map<String, ExtensionInfrastructure> infrastructure, PomIO pomIO,
+                                Map<String, ExtensionInfrastructure> infrastructure, PomIO pomIO, ModelIO modelIO,
                                 PreparseGroovyManipulator preparseGroovyManipulator )
     {
         this.manipulators = manipulators;
         this.infrastructure = infrastructure;
         this.pomIO = pomIO;
+        this.modelIO = modelIO;
         this.preparseGroovyManipulator = preparseGroovyManipulator;
     }
 
@@ -172,6 +187,8 @@ public class ManipulationManager
         {
             infra.init( );
         }
+        // Remote POMs are only cached for the duration of a session.
+        modelIO.clearCache();
 
         orderedManipulators = new ArrayList<>( manipulators.values() );
         // The RESTState depends upon the VersionState being initialised. Therefore initialise in reverse order
@@ -196,6 +213,74 @@ public class ManipulationManager
             cState.setStrictDependencyPluginPropertyValidation( 0 );
         }
         session.setState( cState );
+
+        prefetch( session );
+    }
+
+    /**
+     * Concurrently downloads the remote POMs and BOMs referenced by the session state so that the manipulators, which
+     * would otherwise resolve them one at a time, are served from the {@link ModelIO} cache. BOMs whose versions are
+     * replaced by the {@link RESTBOMCollector} are skipped as their final version is not yet known.
+     */
+    private void prefetch( final ManipulationSession session )
+    {
+        final int threads = Integer.parseInt( session.getUserProperties().getProperty( PREFETCH_THREADS, "4" ) );
+        if ( !session.isEnabled() || threads < 1 )
+        {
+            return;
+        }
+
+        final boolean restEnabled = session.getState( RESTState.class ) != null && session.getState( RESTState.class )
+                                                                                          .isEnabled();
+        final Set<ProjectVersionRef> models = new LinkedHashSet<>();
+        final Set<ProjectVersionRef> pomViews = new LinkedHashSet<>();
+        final Set<ProjectVersionRef> boms = new LinkedHashSet<>();
+
+        final DependencyState dState = session.getState( DependencyState.class );
+        final PluginState pState = session.getState( PluginState.class );
+        final PropertyState propState = session.getState( PropertyState.class );
+        final ProfileInjectionState profileState = session.getState( ProfileInjectionState.class );
+        final RepositoryInjectionState repositoryState = session.getState( RepositoryInjectionState.class );
+
+        if ( dState != null )
+        {
+            addRemote( dState.getRemoteBOMDepMgmt(), boms );
+            addRemote( dState.getExtraBOMs().values(), boms );
+        }
+        if ( pState != null )
+        {
+            addRemote( pState.getRemotePluginMgmt(), pomViews );
+            addRemote( pState.getRemotePluginMgmt(), models );
+        }
+        if ( propState != null )
+        {
+            addRemote( propState.getRemotePropertyMgmt(), models );
+        }
+        if ( profileState != null )
+        {
+            addRemote( profileState.getRemoteProfileInjectionMgmt(), models );
+        }
+        if ( repositoryState != null && repositoryState.getRemoteRepositoryInjectionMgmt() != null )
+        {
+            models.add( repositoryState.getRemoteRepositoryInjectionMgmt() );
+        }
+
+        if ( restEnabled )
+        {
+            models.removeIf( ref -> RESTBOMCollector.isRESTLookupCandidate( session, ref ) );
+            pomViews.removeIf( ref -> RESTBOMCollector.isRESTLookupCandidate( session, ref ) );
+            boms.removeIf( ref -> RESTBOMCollector.isRESTLookupCandidate( session, ref ) );
+        }
+
+        modelIO.prefetch( models, pomViews, boms, threads );
+    }
+
+    private static void addRemote( final Collection<ProjectVersionRef> refs, final Set<ProjectVersionRef> target )
+    {
+        if ( refs != null )
+        {
+            target.addAll( refs );
+        }
     }
 
     /**
@@ -284,6 +369,17 @@ public class ManipulationManager
         {
             e.finish();
         }
+        // RESTState is not an ExtensionInfrastructure but owns a connection pool that must be released as well.
+        final RESTState restState = session.getState( RESTState.class );
+        if ( restState != null )
+        {
+            restState.shutdown();
+        }
+        logger.debug( "Remote POM cache statistics: models ({}), pom views ({}), BOMs ({})",
+                      modelIO.getModelCacheStatistics(), modelIO.getPomViewCacheStatistics(),
+                      modelIO.getBomCacheStatistics() );
+        logger.debug( "Galley request statistics: {}", modelIO.getResolverStatistics() );
+        modelIO.shutdown();
 
         logger.info( "Maven-Manipulation-Extension: Finished." );
     }
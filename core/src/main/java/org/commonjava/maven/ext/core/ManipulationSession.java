@@ -23,6 +23,7 @@ import org.commonjava.maven.ext.common.ManipulationException;
 import org.commonjava.maven.ext.common.model.Project;
 import org.commonjava.maven.ext.common.session.MavenSessionHandler;
 import org.commonjava.maven.ext.common.util.ManifestUtils;
+import org.commonjava.maven.ext.common.util.SymbolTable;
 import org.commonjava.maven.ext.core.impl.Manipulator;
 import org.commonjava.maven.ext.core.state.CommonState;
 import org.commonjava.maven.ext.core.state.State;
@@ -55,6 +56,11 @@ public class ManipulationSession
 
     private final Map<Class<?>, State> states = new HashMap<>();
 
+    /**
+     * Interns the groupIds and artifactIds of overrides so that they may be indexed by compact ids.
+     */
+    private final SymbolTable symbols = new SymbolTable();
+
     private MavenSession mavenSession;
 
     /**
@@ -129,6 +135,11 @@ public class ManipulationSession
         return projects;
     }
 
+    public SymbolTable getSymbols()
+    {
+        return symbols;
+    }
+
     @Override
     public List<ArtifactRepository> getRemoteRepositories()
     {
@@ -17,7 +17,6 @@ package org.commonjava.maven.ext.core.impl;
 
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 import org.apache.maven.model.Model;
@@ -29,11 +28,10 @@ import org.commonjava.maven.ext.common.model.Project;
 import org.commonjava.maven.ext.common.util.ProfileUtils;
 import org.commonjava.maven.ext.core.ManipulationSession;
 import org.commonjava.maven.ext.core.state.PluginRemovalState;
+import org.commonjava.maven.ext.core.util.IdUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import static org.commonjava.maven.ext.core.util.IdUtils.ga;
-
 /**
  * {@link Manipulator} implementation that can remove specified plugins from a project's pom file.
  */
@@ -59,12 +57,13 @@ public abstract class BasePluginRemovalManipulator
         }
 
         final Set<Project> changed = new HashSet<>();
+        final Set<ProjectRef> pluginsToRemove = IdUtils.toProjectRefSet( state.getPluginRemoval() );
 
         for ( final Project project : projects )
         {
             final Model model = project.getModel();
 
-            if ( apply( project, model, state ) )
+            if ( apply( project, model, pluginsToRemove ) )
             {
                 changed.add( project );
             }
@@ -73,12 +72,11 @@ public abstract class BasePluginRemovalManipulator
         return changed;
     }
 
-    protected boolean apply( final Project project, final Model model, final PluginRemovalState state )
+    protected boolean apply( final Project project, final Model model, final Set<ProjectRef> pluginsToRemove )
     {
         logger.debug( "Applying plugin changes to: {}:{}", project.getGroupId(), project.getArtifactId() );
 
         boolean result = false;
-        List<ProjectRef> pluginsToRemove = state.getPluginRemoval();
         if ( model.getBuild() != null )
         {
             result = scanPlugins( pluginsToRemove, model.getBuild().getPlugins() );
@@ -94,23 +92,15 @@ public abstract class BasePluginRemovalManipulator
         return result;
     }
 
-    private boolean scanPlugins( List<ProjectRef> pluginsToRemove, List<Plugin> plugins )
+    private boolean scanPlugins( Set<ProjectRef> pluginsToRemove, List<Plugin> plugins )
     {
-        boolean result = false;
-        if ( plugins != null )
-        {
-            Iterator<Plugin> it = plugins.iterator();
-            while ( it.hasNext() )
+        return plugins != null && plugins.removeIf( p -> {
+            if ( pluginsToRemove.contains( new SimpleProjectRef( p.getGroupId(), p.getArtifactId() ) ) )
             {
-                Plugin p = it.next();
-                if ( pluginsToRemove.contains( SimpleProjectRef.parse( p.getKey() ) ) )
-                {
-                    logger.debug( "Removing {}", p );
-                    it.remove();
-                    result = true;
-                }
+                logger.debug( "Removing {}", p );
+                return true;
             }
-        }
-        return result;
+            return false;
+        } );
     }
 }
@@ -23,6 +23,7 @@ import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
 import org.commonjava.maven.atlas.ident.ref.SimpleProjectRef;
 import org.commonjava.maven.ext.common.ManipulationException;
 import org.commonjava.maven.ext.core.util.DependencyPluginWrapper;
+import org.commonjava.maven.ext.core.util.ModuleOverrides;
 import org.commonjava.maven.ext.common.model.Project;
 import org.commonjava.maven.ext.common.util.WildcardMap;
 import org.commonjava.maven.ext.core.ManipulationSession;
@@ -32,7 +33,6 @@ import org.commonjava.maven.ext.io.ModelIO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -57,12 +57,12 @@ public class CommonManipulator
     protected ManipulationSession session;
 
     /**
-     * Remove module overrides which do not apply to the current module. Searches the full list of version overrides
-     * for any keys which contain the '@' symbol.  Removes these from the version overrides list, and add them back
-     * without the '@' symbol only if they apply to the current module.
+     * Remove module overrides which do not apply to the current module. Looks up the module specific overrides (keys
+     * containing the '@' symbol) for the current module and applies them ; the remaining wildcard ('@*') overrides
+     * are only applied if no module specific override exists for that artifact.
      *
      * @param projectGA the current project group : artifact
-     * @param moduleOverrides are individual overrides e.g. group:artifact@groupId:artifactId :: value
+     * @param moduleOverrides the compiled individual overrides e.g. group:artifact@groupId:artifactId :: value
      * @param originalOverrides The full list of version overrides, both global and module specific
      * @param explicitOverrides a custom map to handle wildcard overrides
      * @param extraBOMOverrides a nested map of additional overrides, keyed on a String
@@ -70,7 +70,7 @@ public class CommonManipulator
      * @throws ManipulationException if an error occurs
      */
     protected Map<ArtifactRef, String> applyModuleVersionOverrides( final String projectGA,
-                                                                           final Map<String, String> moduleOverrides,
+                                                                           final ModuleOverrides moduleOverrides,
                                                                            final Map<ArtifactRef, String> originalOverrides,
                                                                            final WildcardMap<String> explicitOverrides,
                                                                            final Map<String, Map<ProjectRef, String>> extraBOMOverrides )
@@ -78,165 +78,83 @@ public class CommonManipulator
     {
         final Map<ArtifactRef, String> remainingOverrides = new LinkedHashMap<>( originalOverrides );
 
+        if ( moduleOverrides.isEmpty() )
+        {
+            return remainingOverrides;
+        }
         if (logger.isDebugEnabled())
         {
             logger.debug( "Calculating module-specific version overrides. Starting with:{}  {}", System.lineSeparator(),
                     join( remainingOverrides.entrySet(), System.lineSeparator() + "  " ) );
         }
 
-        // These modes correspond to two different kinds of passes over the available override properties:
+        // Removals only ever affect the remaining overrides so they may all be applied together at the end.
+        final ModuleOverrides.Removals removals = new ModuleOverrides.Removals();
+
         // 1. Module-specific: Don't process wildcard overrides here, allow module-specific settings to take precedence.
-        // 2. Wildcards: Add these IF there is no corresponding module-specific override.
-        final boolean[] wildcardMode = { false, true };
-        for ( boolean aWildcardMode : wildcardMode )
+        for ( final ModuleOverrides.Rule rule : moduleOverrides.getModuleRules( projectGA ) )
         {
-            for ( final Entry<String, String> entry : moduleOverrides.entrySet() )
+            if ( rule.isRemoval() )
             {
-                final String currentKey = entry.getKey();
-                final String currentValue = entry.getValue();
-                final boolean isModuleWildcard = currentKey.endsWith( "@*" );
-
-                logger.debug( "Processing key {} for override with value '{}' and is "
-                    + "wildcard {} and in module wildcard {}",
-                    currentKey, currentValue, isModuleWildcard, aWildcardMode );
-
-                if ( !currentKey.contains( "@" ) )
-                {
-                    logger.trace( "Not an override. Skip." );
-                    continue;
-                }
-
-                final String artifactGA;
-                boolean replace = false;
-                // process module-specific overrides (first)
-                if ( !aWildcardMode )
-                {
-                    // skip wildcard overrides in this mode
-                    if ( isModuleWildcard )
-                    {
-                        logger.trace( "Not currently in wildcard mode. Skip." );
-                        continue;
-                    }
-
-                    final String[] artifactAndModule = currentKey.split( "@" );
-                    if ( artifactAndModule.length != 2 )
-                    {
-                        throw new ManipulationException( "Invalid format for exclusion key {}", currentKey );
-                    }
-                    artifactGA = artifactAndModule[0];
-                    final ProjectRef moduleGA = SimpleProjectRef.parse( artifactAndModule[1] );
-
-                    logger.debug( "For artifact override: {}, comparing parsed module: {} to current project: {}",
-                                  artifactGA, moduleGA, projectGA );
-
-                    if ( moduleGA.toString().equals( projectGA ) ||
-                                    (
-                                        moduleGA.getArtifactId().equals( "*" ) &&
-                                        SimpleProjectRef.parse( projectGA ).getGroupId().equals( moduleGA.getGroupId()
-                                    )
-                        ) )
-                    {
-                        if ( currentValue != null && !currentValue.isEmpty() )
-                        {
-                            replace = true;
-                            logger.debug( "Overriding module dependency for {} with {} : {}", moduleGA, artifactGA,
-                                          currentValue );
-                        }
-                        else
-                        {
-                            // Override prevention...
-                            removeGA( remainingOverrides, SimpleProjectRef.parse( artifactGA ) );
-                            logger.debug( "For module {}, ignoring dependency override for {}", moduleGA, artifactGA);
-                        }
-                    }
-                }
-                // process wildcard overrides (second)
-                else
-                {
-                    // skip module-specific overrides in this mode i.e. format of groupdId:artifactId@*=
-                    if ( !isModuleWildcard )
-                    {
-                        logger.debug( "Currently in wildcard mode. Skip." );
-                        continue;
-                    }
-
-                    artifactGA = currentKey.substring( 0, currentKey.length() - 2 );
-                    logger.debug( "For artifact override: {}, checking if current overrides already contain a module-specific version.",
-                                  artifactGA );
-
-                    if ( explicitOverrides.containsKey( SimpleProjectRef.parse( artifactGA ) ) )
-                    {
-                        logger.debug( "For artifact override: {}, current overrides already contain a module-specific version. Skip.",
-                                      artifactGA );
-                        continue;
-                    }
-
-                    // I think this is only used for e.g. dependencyExclusion.groupId:artifactId@*=<explicitVersion>
-                    if ( currentValue != null && !currentValue.isEmpty() )
-                    {
-                        logger.debug( "Overriding module dependency for {} with {} : {}", projectGA, artifactGA,
-                                      currentValue );
-                        replace = true;
-                    }
-                    else
-                    {
-                        // If we have a wildcard artifact we want to replace any prior explicit overrides
-                        // with this one i.e. this takes precedence.
-                        removeGA( remainingOverrides, SimpleProjectRef.parse( artifactGA ) );
-                        logger.debug( "Removing artifactGA {} from overrides", artifactGA );
-                    }
-                }
+                // Override prevention...
+                removals.add( rule.getArtifact() );
+                logger.debug( "For module {}, ignoring dependency override for {}", projectGA, rule.getArtifact() );
+            }
+            else
+            {
+                logger.debug( "Overriding module dependency for {} with {} : {}", projectGA, rule.getArtifact(),
+                              rule.getValue() );
+                explicitOverrides.put( rule.getArtifact(), resolveOverrideValue( rule, extraBOMOverrides ) );
+            }
+        }
 
-                if ( replace )
-                {
-                    final ProjectRef projectRef = SimpleProjectRef.parse( artifactGA );
-                    final String newArtifactValue;
-                    // Expand values that reference an extra BOM
-                    final Map<ProjectRef, String> extraBOM = extraBOMOverrides.get( currentValue );
-                    if ( extraBOM == null )
-                    {
-                        newArtifactValue = currentValue;
-                    }
-                    else
-                    {
-                        newArtifactValue = extraBOM.get( projectRef );
-                        if ( newArtifactValue == null )
-                        {
-                            throw new ManipulationException( "Extra BOM {} does not define a version for artifact {} targeted by {}",
-                                                             currentValue, artifactGA, currentKey );
-                        }
-                        logger.debug( "Dereferenced value {} for {} from extra BOM {}", newArtifactValue, artifactGA,
-                                      currentValue );
-                    }
-                    explicitOverrides.put( projectRef, newArtifactValue );
-                }
+        // 2. Wildcards: Add these IF there is no corresponding module-specific override.
+        for ( final ModuleOverrides.Rule rule : moduleOverrides.getWildcardRules() )
+        {
+            if ( explicitOverrides.containsKey( rule.getArtifact() ) )
+            {
+                logger.debug( "For artifact override: {}, current overrides already contain a module-specific version. Skip.",
+                              rule.getArtifact() );
+            }
+            else if ( rule.isRemoval() )
+            {
+                // If we have a wildcard artifact we want to replace any prior explicit overrides
+                // with this one i.e. this takes precedence.
+                removals.add( rule.getArtifact() );
+                logger.debug( "Removing artifactGA {} from overrides", rule.getArtifact() );
+            }
+            else
+            {
+                // I think this is only used for e.g. dependencyExclusion.groupId:artifactId@*=<explicitVersion>
+                logger.debug( "Overriding module dependency for {} with {} : {}", projectGA, rule.getArtifact(),
+                              rule.getValue() );
+                explicitOverrides.put( rule.getArtifact(), resolveOverrideValue( rule, extraBOMOverrides ) );
             }
         }
 
+        removals.removeFrom( remainingOverrides );
+
         return remainingOverrides;
     }
 
-    private void removeGA( Map<ArtifactRef, String> overrides, ProjectRef ref )
+    private String resolveOverrideValue( final ModuleOverrides.Rule rule,
+                                         final Map<String, Map<ProjectRef, String>> extraBOMOverrides )
+                    throws ManipulationException
     {
-        Iterator<ArtifactRef> it = overrides.keySet().iterator();
-
-        while ( it.hasNext() )
+        // Expand values that reference an extra BOM
+        final Map<ProjectRef, String> extraBOM = extraBOMOverrides.get( rule.getValue() );
+        if ( extraBOM == null )
         {
-            ArtifactRef a = it.next();
-
-            if ( a.asProjectRef().equals( ref ) ||
-                ( ref.getArtifactId().equals( "*" ) && a.getGroupId().equals( ref.getGroupId() ) ) ||
-                ( ref.getGroupId().equals( "*" ) && a.getArtifactId().equals( ref.getArtifactId() ) ) )
-            {
-                it.remove();
-            }
-            else if ( ref.getArtifactId().equals( "*" ) && ref.getGroupId().equals( "*" ) )
-            {
-                // For complete wildcard also cache the ignored module as we need the list later during
-                // property processing.
-                it.remove();
-            }
+            return rule.getValue();
+        }
+        final String value = extraBOM.get( rule.getArtifact() );
+        if ( value == null )
+        {
+            throw new ManipulationException( "Extra BOM {} does not define a version for artifact {} targeted by {}",
+                                             rule.getValue(), rule.getArtifact(), rule.getKey() );
         }
+        logger.debug( "Dereferenced value {} for {} from extra BOM {}", value, rule.getArtifact(), rule.getValue() );
+        return value;
     }
 
     /**
@@ -33,7 +33,9 @@ import org.commonjava.maven.ext.core.util.PluginReference;
 import org.commonjava.maven.ext.core.util.DependencyPluginWrapper;
 import org.commonjava.maven.ext.common.model.Project;
 import org.commonjava.maven.ext.common.model.SimpleScopedArtifactRef;
+import org.commonjava.maven.ext.common.util.LongObjectMap;
 import org.commonjava.maven.ext.common.util.PropertyResolver;
+import org.commonjava.maven.ext.common.util.SymbolTable;
 import org.commonjava.maven.ext.common.util.WildcardMap;
 import org.commonjava.maven.ext.core.ManipulationSession;
 import org.commonjava.maven.ext.core.state.CommonState;
@@ -61,6 +63,10 @@ import java.util.ListIterator;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.apache.commons.lang.StringUtils.isEmpty;
 import static org.apache.commons.lang.StringUtils.startsWith;
@@ -204,26 +210,38 @@ public class DependencyManipulator extends CommonManipulator implements Manipula
     }
 
 
-    private void removeDuplicateArtifacts( Map<ArtifactRef, String> mergedOverrides, Map<ArtifactRef, String> targetOverrides )
+    /**
+     * Removes the entries of mergedOverrides whose groupId:artifactId also appears in targetOverrides, which take
+     * precedence.
+     *
+     * @param mergedOverrides the overrides to remove clashing entries from.
+     * @param targetOverrides the overrides given precedence.
+     */
+    void removeDuplicateArtifacts( Map<ArtifactRef, String> mergedOverrides, Map<ArtifactRef, String> targetOverrides )
     {
+        // The first entry for each groupId:artifactId, which is the one a clash is reported against.
+        final Map<ProjectRef, Entry<ArtifactRef, String>> targets = new HashMap<>( targetOverrides.size() * 2 );
+        for ( final Entry<ArtifactRef, String> targetOverridesEntry : targetOverrides.entrySet() )
+        {
+            final ArtifactRef target = targetOverridesEntry.getKey();
+            targets.putIfAbsent( new SimpleProjectRef( target.getGroupId(), target.getArtifactId() ),
+                                 targetOverridesEntry );
+        }
+
         final Iterator<Entry<ArtifactRef, String>> it = mergedOverrides.entrySet().iterator();
         while ( it.hasNext() )
         {
             final Entry<ArtifactRef, String> mergedOverridesEntry = it.next();
             final ArtifactRef key = mergedOverridesEntry.getKey();
-            final ProjectRef pRef = key.asProjectRef();
+            final Entry<ArtifactRef, String> targetOverridesEntry =
+                            targets.get( new SimpleProjectRef( key.getGroupId(), key.getArtifactId() ) );
 
-            for ( final Entry<ArtifactRef, String> tatgetOverridesEntry : targetOverrides.entrySet() )
+            if ( targetOverridesEntry != null )
             {
-                final ArtifactRef target = tatgetOverridesEntry.getKey();
-
-                if ( pRef.equals( target.asProjectRef() ) )
-                {
-                    logger.debug( "Merging sources ; entry {}={} clashes (and will be removed) with precedence given to {}={}",
-                                  key, mergedOverridesEntry.getValue(), target, tatgetOverridesEntry.getValue() );
-                    it.remove();
-                    break;
-                }
+                logger.debug( "Merging sources ; entry {}={} clashes (and will be removed) with precedence given to {}={}",
+                              key, mergedOverridesEntry.getValue(), targetOverridesEntry.getKey(),
+                              targetOverridesEntry.getValue() );
+                it.remove();
             }
         }
     }
@@ -241,16 +259,24 @@ public class DependencyManipulator extends CommonManipulator implements Manipula
         final CommonState cState = session.getState( CommonState.class );
         final Set<Project> result = new HashSet<>( projects.size() );
 
-        for ( final Project project : projects )
-        {
-            final Model model = project.getModel();
+        // Reactor GAs are the same for every project so they are only filtered out once.
+        final Map<ArtifactRef, String> nonReactorOverrides = removeReactorGAs( overrides );
 
-            if ( !overrides.isEmpty() || !state.getDependencyOverrides().isEmpty() )
+        if ( !overrides.isEmpty() || !state.getDependencyOverrides().isEmpty() )
+        {
+            if ( state.getAlignmentThreads() > 1 && projects.size() > 1 )
             {
-                apply( project, model, overrides );
-
-                result.add( project );
+                applyConcurrently( projects, overrides, nonReactorOverrides, state.getAlignmentThreads() );
+            }
+            else
+            {
+                for ( final Project project : projects )
+                {
+                    apply( project, project.getModel(), overrides, nonReactorOverrides, versionPropertyUpdateMap,
+                           explicitVersionPropertyUpdateMap );
+                }
             }
+            result.addAll( projects );
         }
 
         // If we've changed something now update any old properties with the new values.
@@ -304,10 +330,76 @@ public class DependencyManipulator extends CommonManipulator implements Manipula
         return result;
     }
 
+    /**
+     * Applies dependency overrides to each project using up to the given number of threads. Each project records
+     * its property updates separately ; these are merged in reactor order once every project has been aligned so
+     * the result is the same as a sequential run.
+     */
+    private void applyConcurrently( final List<Project> projects, final Map<ArtifactRef, String> overrides,
+                                    final Map<ArtifactRef, String> nonReactorOverrides, final int threads )
+                    throws ManipulationException
+    {
+        final ExecutorService executor = Executors.newFixedThreadPool( Math.min( threads, projects.size() ), r -> {
+            Thread t = new Thread( r, "pme-dependency-alignment" );
+            t.setDaemon( true );
+            return t;
+        } );
+        try
+        {
+            final List<Future<PropertyUpdates>> futures = new ArrayList<>( projects.size() );
+            for ( final Project project : projects )
+            {
+                futures.add( executor.submit( () -> {
+                    final PropertyUpdates updates = new PropertyUpdates();
+                    apply( project, project.getModel(), overrides, nonReactorOverrides, updates.version,
+                           updates.explicit );
+                    return updates;
+                } ) );
+            }
+            // The property updates of a project are only ever recorded against that project so merging them
+            // cannot clash ; property clashes have already been detected while aligning each project.
+            for ( final Future<PropertyUpdates> future : futures )
+            {
+                final PropertyUpdates updates = future.get();
+                versionPropertyUpdateMap.putAll( updates.version );
+                explicitVersionPropertyUpdateMap.putAll( updates.explicit );
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new ManipulationException( "Interrupted aligning dependencies", e );
+        }
+        catch ( ExecutionException e )
+        {
+            if ( e.getCause() instanceof ManipulationException )
+            {
+                throw (ManipulationException) e.getCause();
+            }
+            else if ( e.getCause() instanceof RuntimeException )
+            {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new ManipulationException( "Unable to align dependencies", e.getCause() );
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
     /**
      * Applies dependency overrides to the project.
+     *
+     * @param overrides the remote overrides.
+     * @param nonReactorOverrides the remote overrides without those for projects in the reactor.
+     * @param versionPropertyUpdates records the properties to update for the remote overrides.
+     * @param explicitPropertyUpdates records the properties to update for the explicit overrides.
      */
-    private void apply( final Project project, final Model model, final Map<ArtifactRef, String> overrides )
+    private void apply( final Project project, final Model model, final Map<ArtifactRef, String> overrides,
+                        final Map<ArtifactRef, String> nonReactorOverrides,
+                        final Map<Project, Map<String, PropertyMapper>> versionPropertyUpdates,
+                        final Map<Project, Map<String, PropertyMapper>> explicitPropertyUpdates )
                     throws ManipulationException
     {
         // Map of Group : Map of artifactId [ may be wildcard ] : value
@@ -318,13 +410,12 @@ public class DependencyManipulator extends CommonManipulator implements Manipula
 
         logger.debug( "Processing project {}", projectGA );
 
-        Map<ArtifactRef, String> originalOverrides = new LinkedHashMap<>( overrides );
-        originalOverrides = removeReactorGAs( originalOverrides );
+        Map<ArtifactRef, String> originalOverrides = nonReactorOverrides;
 
         logger.debug( "Using dependencyOverride of {}", dependencyState.getDependencyOverrides() );
         try
         {
-            originalOverrides = applyModuleVersionOverrides( projectGA, dependencyState.getDependencyOverrides(),
+            originalOverrides = applyModuleVersionOverrides( projectGA, dependencyState.getDependencyOverrideRules(),
                                                            originalOverrides, explicitOverrides,
                                                            dependencyState.getExtraBOMDepMgmts() );
             logger.debug( "Module overrides are:{}{}", System.lineSeparator(), originalOverrides );
@@ -335,6 +426,7 @@ public class DependencyManipulator extends CommonManipulator implements Manipula
             logger.error( "Invalid module exclusion override {} : {}", originalOverrides, explicitOverrides );
             throw e;
         }
+        final LongObjectMap<List<Entry<ArtifactRef, String>>> overrideIndex = indexByProject( originalOverrides );
 
         if ( project.isInheritanceRoot() )
         {
@@ -387,7 +479,7 @@ public class DependencyManipulator extends CommonManipulator implements Manipula
                 d.setVersion( project.getModelParent().getVersion() );
                 final Map<ArtifactRef, Dependency> pDepMap =
                         Collections.singletonMap( new SimpleScopedArtifactRef( d ), d ) ;
-                applyExplicitOverrides( project, pDepMap, explicitOverrides, explicitVersionPropertyUpdateMap );
+                applyExplicitOverrides( project, pDepMap, explicitOverrides, explicitPropertyUpdates );
                 project.getModelParent().setVersion( d.getVersion() );
             }
 
@@ -396,10 +488,10 @@ public class DependencyManipulator extends CommonManipulator implements Manipula
 
             final Map<ArtifactRef, String> nonMatchingVersionOverrides =
                             applyOverrides( project, project.getResolvedManagedDependencies( session ),
-                                            explicitOverrides, originalOverrides );
+                                            explicitOverrides, originalOverrides, overrideIndex, versionPropertyUpdates );
 
             applyExplicitOverrides( project, project.getResolvedManagedDependencies( session ), explicitOverrides,
-                                    explicitVersionPropertyUpdateMap );
+                                    explicitPropertyUpdates );
 
             if ( commonState.isOverrideTransitive() && dependencyState.getRemoteBOMDepMgmt() != null )
             {
@@ -457,63 +549,74 @@ public class DependencyManipulator extends CommonManipulator implements Manipula
         {
             logger.debug( "Applying overrides to managed dependencies for: {}", projectGA );
             applyOverrides( project, project.getResolvedManagedDependencies( session ), explicitOverrides,
-                            originalOverrides );
+                            originalOverrides, overrideIndex, versionPropertyUpdates );
             applyExplicitOverrides( project, project.getResolvedManagedDependencies( session ), explicitOverrides,
-                                    explicitVersionPropertyUpdateMap );
+                                    explicitPropertyUpdates );
         }
 
         logger.debug( "Applying overrides to concrete dependencies for: {}", projectGA );
         // Apply overrides to project direct dependencies
-        applyOverrides( project, project.getResolvedDependencies( session ), explicitOverrides, originalOverrides );
+        applyOverrides( project, project.getResolvedDependencies( session ), explicitOverrides, originalOverrides,
+                        overrideIndex, versionPropertyUpdates );
         applyExplicitOverrides( project, project.getResolvedDependencies( session ), explicitOverrides,
-                                explicitVersionPropertyUpdateMap );
+                                explicitPropertyUpdates );
 
         final Map<Profile, Map<ArtifactRef, Dependency>> pd = project.getResolvedProfileDependencies( session );
         final Map<Profile, Map<ArtifactRef, Dependency>> pmd = project.getResolvedProfileManagedDependencies( session );
 
         for ( final Map<ArtifactRef, Dependency> dependencies : pd.values() )
         {
-            applyOverrides( project, dependencies, explicitOverrides, originalOverrides );
-            applyExplicitOverrides( project, dependencies, explicitOverrides, explicitVersionPropertyUpdateMap );
+            applyOverrides( project, dependencies, explicitOverrides, originalOverrides, overrideIndex,
+                            versionPropertyUpdates );
+            applyExplicitOverrides( project, dependencies, explicitOverrides, explicitPropertyUpdates );
         }
 
         for ( final Map<ArtifactRef, Dependency> dependencies : pmd.values() )
         {
-            applyOverrides( project, dependencies, explicitOverrides, originalOverrides );
-            applyExplicitOverrides( project, dependencies, explicitOverrides, explicitVersionPropertyUpdateMap );
+            applyOverrides( project, dependencies, explicitOverrides, originalOverrides, overrideIndex,
+                            versionPropertyUpdates );
+            applyExplicitOverrides( project, dependencies, explicitOverrides, explicitPropertyUpdates );
         }
 
         // Apply dependency changes to dependencies that occur within plugins.
         final  Map<ProjectVersionRef, Plugin> resolvedPlugins = project.getAllResolvedPlugins( session );
-        applyPlugins( project, resolvedPlugins, explicitOverrides, originalOverrides);
-        applyExplicitOverrides( project, resolvedPlugins, explicitOverrides, explicitVersionPropertyUpdateMap );
+        applyPlugins( project, resolvedPlugins, explicitOverrides, originalOverrides, overrideIndex,
+                      versionPropertyUpdates, explicitPropertyUpdates );
+        applyExplicitOverrides( project, resolvedPlugins, explicitOverrides, explicitPropertyUpdates );
 
         final  Map<ProjectVersionRef, Plugin> resolvedManagedPlugins = project.getResolvedManagedPlugins( session );
-        applyPlugins( project, resolvedManagedPlugins, explicitOverrides, originalOverrides);
-        applyExplicitOverrides( project, resolvedManagedPlugins, explicitOverrides, explicitVersionPropertyUpdateMap );
+        applyPlugins( project, resolvedManagedPlugins, explicitOverrides, originalOverrides, overrideIndex,
+                      versionPropertyUpdates, explicitPropertyUpdates );
+        applyExplicitOverrides( project, resolvedManagedPlugins, explicitOverrides, explicitPropertyUpdates );
 
         for (Map<ProjectVersionRef, Plugin> resolvedProfilePlugins : project.getAllResolvedProfilePlugins( session ).values() )
         {
-            applyPlugins( project, resolvedProfilePlugins, explicitOverrides, originalOverrides);
-            applyExplicitOverrides( project, resolvedProfilePlugins, explicitOverrides, explicitVersionPropertyUpdateMap );
+            applyPlugins( project, resolvedProfilePlugins, explicitOverrides, originalOverrides, overrideIndex,
+                          versionPropertyUpdates, explicitPropertyUpdates );
+            applyExplicitOverrides( project, resolvedProfilePlugins, explicitOverrides, explicitPropertyUpdates );
         }
         for (Map<ProjectVersionRef, Plugin> resolvedManagedProfilePlugins : project.getResolvedProfileManagedPlugins( session ).values() )
         {
-            applyPlugins( project, resolvedManagedProfilePlugins, explicitOverrides, originalOverrides);
-            applyExplicitOverrides( project, resolvedManagedProfilePlugins, explicitOverrides, explicitVersionPropertyUpdateMap );
+            applyPlugins( project, resolvedManagedProfilePlugins, explicitOverrides, originalOverrides, overrideIndex,
+                          versionPropertyUpdates, explicitPropertyUpdates );
+            applyExplicitOverrides( project, resolvedManagedProfilePlugins, explicitOverrides, explicitPropertyUpdates );
         }
 
         // This handles dependencies of plugins themselves.
         final List<Map<ArtifactRef, Dependency>> pluginDependencies = project.getAllResolvedPluginDependencies( session );
         for (Map<ArtifactRef, Dependency> depMap : pluginDependencies)
         {
-            applyOverrides( project, depMap, explicitOverrides, originalOverrides );
-            applyExplicitOverrides( project, depMap, explicitOverrides, explicitVersionPropertyUpdateMap );
+            applyOverrides( project, depMap, explicitOverrides, originalOverrides, overrideIndex,
+                            versionPropertyUpdates );
+            applyExplicitOverrides( project, depMap, explicitOverrides, explicitPropertyUpdates );
         }
     }
 
     private void applyPlugins( Project project, Map<ProjectVersionRef, Plugin> plugins,
-                               WildcardMap<String> explicitOverrides, Map<ArtifactRef, String> overrides )
+                               WildcardMap<String> explicitOverrides, Map<ArtifactRef, String> overrides,
+                               LongObjectMap<List<Entry<ArtifactRef, String>>> overrideIndex,
+                               Map<Project, Map<String, PropertyMapper>> versionPropertyUpdates,
+                               Map<Project, Map<String, PropertyMapper>> explicitPropertyUpdates )
                     throws ManipulationException
     {
         // Handles plugin configurations
@@ -536,8 +639,9 @@ public class DependencyManipulator extends CommonManipulator implements Manipula
         logger.debug( "Located plugins with resolved artifact references: {}", pluginsWithDeps );
 
         // Reuse prior apply* to handle plugin with dependencies as well.
-        applyOverrides( project, pluginsWithDeps, explicitOverrides, overrides );
-        applyExplicitOverrides( project, pluginsWithDeps, explicitOverrides, explicitVersionPropertyUpdateMap );
+        applyOverrides( project, pluginsWithDeps, explicitOverrides, overrides, overrideIndex,
+                        versionPropertyUpdates );
+        applyExplicitOverrides( project, pluginsWithDeps, explicitOverrides, explicitPropertyUpdates );
     }
 
     /**
@@ -547,12 +651,16 @@ public class DependencyManipulator extends CommonManipulator implements Manipula
      * @param dependencies The list of dependencies
      * @param explicitOverrides Any explicitOverrides to track for ignoring
      * @param overrides The map of dependency version overrides
+     * @param overrideIndex The overrides grouped by groupId:artifactId, see {@link #indexByProject(Map)}
+     * @param versionPropertyUpdates records the properties to update
      * @return The map of overrides that were not matched in the dependencies
      * @throws ManipulationException if an error occurs
      */
-    private Map<ArtifactRef, String> applyOverrides( final Project project,
-                                                     final Map<? extends ProjectVersionRef, ? extends InputLocationTracker> dependencies,
-                                                     final WildcardMap<String> explicitOverrides, final Map<ArtifactRef, String> overrides )
+    Map<ArtifactRef, String> applyOverrides( final Project project,
+                                             final Map<? extends ProjectVersionRef, ? extends InputLocationTracker> dependencies,
+                                             final WildcardMap<String> explicitOverrides, final Map<ArtifactRef, String> overrides,
+                                             final LongObjectMap<List<Entry<ArtifactRef, String>>> overrideIndex,
+                                             final Map<Project, Map<String, PropertyMapper>> versionPropertyUpdates )
                     throws ManipulationException
     {
         // Duplicate the override map so unused overrides can be easily recorded
@@ -565,130 +673,134 @@ public class DependencyManipulator extends CommonManipulator implements Manipula
 
         final CommonState commonState = session.getState( CommonState.class );
         final boolean strict = commonState.isStrict();
+        final SymbolTable symbols = session.getSymbols();
 
         // Apply matching overrides to dependencies
         for ( final Entry<? extends ProjectVersionRef, ? extends InputLocationTracker> e : dependencies.entrySet() )
         {
             final ProjectVersionRef dependency = e.getKey();
-            ProjectRef depPr = new SimpleProjectRef( dependency.getGroupId(), dependency.getArtifactId() );
+            final List<Entry<ArtifactRef, String>> matches =
+                            overrideIndex.get( symbols.lookupGA( dependency.getGroupId(), dependency.getArtifactId() ) );
+            if ( matches == null )
+            {
+                continue;
+            }
+            final ProjectRef depPr = new SimpleProjectRef( dependency.getGroupId(), dependency.getArtifactId() );
 
             // We might have junit:junit:3.8.2 and junit:junit:4.1 for differing override scenarios within the
             // overrides list. If strict mode alignment is enabled, using multiple overrides will work with
             // different modules. It is currently undefined what will happen if non-strict mode is enabled and
             // multiple versions are in the remote override list (be it from a bom or rest call). Actually, what
             // will most likely happen is last-wins.
-            for ( final Entry<ArtifactRef, String> entry : overrides.entrySet() )
+            for ( final Entry<ArtifactRef, String> entry : matches )
             {
                 ProjectRef groupIdArtifactId = entry.getKey().asProjectRef();
-                if ( depPr.equals( groupIdArtifactId ) )
-                {
-                    final DependencyPluginWrapper wrapper = new DependencyPluginWrapper( e.getValue() );
-                    final String oldVersion = wrapper.getVersion();
-                    final String overrideVersion = entry.getValue();
-                    final String resolvedValue = dependency.getVersionString();
+                final DependencyPluginWrapper wrapper = new DependencyPluginWrapper( e.getValue() );
+                final String oldVersion = wrapper.getVersion();
+                final String overrideVersion = entry.getValue();
+                final String resolvedValue = dependency.getVersionString();
 
-                    if ( isEmpty( overrideVersion ) )
-                    {
-                        logger.warn( "Unable to align with an empty override version for {}; ignoring", groupIdArtifactId );
-                    }
-                    else if ( isEmpty( oldVersion ) )
-                    {
-                        logger.debug( "Dependency is a managed version for {}; ignoring", groupIdArtifactId );
-                    }
-                    else if (oldVersion.equals( Version.PROJECT_VERSION ) || ( oldVersion.contains( "$" ) && project.getVersion().equals( resolvedValue ) ) )
+                if ( isEmpty( overrideVersion ) )
+                {
+                    logger.warn( "Unable to align with an empty override version for {}; ignoring", groupIdArtifactId );
+                }
+                else if ( isEmpty( oldVersion ) )
+                {
+                    logger.debug( "Dependency is a managed version for {}; ignoring", groupIdArtifactId );
+                }
+                else if (oldVersion.equals( Version.PROJECT_VERSION ) || ( oldVersion.contains( "$" ) && project.getVersion().equals( resolvedValue ) ) )
+                {
+                    logger.debug( "Dependency {} with original version {} and project version {} for {} references ${project.version} so skipping.",
+                                 dependency, oldVersion, project.getVersion(), project.getPom() );
+                }
+                // If we have an explicitOverride, this will always override the dependency changes made here.
+                // By avoiding the potential duplicate work it also avoids a possible property clash problem.
+                else if ( explicitOverrides.containsKey( depPr ) )
+                {
+                    logger.debug ("Dependency {} matches known explicit override so not performing initial override pass.", depPr);
+                    unmatchedVersionOverrides.remove( entry.getKey() );
+                }
+                // If we're doing strict matching with properties, then the original parts should match.
+                // i.e. assuming original resolved value is 1.2 and potential new value is 1.2.rebuild-1
+                // then this is fine to continue. If the original is 1.2 and potential new value is 1.3.rebuild-1
+                // then don't bother to attempt to cache the property as the strict check would fail.
+                // This extra check avoids an erroneous "Property replacement clash" error.
+
+                // Can't blindly compare resolvedValue [original] against ar as ar / overrideVersion is the new GAV. We don't
+                // have immediate access to the original property so the closest that is feasible is verify strict matching.
+                else if ( strict && oldVersion.contains( "$" ) &&
+                                ! PropertiesUtils.checkStrictValue( session, resolvedValue, overrideVersion) )
+                {
+                    logger.debug ("Original fully resolved version {} for {} does not match override version {} -> {} so ignoring",
+                                  resolvedValue, dependency, entry.getKey(), overrideVersion);
+                    if ( commonState.isFailOnStrictViolation() )
                     {
-                        logger.debug( "Dependency {} with original version {} and project version {} for {} references ${project.version} so skipping.",
-                                     dependency, oldVersion, project.getVersion(), project.getPom() );
+                        throw new ManipulationException(
+                                        "For {} replacing original property version {} (fully resolved: {} ) with new version {} for {} violates the strict version-alignment rule!",
+                                        depPr.toString(), wrapper.getVersion(), resolvedValue, entry.getKey().getVersionString(), entry.getKey().asProjectRef().toString());
                     }
-                    // If we have an explicitOverride, this will always override the dependency changes made here.
-                    // By avoiding the potential duplicate work it also avoids a possible property clash problem.
-                    else if ( explicitOverrides.containsKey( depPr ) )
+                    else
                     {
-                        logger.debug ("Dependency {} matches known explicit override so not performing initial override pass.", depPr);
-                        unmatchedVersionOverrides.remove( entry.getKey() );
+                        logger.warn( "Replacing original property version {} with new version {} for {} violates the strict version-alignment rule!",
+                                     resolvedValue, overrideVersion, wrapper.getVersion() );
                     }
-                    // If we're doing strict matching with properties, then the original parts should match.
-                    // i.e. assuming original resolved value is 1.2 and potential new value is 1.2.rebuild-1
-                    // then this is fine to continue. If the original is 1.2 and potential new value is 1.3.rebuild-1
-                    // then don't bother to attempt to cache the property as the strict check would fail.
-                    // This extra check avoids an erroneous "Property replacement clash" error.
-
-                    // Can't blindly compare resolvedValue [original] against ar as ar / overrideVersion is the new GAV. We don't
-                    // have immediate access to the original property so the closest that is feasible is verify strict matching.
-                    else if ( strict && oldVersion.contains( "$" ) &&
-                                    ! PropertiesUtils.checkStrictValue( session, resolvedValue, overrideVersion) )
+                }
+                else
+                {
+                    if ( ! PropertiesUtils.cacheProperty( session, project, versionPropertyUpdates, oldVersion, overrideVersion, entry.getKey(), false ))
                     {
-                        logger.debug ("Original fully resolved version {} for {} does not match override version {} -> {} so ignoring",
-                                      resolvedValue, dependency, entry.getKey(), overrideVersion);
-                        if ( commonState.isFailOnStrictViolation() )
+                        if ( strict && ! PropertiesUtils.checkStrictValue( session, resolvedValue, overrideVersion) )
                         {
-                            throw new ManipulationException(
-                                            "For {} replacing original property version {} (fully resolved: {} ) with new version {} for {} violates the strict version-alignment rule!",
-                                            depPr.toString(), wrapper.getVersion(), resolvedValue, entry.getKey().getVersionString(), entry.getKey().asProjectRef().toString());
+                            if ( commonState.isFailOnStrictViolation() )
+                            {
+                                throw new ManipulationException(
+                                                 "Replacing original version {} in dependency {} with new version {} violates the strict version-alignment rule!",
+                                                 oldVersion, groupIdArtifactId, overrideVersion );
+                            }
+                            else
+                            {
+                                logger.warn( "Replacing original version {} in dependency {} with new version {} violates the strict version-alignment rule!",
+                                             oldVersion, groupIdArtifactId, overrideVersion );
+                            }
                         }
                         else
                         {
-                            logger.warn( "Replacing original property version {} with new version {} for {} violates the strict version-alignment rule!",
-                                         resolvedValue, overrideVersion, wrapper.getVersion() );
-                        }
-                    }
-                    else
-                    {
-                        if ( ! PropertiesUtils.cacheProperty( session, project, versionPropertyUpdateMap, oldVersion, overrideVersion, entry.getKey(), false ))
-                        {
-                            if ( strict && ! PropertiesUtils.checkStrictValue( session, resolvedValue, overrideVersion) )
+                            logger.debug( "Altered dependency {} : {} -> {}", groupIdArtifactId, oldVersion,
+                                          overrideVersion );
+
+                            // This block handles a version that is a partial property with a value.
+                            if ( oldVersion.contains( "${" ) )
                             {
-                                if ( commonState.isFailOnStrictViolation() )
+                                String suffix = PropertiesUtils.getSuffix( session );
+                                String replaceVersion;
+
+                                // Handles ${...}...-rebuild-n -> ${...}...-rebuild-n+1
+                                if ( commonState.isStrictIgnoreSuffix() && oldVersion.contains( suffix ) )
                                 {
-                                    throw new ManipulationException(
-                                                     "Replacing original version {} in dependency {} with new version {} violates the strict version-alignment rule!",
-                                                     oldVersion, groupIdArtifactId, overrideVersion );
+                                    replaceVersion = StringUtils.substringBefore( oldVersion, suffix );
+                                    replaceVersion += suffix + StringUtils.substringAfter( overrideVersion, suffix );
                                 }
                                 else
                                 {
-                                    logger.warn( "Replacing original version {} in dependency {} with new version {} violates the strict version-alignment rule!",
-                                                 oldVersion, groupIdArtifactId, overrideVersion );
+                                    // It is feasible that even though ${foo}.x-suffix may look appropriate, foo may have
+                                    // been updated by another dependency to foo-suffix so that we end up with
+                                    // foo-suffix.x-suffix. Therefore just replace with overrideVersion
+                                    replaceVersion = overrideVersion;
                                 }
+                                logger.debug ( "Resolved value is {} and replacement version is {}", resolvedValue, replaceVersion );
+
+                                // In this case the previous value couldn't be cached even though it contained a property
+                                // as it was either multiple properties or a property combined with a hardcoded value. Therefore
+                                // just append the suffix.
+                                wrapper.setVersion( replaceVersion );
                             }
                             else
                             {
-                                logger.debug( "Altered dependency {} : {} -> {}", groupIdArtifactId, oldVersion,
-                                              overrideVersion );
-
-                                // This block handles a version that is a partial property with a value.
-                                if ( oldVersion.contains( "${" ) )
-                                {
-                                    String suffix = PropertiesUtils.getSuffix( session );
-                                    String replaceVersion;
-
-                                    // Handles ${...}...-rebuild-n -> ${...}...-rebuild-n+1
-                                    if ( commonState.isStrictIgnoreSuffix() && oldVersion.contains( suffix ) )
-                                    {
-                                        replaceVersion = StringUtils.substringBefore( oldVersion, suffix );
-                                        replaceVersion += suffix + StringUtils.substringAfter( overrideVersion, suffix );
-                                    }
-                                    else
-                                    {
-                                        // It is feasible that even though ${foo}.x-suffix may look appropriate, foo may have
-                                        // been updated by another dependency to foo-suffix so that we end up with
-                                        // foo-suffix.x-suffix. Therefore just replace with overrideVersion
-                                        replaceVersion = overrideVersion;
-                                    }
-                                    logger.debug ( "Resolved value is {} and replacement version is {}", resolvedValue, replaceVersion );
-
-                                    // In this case the previous value couldn't be cached even though it contained a property
-                                    // as it was either multiple properties or a property combined with a hardcoded value. Therefore
-                                    // just append the suffix.
-                                    wrapper.setVersion( replaceVersion );
-                                }
-                                else
-                                {
-                                    wrapper.setVersion( overrideVersion );
-                                }
+                                wrapper.setVersion( overrideVersion );
                             }
                         }
-                        unmatchedVersionOverrides.remove( entry.getKey() );
                     }
+                    unmatchedVersionOverrides.remove( entry.getKey() );
                 }
             }
         }
@@ -696,6 +808,37 @@ public class DependencyManipulator extends CommonManipulator implements Manipula
         return unmatchedVersionOverrides;
     }
 
+    /**
+     * The property updates recorded while aligning a single project.
+     */
+    private static final class PropertyUpdates
+    {
+        private final Map<Project, Map<String, PropertyMapper>> version = new LinkedHashMap<>();
+
+        private final Map<Project, Map<String, PropertyMapper>> explicit = new LinkedHashMap<>();
+    }
+
+    /**
+     * Groups the overrides by groupId:artifactId so that the overrides for a dependency are found with a single lookup
+     * rather than a scan of every override. Within a group the overrides keep their iteration order. The groups are
+     * keyed on the session {@link SymbolTable} ids of the groupId:artifactId.
+     *
+     * @param overrides the map of dependency version overrides.
+     * @return the overrides for each groupId:artifactId.
+     */
+    LongObjectMap<List<Entry<ArtifactRef, String>>> indexByProject( final Map<ArtifactRef, String> overrides )
+    {
+        final SymbolTable symbols = session.getSymbols();
+        final LongObjectMap<List<Entry<ArtifactRef, String>>> index = new LongObjectMap<>( overrides.size() );
+        for ( final Entry<ArtifactRef, String> entry : overrides.entrySet() )
+        {
+            final ArtifactRef ref = entry.getKey();
+            index.computeIfAbsent( symbols.internGA( ref.getGroupId(), ref.getArtifactId() ),
+                                   k -> new ArrayList<>( 1 ) ).add( entry );
+        }
+        return index;
+    }
+
     /**
      * Remove version overrides which refer to projects in the current reactor.
      * Projects in the reactor include things like inter-module dependencies
@@ -704,21 +847,15 @@ public class DependencyManipulator extends CommonManipulator implements Manipula
      * @param versionOverrides current set of ArtifactRef:newVersion overrides.
      * @return A new Map with the reactor GAs removed.
      */
-    private Map<ArtifactRef, String> removeReactorGAs( final Map<ArtifactRef, String> versionOverrides )
+    Map<ArtifactRef, String> removeReactorGAs( final Map<ArtifactRef, String> versionOverrides )
     {
+        final Set<ProjectRef> reactorGAs = new HashSet<>( session.getProjects().size() * 2 );
+        session.getProjects().forEach( p -> reactorGAs.add( new SimpleProjectRef( p.getGroupId(), p.getArtifactId() ) ) );
+
         final Map<ArtifactRef, String> reducedVersionOverrides = new LinkedHashMap<>( versionOverrides );
-        final Iterator<Entry<ArtifactRef, String>> it = reducedVersionOverrides.entrySet().iterator();
-        while ( it.hasNext() )
-        {
-            final Entry<ArtifactRef, String> e = it.next();
-            session.getProjects().forEach( p -> {
-                if ( e.getKey().getGroupId().equals( p.getGroupId() )
-                        && e.getKey().getArtifactId().equals( p.getArtifactId() ) )
-                {
-                    it.remove();
-                }
-            } );
-        }
+        reducedVersionOverrides.keySet()
+                               .removeIf( a -> reactorGAs.contains(
+                                               new SimpleProjectRef( a.getGroupId(), a.getArtifactId() ) ) );
         return reducedVersionOverrides;
     }
 
@@ -27,6 +27,7 @@ import org.commonjava.maven.ext.core.ManipulationSession;
 import org.commonjava.maven.ext.core.state.DependencyRemovalState;
 import org.commonjava.maven.ext.core.state.DependencyState;
 import org.commonjava.maven.ext.core.state.State;
+import org.commonjava.maven.ext.core.util.IdUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -34,6 +35,7 @@ import javax.inject.Named;
 import javax.inject.Singleton;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -80,12 +82,14 @@ public class DependencyRemovalManipulator
         }
 
         final Set<Project> changed = new HashSet<>();
+        final Set<ProjectRef> dependenciesToRemove =
+                        IdUtils.toProjectRefSet( session.getState( DependencyRemovalState.class ).getDependencyRemoval() );
 
         for ( final Project project : projects )
         {
             final Model model = project.getModel();
 
-            if ( apply( project, model ) )
+            if ( apply( project, model, dependenciesToRemove ) )
             {
                 changed.add( project );
             }
@@ -94,13 +98,11 @@ public class DependencyRemovalManipulator
         return changed;
     }
 
-    private boolean apply( final Project project, final Model model ) throws ManipulationException
+    private boolean apply( final Project project, final Model model, final Set<ProjectRef> dependenciesToRemove )
+                    throws ManipulationException
     {
-        final DependencyRemovalState state = session.getState(DependencyRemovalState.class);
-
         logger.info( "Applying Dependency changes to: {}:{}", project.getGroupId(), project.getArtifactId() );
 
-        List<ProjectRef> dependenciesToRemove = state.getDependencyRemoval();
         boolean result = scanDependencies( project.getAllResolvedDependencies( session ), dependenciesToRemove, model.getDependencies());
 
         if ( model.getDependencyManagement() != null &&
@@ -109,26 +111,20 @@ public class DependencyRemovalManipulator
             result = true;
         }
 
+        // The resolved profiles are those of the model so may be updated directly.
         final Map<Profile, Map<ArtifactRef, Dependency>> pd = project.getAllResolvedProfileDependencies( session );
         final Map<Profile, Map<ArtifactRef, Dependency>> pmd = project.getResolvedProfileManagedDependencies( session );
         for ( final Entry<Profile, Map<ArtifactRef, Dependency>> entry : pd.entrySet() )
         {
-            final Profile profile = entry.getKey();
-            final Map<ArtifactRef, Dependency> resolvedDependencies = entry.getValue();
-            final int index = model.getProfiles().indexOf( profile );
-            if ( scanDependencies( resolvedDependencies, dependenciesToRemove,
-                 model.getProfiles().get( index ).getDependencies() ) )
+            if ( scanDependencies( entry.getValue(), dependenciesToRemove, entry.getKey().getDependencies() ) )
             {
                 result = true;
             }
         }
         for ( final Entry<Profile, Map<ArtifactRef, Dependency>> entry : pmd.entrySet() )
         {
-            final Profile profile = entry.getKey();
-            final Map<ArtifactRef, Dependency> resolvedDependencies = entry.getValue();
-            final int index = model.getProfiles().indexOf( profile );
-            DependencyManagement dm = model.getProfiles().get( index ).getDependencyManagement();
-            if ( dm != null && scanDependencies( resolvedDependencies, dependenciesToRemove, dm.getDependencies() ) )
+            DependencyManagement dm = entry.getKey().getDependencyManagement();
+            if ( dm != null && scanDependencies( entry.getValue(), dependenciesToRemove, dm.getDependencies() ) )
             {
                 result = true;
             }
@@ -137,24 +133,23 @@ public class DependencyRemovalManipulator
     }
 
     private boolean scanDependencies( Map<ArtifactRef, Dependency> resolvedDependencies,
-                                      List<ProjectRef> dependenciesToRemove, List<Dependency> dependencies )
+                                      Set<ProjectRef> dependenciesToRemove, List<Dependency> dependencies )
     {
-        boolean result = false;
-        if ( dependencies != null )
+        if ( dependencies == null )
+        {
+            return false;
+        }
+        final Set<Dependency> matched = Collections.newSetFromMap( new IdentityHashMap<>() );
+        for ( final Entry<ArtifactRef, Dependency> entry : resolvedDependencies.entrySet() )
         {
-            for ( final Entry<ArtifactRef, Dependency> entry : resolvedDependencies.entrySet() )
+            if ( dependenciesToRemove.contains( entry.getKey().asProjectRef() ) )
             {
-                final ArtifactRef pvr = entry.getKey();
-                final Dependency dependency = entry.getValue();
-                if ( dependenciesToRemove.contains( pvr.asProjectRef() ) )
-                {
-                    logger.debug( "Removing {}", dependency );
-                    dependencies.remove( dependency );
-                    result = true;
-                }
+                logger.debug( "Removing {}", entry.getValue() );
+                matched.add( entry.getValue() );
             }
         }
-        return result;
+        // Remove every match in one pass rather than searching the list for each.
+        return !matched.isEmpty() && dependencies.removeIf( matched::contains );
     }
 
     @Override
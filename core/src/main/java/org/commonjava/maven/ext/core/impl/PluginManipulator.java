@@ -44,7 +44,10 @@ import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -96,6 +99,12 @@ public class PluginManipulator extends CommonManipulator implements Manipulator
      */
     private final Map<Project,Map<String, PropertyMapper>> versionPropertyUpdateMap = new LinkedHashMap<>();
 
+    /**
+     * The position of each remote override (by group:artifact) so overrides matched via their key are still applied
+     * in the order they were loaded.
+     */
+    private final Map<String, Integer> overrideOrder = new HashMap<>();
+
     @Inject
     public PluginManipulator(ModelIO effectiveModelBuilder)
     {
@@ -131,7 +140,7 @@ public class PluginManipulator extends CommonManipulator implements Manipulator
         }
 
         final Set<Project> changed = new HashSet<>();
-        final Set<Plugin> mgmtOverrides = loadRemoteBOM();
+        final Map<String, Plugin> mgmtOverrides = loadRemoteBOM();
 
         for ( final Project project : projects )
         {
@@ -195,7 +204,10 @@ public class PluginManipulator extends CommonManipulator implements Manipulator
     }
 
 
-    private Set<Plugin> loadRemoteBOM()
+    /**
+     * Loads the remote plugin overrides, indexed by group:artifact (i.e. {@link Plugin#getKey()}) in precedence order.
+     */
+    private Map<String, Plugin> loadRemoteBOM()
         throws ManipulationException
     {
         final RESTState rState = session.getState( RESTState.class );
@@ -253,10 +265,18 @@ public class PluginManipulator extends CommonManipulator implements Manipulator
 
         logger.debug( "Final remote override list for type {} with precedence {} is {}", PluginType.RemotePM, pState.getPrecedence(), mergedOverrides );
 
-        return mergedOverrides;
+        final Map<String, Plugin> result = new LinkedHashMap<>();
+        overrideOrder.clear();
+        for ( final Plugin plugin : mergedOverrides )
+        {
+            // The set is already unique by key (see Plugin::equals).
+            overrideOrder.put( plugin.getKey(), result.size() );
+            result.put( plugin.getKey(), plugin );
+        }
+        return result;
     }
 
-    private void apply( final Project project, final Model model, final Set<Plugin> overrides )
+    private void apply( final Project project, final Model model, final Map<String, Plugin> overrides )
         throws ManipulationException
     {
         if ( logger.isDebugEnabled() )
@@ -270,22 +290,17 @@ public class PluginManipulator extends CommonManipulator implements Manipulator
         final WildcardMap<String> explicitOverrides = new WildcardMap<>();
         final String projectGA = ga( project );
         final Map<ArtifactRef, String> originalOverrides = new HashMap<>();
-        overrides.forEach( p -> originalOverrides.put( new ArtifactPluginWrapper( p ), p.getVersion()) );
+        overrides.values().forEach( p -> originalOverrides.put( new ArtifactPluginWrapper( p ), p.getVersion()) );
 
-        final Map<ArtifactRef, String> originalOverridesReduced = applyModuleVersionOverrides( projectGA, pluginState.getPluginOverride(), originalOverrides, explicitOverrides, Collections.emptyMap() );
+        final Map<ArtifactRef, String> originalOverridesReduced = applyModuleVersionOverrides( projectGA, pluginState.getPluginOverrideRules(), originalOverrides, explicitOverrides, Collections.emptyMap() );
 
         // Now we have a reduced list of wrapper plugins (due to removing those are being explicitly overridden).
         // Therefore reflect that in the original plugin list.
-        final Iterator<Plugin> it = overrides.iterator();
-        while (it.hasNext())
+        if ( originalOverridesReduced.size() != originalOverrides.size() )
         {
-            final Plugin existing = it.next();
-            if ( originalOverridesReduced.keySet().stream().anyMatch( a -> ((ArtifactPluginWrapper)a).getOriginal().equals( existing ) ) )
-            {
-                continue;
-            }
-            // Couldn't find it so remove it.
-            it.remove();
+            final Set<Plugin> retained = new HashSet<>();
+            originalOverridesReduced.keySet().forEach( a -> retained.add( ( (ArtifactPluginWrapper) a ).getOriginal() ) );
+            overrides.values().retainAll( retained );
         }
 
         if ( project.isInheritanceRoot() )
@@ -352,12 +367,12 @@ public class PluginManipulator extends CommonManipulator implements Manipulator
      * @param project the current project
      * @param localPluginType The type of local block (mgmt or plugins). Only used to determine whether to inject configs/deps/executions.
      * @param plugins The list of plugins to modify
-     * @param pluginVersionOverrides The list of version overrides to apply to the plugins
+     * @param pluginVersionOverrides The version overrides to apply to the plugins, keyed on group:artifact
      * @throws ManipulationException if an error occurs.
      */
     // TODO:  Pass in explicitOverrides to avoid potential property clashes.
     private void applyOverrides( Project project, final PluginType localPluginType, final Map<ProjectVersionRef, Plugin> plugins,
-                                 final Set<Plugin> pluginVersionOverrides ) throws ManipulationException
+                                 final Map<String, Plugin> pluginVersionOverrides ) throws ManipulationException
     {
         if ( plugins == null )
         {
@@ -375,7 +390,7 @@ public class PluginManipulator extends CommonManipulator implements Manipulator
             pluginsByGA.put( pvr.asProjectRef().toString(), pvr );
         }
 
-        for ( final Plugin override : pluginVersionOverrides )
+        for ( final Plugin override : selectOverrides( localPluginType, pluginsByGA, pluginVersionOverrides ) )
         {
             Plugin plugin = null;
             String newValue = override.getVersion();
@@ -547,6 +562,32 @@ public class PluginManipulator extends CommonManipulator implements Manipulator
         }
     }
 
+    /**
+     * Returns the overrides to consider for the given plugins, in load order. Unless overrides without a matching
+     * local plugin may be injected (into the local plugin management) only those matching a local plugin are needed,
+     * which avoids visiting every remote override for every plugin block.
+     */
+    private Collection<Plugin> selectOverrides( final PluginType localPluginType,
+                                                final Map<String, ProjectVersionRef> pluginsByGA,
+                                                final Map<String, Plugin> pluginVersionOverrides )
+    {
+        if ( localPluginType == PluginType.LocalPM && session.getState( CommonState.class ).isOverrideTransitive() )
+        {
+            return pluginVersionOverrides.values();
+        }
+        final List<Plugin> result = new ArrayList<>();
+        for ( final String ga : pluginsByGA.keySet() )
+        {
+            final Plugin override = pluginVersionOverrides.get( ga );
+            if ( override != null )
+            {
+                result.add( override );
+            }
+        }
+        result.sort( Comparator.comparing( p -> overrideOrder.get( p.getKey() ) ) );
+        return result;
+    }
+
     private void validatePluginsUpdatedProperty( CommonState cState, Project p, Map<ProjectVersionRef, Plugin> dependencies )
                     throws ManipulationException
     {
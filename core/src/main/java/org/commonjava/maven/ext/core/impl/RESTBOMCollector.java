@@ -126,9 +126,7 @@ public class RESTBOMCollector
 
     private void populateRestParam( final ArrayList<ProjectVersionRef> restParam, final String log, final List<ProjectVersionRef> bomMgmt )
     {
-        asStream( bomMgmt ).filter
-                        ( b -> !Version.hasBuildNumber( b.getVersionString() ) &&
-                                        b.getVersionString().contains( PropertiesUtils.getSuffix( session ) ) )
+        asStream( bomMgmt ).filter( b -> isRESTLookupCandidate( session, b ) )
                            .forEach( bom -> {
                                // Create the dummy PVR to send to DA (which requires a numeric suffix).
                                ProjectVersionRef newBom = new SimpleProjectVersionRef( bom.asProjectRef(), bom.getVersionString() + "-0" );
@@ -144,8 +142,7 @@ public class RESTBOMCollector
         {
             ProjectVersionRef pvr = iterator.next();
             // As before, only process the BOMs if they are of the format <rebuild suffix> without a numeric portion.
-            if ( !Version.hasBuildNumber( pvr.getVersionString() ) && pvr.getVersionString()
-                                                                         .contains( PropertiesUtils.getSuffix( session ) ) )
+            if ( isRESTLookupCandidate( session, pvr ) )
             {
                 // Create the dummy PVR to compare with results to...
                 ProjectVersionRef newBom = new SimpleProjectVersionRef( pvr.asProjectRef(), pvr.getVersionString() + "-0" );
@@ -160,6 +157,20 @@ public class RESTBOMCollector
         }
     }
 
+    /**
+     * Determines whether a remote BOM version will be replaced by this collector, i.e. it is of the form
+     * <code>version-rebuild</code> without a numeric build number.
+     *
+     * @param session the ManipulationSession
+     * @param bom the remote BOM
+     * @return true if the BOM version is looked up via REST.
+     */
+    public static boolean isRESTLookupCandidate( final ManipulationSession session, final ProjectVersionRef bom )
+    {
+        return !Version.hasBuildNumber( bom.getVersionString() ) && bom.getVersionString()
+                                                                      .contains( PropertiesUtils.getSuffix( session ) );
+    }
+
     private static Stream<ProjectVersionRef> asStream ( final Collection <ProjectVersionRef> collection)
     {
         return ( collection == null ? Stream.empty() : collection.stream() );
@@ -33,7 +33,6 @@ import org.commonjava.maven.ext.core.state.RangeResolverState;
 import org.commonjava.maven.ext.core.state.State;
 import org.commonjava.maven.ext.io.resolver.GalleyAPIWrapper;
 import org.commonjava.maven.galley.maven.GalleyMavenException;
-import org.commonjava.maven.galley.maven.model.view.meta.MavenMetadataView;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,10 +40,20 @@ import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -62,6 +71,11 @@ public class RangeResolver
 
     private final GalleyAPIWrapper readerWrapper;
 
+    /**
+     * Sorted available versions of each GA read during this session.
+     */
+    private final Map<ProjectRef, List<ArtifactVersion>> versionCache = new ConcurrentHashMap<>();
+
     @Inject
     public RangeResolver( final GalleyAPIWrapper readerWrapper )
     {
@@ -72,6 +86,7 @@ public class RangeResolver
     public void init( final ManipulationSession session )
     {
         this.session = session;
+        versionCache.clear();
         session.setState( new RangeResolverState( session.getUserProperties() ) );
     }
 
@@ -88,7 +103,9 @@ public class RangeResolver
         }
 
         final Set<Project> changed = new HashSet<>( projects.size() );
+        final List<Range> ranges = new ArrayList<>();
 
+        // First collect every range in the reactor so that the metadata for each GA is read once, and concurrently.
         for ( final Project p : projects )
         {
             try
@@ -104,7 +121,7 @@ public class RangeResolver
                          .getPlugins()
                          .stream()
                          .filter( plugin -> StringUtils.isNotEmpty( plugin.getVersion() ) )
-                         .forEach( plugin -> handleVersionWithRange( projects, plugin ) );
+                         .forEach( plugin -> collectRange( projects, ranges, plugin ) );
                     }
                     // Plugins
                     p.getModel()
@@ -112,7 +129,7 @@ public class RangeResolver
                      .getPlugins()
                      .stream()
                      .filter( plugin -> StringUtils.isNotEmpty( plugin.getVersion() ) )
-                     .forEach( plugin -> handleVersionWithRange( projects, plugin ) );
+                     .forEach( plugin -> collectRange( projects, ranges, plugin ) );
                 }
 
                 // DependencyManagement
@@ -122,13 +139,13 @@ public class RangeResolver
                      .getDependencies()
                      .stream()
                      .filter( dependency -> StringUtils.isNotEmpty( dependency.getVersion() ) )
-                     .forEach( dependency -> handleVersionWithRange( projects, dependency ) );
+                     .forEach( dependency -> collectRange( projects, ranges, dependency ) );
                 }
                 // Dependencies
                 p.getModel().getDependencies()
                  .stream()
                  .filter( dependency -> StringUtils.isNotEmpty( dependency.getVersion() ) )
-                 .forEach( dependency -> handleVersionWithRange( projects, dependency ) );
+                 .forEach( dependency -> collectRange( projects, ranges, dependency ) );
 
                 p.getModel().getProfiles().stream().filter( profile -> profile.getDependencyManagement() != null )
                   .forEach( profile -> {
@@ -137,12 +154,12 @@ public class RangeResolver
                                .getDependencies()
                                .stream()
                                .filter( dependency -> StringUtils.isNotEmpty( dependency.getVersion() ) )
-                               .forEach( dependency -> handleVersionWithRange( projects, dependency ) );
+                               .forEach( dependency -> collectRange( projects, ranges, dependency ) );
                     // Dependencies
                     profile.getDependencies()
                            .stream()
                            .filter( dependency -> StringUtils.isNotEmpty( dependency.getVersion() ) )
-                           .forEach( dependency -> handleVersionWithRange( projects, dependency ) );
+                           .forEach( dependency -> collectRange( projects, ranges, dependency ) );
 
                     if ( profile.getBuild() != null )
                     {
@@ -154,14 +171,14 @@ public class RangeResolver
                                    .getPlugins()
                                    .stream()
                                    .filter( plugin -> StringUtils.isNotEmpty( plugin.getVersion() ) )
-                                   .forEach( plugin -> handleVersionWithRange( projects, plugin ) );
+                                   .forEach( plugin -> collectRange( projects, ranges, plugin ) );
                         }
                         // Plugins
                         profile.getBuild()
                                .getPlugins()
                                .stream()
                                .filter( plugin -> StringUtils.isNotEmpty( plugin.getVersion() ) )
-                               .forEach( plugin -> handleVersionWithRange( projects, plugin ) );
+                               .forEach( plugin -> collectRange( projects, ranges, plugin ) );
                     }
                 } );
 
@@ -176,37 +193,55 @@ public class RangeResolver
                 throw e;
             }
         }
+
+        if ( !ranges.isEmpty() )
+        {
+            resolveVersions( ranges.stream().map( r -> r.ga ).collect( Collectors.toCollection( LinkedHashSet::new ) ),
+                             state.getThreads() );
+        }
+
+        for ( final Range range : ranges )
+        {
+            final ArtifactVersion result = range.versionRange.matchVersion( versionCache.get( range.ga ) );
+
+            logger.debug( "Resolved range for {} got versionRange {} and potential replacement of {}", range.owner,
+                          range.versionRange, result );
+
+            if ( result != null )
+            {
+                range.setter.accept( result.toString() );
+            }
+            else
+            {
+                logger.warn( "Unable to find replacement for range {} of {}", range.versionRange, range.ga );
+            }
+        }
         return changed;
     }
 
-    private void handleVersionWithRange( List<Project> projects, Plugin p )
+    private void collectRange( List<Project> projects, List<Range> ranges, Plugin p )
     {
-        final String version = PropertyResolver.resolvePropertiesUnchecked( session, projects, p.getVersion() );
+        collectRange( projects, ranges, p, p.getGroupId(), p.getArtifactId(), p.getVersion(), p::setVersion );
+    }
 
+    private void collectRange( List<Project> projects, List<Range> ranges, Dependency d )
+    {
+        collectRange( projects, ranges, d, d.getGroupId(), d.getArtifactId(), d.getVersion(), d::setVersion );
+    }
+
+    private void collectRange( List<Project> projects, List<Range> ranges, Object owner, String groupId,
+                               String artifactId, String version, Consumer<String> setter )
+    {
         try
         {
-            final VersionRange versionRange = VersionRange.createFromVersionSpec( version );
+            final VersionRange versionRange = VersionRange.createFromVersionSpec( resolve( projects, version ) );
 
             // If it's a range then try to use a matching version...
             if ( versionRange.hasRestrictions() )
             {
-                final String groupId = PropertyResolver.resolvePropertiesUnchecked( session, projects, p.getGroupId() );
-                final String artifactId = PropertyResolver.resolvePropertiesUnchecked( session, projects,
-                        p.getArtifactId() );
-                final List<ArtifactVersion> versions = getVersions( new SimpleProjectRef( groupId, artifactId ) );
-                final ArtifactVersion result = versionRange.matchVersion( versions );
-
-                logger.debug( "Resolved range for plugin {} got versionRange {} and potential replacement of {}", p,
-                        versionRange, result );
-
-                if ( result != null )
-                {
-                    p.setVersion( result.toString() );
-                }
-                else
-                {
-                    logger.warn( "Unable to find replacement for range." );
-                }
+                final ProjectRef ga = new SimpleProjectRef( resolve( projects, groupId ),
+                                                            resolve( projects, artifactId ) );
+                ranges.add( new Range( owner, ga, versionRange, setter ) );
             }
         }
         catch ( InvalidVersionSpecificationException e )
@@ -215,59 +250,113 @@ public class RangeResolver
         }
     }
 
-    private void handleVersionWithRange( List<Project> projects, Dependency d )
+    /**
+     * Interpolating against every project's properties is costly, so literal values are returned as is.
+     */
+    private String resolve( List<Project> projects, String value )
     {
-        final String version = PropertyResolver.resolvePropertiesUnchecked( session, projects, d.getVersion() );
+        return value != null && value.contains( "${" ) ?
+                        PropertyResolver.resolvePropertiesUnchecked( session, projects, value ) :
+                        value;
+    }
 
-        try
-        {
-            final VersionRange versionRange = VersionRange.createFromVersionSpec( version );
+    /**
+     * Reads the available versions of each GA not already cached, using up to the given number of threads.
+     */
+    private void resolveVersions( Collection<ProjectRef> gas, int threads ) throws ManipulationException
+    {
+        final List<ProjectRef> missing = gas.stream()
+                                            .filter( ga -> !versionCache.containsKey( ga ) )
+                                            .collect( Collectors.toList() );
+        logger.debug( "Resolving versions of {} ranged GAs ({} already cached)", missing.size(),
+                      gas.size() - missing.size() );
 
-            // If it's a range then try to use a matching version...
-            if ( versionRange.hasRestrictions() )
+        if ( threads <= 1 || missing.size() <= 1 )
+        {
+            try
             {
-                final String groupId = PropertyResolver.resolvePropertiesUnchecked( session, projects, d.getGroupId() );
-                final String artifactId = PropertyResolver.resolvePropertiesUnchecked( session, projects,
-                        d.getArtifactId() );
-                final List<ArtifactVersion> versions = getVersions( new SimpleProjectRef( groupId, artifactId ) );
-                final ArtifactVersion result = versionRange.matchVersion( versions );
-
-                logger.debug( "Resolved range for dependency {} got versionRange {} and potential replacement of {}", d,
-                        versionRange, result );
+                missing.forEach( ga -> versionCache.put( ga, getVersions( ga ) ) );
+            }
+            catch ( ManipulationUncheckedException e )
+            {
+                throw (ManipulationException) e.getCause();
+            }
+            return;
+        }
 
-                if ( result != null )
-                {
-                    d.setVersion( result.toString() );
-                }
-                else
-                {
-                    logger.warn( "Unable to find replacement for range" );
-                }
+        final ExecutorService executor = Executors.newFixedThreadPool( Math.min( threads, missing.size() ), r -> {
+            Thread t = new Thread( r, "pme-range-resolver" );
+            t.setDaemon( true );
+            return t;
+        } );
+        try
+        {
+            final List<Future<?>> futures = new ArrayList<>();
+            missing.forEach( ga -> futures.add( executor.submit( () -> versionCache.put( ga, getVersions( ga ) ) ) ) );
+            for ( Future<?> future : futures )
+            {
+                future.get();
             }
         }
-        catch ( InvalidVersionSpecificationException e )
+        catch ( InterruptedException e )
         {
-            throw new ManipulationUncheckedException( new ManipulationException( "Invalid range", e ) );
+            Thread.currentThread().interrupt();
+            throw new ManipulationException( "Interrupted resolving version ranges", e );
+        }
+        catch ( ExecutionException e )
+        {
+            if ( e.getCause() instanceof ManipulationUncheckedException
+                            && e.getCause().getCause() instanceof ManipulationException )
+            {
+                throw (ManipulationException) e.getCause().getCause();
+            }
+            throw new ManipulationException( "Unable to resolve version ranges", e.getCause() );
+        }
+        finally
+        {
+            executor.shutdownNow();
         }
     }
 
     private List<ArtifactVersion> getVersions( ProjectRef ga )
     {
-        final MavenMetadataView mavenMetadataView;
+        final List<String> versions;
         try
         {
-            mavenMetadataView = readerWrapper.readMetadataView( ga );
+            versions = readerWrapper.getMetadataVersions( ga );
         }
         catch ( GalleyMavenException e )
         {
             throw new ManipulationUncheckedException(
                     new ManipulationException( "Caught Galley exception processing artifact", e ) );
         }
-        return mavenMetadataView.resolveXPathToAggregatedStringList( "/metadata/versioning/versions/version", true, -1 )
-                                .stream()
-                                .distinct()
-                                .map( DefaultArtifactVersion::new )
-                                .collect( Collectors.toList() );
+        return versions.stream()
+                       .distinct()
+                       .map( DefaultArtifactVersion::new )
+                       .sorted()
+                       .collect( Collectors.toList() );
+    }
+
+    /**
+     * A version range found in the reactor and how to replace it.
+     */
+    private static final class Range
+    {
+        private final Object owner;
+
+        private final ProjectRef ga;
+
+        private final VersionRange versionRange;
+
+        private final Consumer<String> setter;
+
+        private Range( Object owner, ProjectRef ga, VersionRange versionRange, Consumer<String> setter )
+        {
+            this.owner = owner;
+            this.ga = ga;
+            this.versionRange = versionRange;
+            this.setter = setter;
+        }
     }
 
     @Override
@@ -33,6 +33,7 @@ import org.commonjava.maven.ext.core.ManipulationSession;
 import org.commonjava.maven.ext.core.state.RelocationState;
 import org.commonjava.maven.ext.core.state.State;
 import org.commonjava.maven.ext.core.util.DependencyPluginUtils;
+import org.commonjava.maven.ext.core.util.RelocationClosure;
 import org.commonjava.maven.ext.io.resolver.GalleyAPIWrapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -102,12 +103,15 @@ public class RelocationManipulator
         }
 
         final Set<Project> changed = new HashSet<>();
+        final RelocationState relocationState = session.getState( RelocationState.class );
+        final RelocationClosure dependencyRelocations = new RelocationClosure( relocationState.getDependencyRelocations() );
+        final RelocationClosure pluginRelocations = new RelocationClosure( relocationState.getPluginRelocations() );
 
         for ( final Project project : projects )
         {
             final Model model = project.getModel();
 
-            if ( apply( project, model ) )
+            if ( apply( project, model, dependencyRelocations, pluginRelocations ) )
             {
                 changed.add( project );
             }
@@ -116,15 +120,14 @@ public class RelocationManipulator
         return changed;
     }
 
-    private boolean apply( final Project project, final Model model ) throws ManipulationException
+    private boolean apply( final Project project, final Model model, final RelocationClosure dependencyRelocations,
+                           final RelocationClosure pluginRelocations ) throws ManipulationException
     {
         boolean result = false;
         final RelocationState state = session.getState( RelocationState.class );
-        final WildcardMap<ProjectVersionRef> dependencyRelocations = state.getDependencyRelocations();
-        final WildcardMap<ProjectVersionRef> pluginRelocations = state.getPluginRelocations();
 
         logger.debug( "Applying relocation changes for dependencies ({}) and for plugins ({}) to: {}:{}",
-                      dependencyRelocations, pluginRelocations,
+                      state.getDependencyRelocations(), state.getPluginRelocations(),
                       project.getGroupId(), project.getArtifactId() );
 
         DependencyManagement dependencyManagement = model.getDependencyManagement();
@@ -162,66 +165,61 @@ public class RelocationManipulator
         return result;
     }
 
-    private boolean updateDependencies( Project project, WildcardMap<ProjectVersionRef> relocations, Map<ArtifactRef, Dependency> dependencies )
+    private boolean updateDependencies( Project project, RelocationClosure relocations, Map<ArtifactRef, Dependency> dependencies )
                     throws ManipulationException
     {
         final Map<ArtifactRef, Dependency> postFixUp = new HashMap<>();
         boolean result = false;
 
-        // If we do a single pass over the dependencies that will handle the relocations *but* it will not handle
-        // where one relocation alters the dependency and a subsequent relocation alters it again. For instance, the
-        // first might wildcard alter the groupId and the second, more specifically alters one with the artifactId
-        for ( int i = 0 ; i < relocations.size(); i++ )
+        // Chained relocations (where the first might wildcard alter the groupId and the second, more specifically,
+        // alters one with the artifactId) are followed by the closure so a single pass relocates each dependency to
+        // its final groupId:artifactId.
+        Iterator<ArtifactRef> it = dependencies.keySet().iterator();
+        while ( it.hasNext() )
         {
-            Iterator<ArtifactRef> it = dependencies.keySet().iterator();
-            while ( it.hasNext() )
+            final ArtifactRef pvr = it.next();
+            final ProjectVersionRef relocation = relocations.get( pvr.getGroupId(), pvr.getArtifactId() );
+            if ( relocation != null )
             {
-                final ArtifactRef pvr = it.next();
-                if ( relocations.containsKey( pvr.asProjectRef() ) )
-                {
-                    ProjectVersionRef relocation = relocations.get( pvr.asProjectRef() );
-                    Dependency dependency = dependencies.get( pvr );
+                Dependency dependency = dependencies.get( pvr );
 
-                    logger.info( "For dependency {}, replacing groupId {} by {} and artifactId {} with {}", dependency,
-                                 dependency.getGroupId(), relocation.getGroupId(),
-                                 dependency.getArtifactId(), relocation.getArtifactId() );
+                logger.info( "For dependency {}, replacing groupId {} by {} and artifactId {} with {}", dependency,
+                             dependency.getGroupId(), relocation.getGroupId(),
+                             dependency.getArtifactId(), relocation.getArtifactId() );
 
-                    if ( !relocation.getArtifactId().equals( WildcardMap.WILDCARD ) )
-                    {
-                        DependencyPluginUtils.updateString( project, session, dependency.getArtifactId(), relocation,
-                                                            relocation.getArtifactId(),
-                                      d -> dependency.setArtifactId( relocation.getArtifactId() ) );
-                    }
-                    if (relocation.getVersionString().equals( WildcardMap.WILDCARD ) )
-                    {
-                        logger.debug ("No version alignment to perform for relocation {}", relocation);
-                    }
-                    else
-                    {
-                        DependencyPluginUtils.updateString( project, session, dependency.getVersion(),
-                                                            relocation, relocation.getVersionString(),
-                                      d -> dependency.setVersion( relocation.getVersionString() ) );
-                    }
+                if ( !relocation.getArtifactId().equals( WildcardMap.WILDCARD ) )
+                {
+                    DependencyPluginUtils.updateString( project, session, dependency.getArtifactId(), relocation,
+                                                        relocation.getArtifactId(),
+                                  d -> dependency.setArtifactId( relocation.getArtifactId() ) );
+                }
+                if (relocation.getVersionString().equals( WildcardMap.WILDCARD ) )
+                {
+                    logger.debug ("No version alignment to perform for relocation {}", relocation);
+                }
+                else
+                {
+                    DependencyPluginUtils.updateString( project, session, dependency.getVersion(),
+                                                        relocation, relocation.getVersionString(),
+                                  d -> dependency.setVersion( relocation.getVersionString() ) );
+                }
 
-                    DependencyPluginUtils.updateString( project, session, dependency.getGroupId(), relocation, relocation.getGroupId(),
-                                  d -> dependency.setGroupId( relocation.getGroupId() ) );
+                DependencyPluginUtils.updateString( project, session, dependency.getGroupId(), relocation, relocation.getGroupId(),
+                              d -> dependency.setGroupId( relocation.getGroupId() ) );
 
-                    // Unfortunately because we iterate using the resolved project keys if the relocation updates those
-                    // keys multiple iterations will not work. Therefore we need to remove the original key:dependency
-                    // to map to the relocated form.
-                    postFixUp.put( new SimpleScopedArtifactRef( dependency ), dependency );
-                    it.remove();
+                // As the relocation updates the resolved project keys we need to remove the original key:dependency
+                // to map to the relocated form.
+                postFixUp.put( new SimpleScopedArtifactRef( dependency ), dependency );
+                it.remove();
 
-                    result = true;
-                }
+                result = true;
             }
-            dependencies.putAll( postFixUp );
-            postFixUp.clear();
         }
+        dependencies.putAll( postFixUp );
         return result;
     }
 
-    private boolean updatePlugins( WildcardMap<ProjectVersionRef> pluginRelocations, final WildcardMap<ProjectVersionRef> dependencyRelocations, final Project project,
+    private boolean updatePlugins( RelocationClosure pluginRelocations, final RelocationClosure dependencyRelocations, final Project project,
                                    final Map<ProjectVersionRef, Plugin> pluginMap ) throws ManipulationException
     {
         final Map<ProjectVersionRef, Plugin> postFixUp = new HashMap<>();
@@ -229,94 +227,82 @@ public class RelocationManipulator
 
         // Handles plugin configurations
         final List<PluginReference> refs = DependencyPluginUtils.findPluginReferences( galleyWrapper, project, pluginMap );
-        final int size = dependencyRelocations.size();
 
-        for ( int i = 0; i < size; i++ )
+        for ( PluginReference pluginReference : refs )
         {
-            for ( PluginReference pluginReference : refs )
-            {
-                final Dependency dependency = new Dependency();
-
-                dependency.setGroupId( pluginReference.getGroupId() );
-                dependency.setArtifactId( pluginReference.getArtifactId() );
+            final ProjectVersionRef relocation = dependencyRelocations.get( pluginReference.getGroupId(),
+                                                                            pluginReference.getArtifactId() );
 
-                final ProjectVersionRef relocation = dependencyRelocations.get( dependency );
+            if ( relocation != null )
+            {
+                DependencyPluginUtils.updateString( project, session, pluginReference.getGroupId(), relocation,
+                                                    relocation.getGroupId(),
+                              d -> pluginReference.groupIdNode.setTextContent( relocation.getGroupId() ) );
 
-                if ( relocation != null )
+                if ( !relocation.getArtifactId().equals( WildcardMap.WILDCARD ) )
                 {
-                    DependencyPluginUtils.updateString( project, session, pluginReference.getGroupId(), relocation,
-                                                        relocation.getGroupId(),
-                                  d -> pluginReference.groupIdNode.setTextContent( relocation.getGroupId() ) );
+                    DependencyPluginUtils.updateString( project, session, pluginReference.getArtifactId(), relocation,
+                                                        relocation.getArtifactId(),
+                                  d -> pluginReference.artifactIdNode.setTextContent( relocation.getArtifactId() ) );
+                }
 
-                    if ( !relocation.getArtifactId().equals( WildcardMap.WILDCARD ) )
+                if ( pluginReference.versionNode != null)
+                {
+                    if ( relocation.getVersionString().equals( WildcardMap.WILDCARD ) )
                     {
-                        DependencyPluginUtils.updateString( project, session, pluginReference.getArtifactId(), relocation,
-                                                            relocation.getArtifactId(),
-                                      d -> pluginReference.artifactIdNode.setTextContent( relocation.getArtifactId() ) );
+                        logger.debug ("No version alignment to perform for relocation {}", relocation);
                     }
-
-                    if ( pluginReference.versionNode != null)
+                    else
                     {
-                        if ( relocation.getVersionString().equals( WildcardMap.WILDCARD ) )
-                        {
-                            logger.debug ("No version alignment to perform for relocation {}", relocation);
-                        }
-                        else
-                        {
-                            DependencyPluginUtils.updateString( project, session, pluginReference.versionNode.getTextContent(), relocation, relocation.getVersionString(),
-                                          d -> pluginReference.versionNode.setTextContent( relocation.getVersionString() ) );
-                        }
+                        DependencyPluginUtils.updateString( project, session, pluginReference.versionNode.getTextContent(), relocation, relocation.getVersionString(),
+                                      d -> pluginReference.versionNode.setTextContent( relocation.getVersionString() ) );
                     }
-                    pluginReference.container.setConfiguration( DependencyPluginUtils.getConfigXml( galleyWrapper,
-                                                                                                    pluginReference.groupIdNode ) );
+                }
+                pluginReference.container.setConfiguration( DependencyPluginUtils.getConfigXml( galleyWrapper,
+                                                                                                pluginReference.groupIdNode ) );
 
-                    logger.debug( "Update plugin: set {} to {}", relocation, pluginReference );
+                logger.debug( "Update plugin: set {} to {}", relocation, pluginReference );
 
-                    result = true;
-                }
+                result = true;
             }
         }
 
         // Handles plugins themselves
-        for ( int i = 0 ; i < pluginRelocations.size(); i++ )
+        Iterator<ProjectVersionRef> it = pluginMap.keySet().iterator();
+        while ( it.hasNext() )
         {
-            Iterator<ProjectVersionRef> it = pluginMap.keySet().iterator();
-            while ( it.hasNext() )
-            {
-                final ProjectVersionRef pvr = it.next();
+            final ProjectVersionRef pvr = it.next();
+            final ProjectVersionRef relocation = pluginRelocations.get( pvr.getGroupId(), pvr.getArtifactId() );
 
-                if ( pluginRelocations.containsKey( pvr.asProjectRef() ) )
-                {
-                    Plugin plugin = pluginMap.get( pvr );
-                    ProjectVersionRef relocation = pluginRelocations.get( pvr.asProjectRef() );
+            if ( relocation != null )
+            {
+                Plugin plugin = pluginMap.get( pvr );
 
-                    logger.info( "For plugin {}, replacing groupId {} by {} and artifactId {} with {}", plugin.getId(),
-                                 plugin.getGroupId(), relocation.getGroupId(), plugin.getArtifactId(), relocation.getArtifactId() );
+                logger.info( "For plugin {}, replacing groupId {} by {} and artifactId {} with {}", plugin.getId(),
+                             plugin.getGroupId(), relocation.getGroupId(), plugin.getArtifactId(), relocation.getArtifactId() );
 
-                    if ( !relocation.getArtifactId().equals( WildcardMap.WILDCARD ) )
-                    {
-                        DependencyPluginUtils.updateString( project, session, plugin.getArtifactId(), relocation, relocation.getArtifactId(), d -> plugin.setArtifactId( relocation.getArtifactId() ) );
-                    }
-                    if ( relocation.getVersionString().equals( WildcardMap.WILDCARD ) )
-                    {
-                        logger.debug( "No version alignment to perform for relocation {}", relocation );
-                    }
-                    else
-                    {
-                        DependencyPluginUtils.updateString( project, session, plugin.getVersion(), relocation, relocation.getVersionString(), d -> plugin.setVersion( relocation.getVersionString() ) );
-                    }
+                if ( !relocation.getArtifactId().equals( WildcardMap.WILDCARD ) )
+                {
+                    DependencyPluginUtils.updateString( project, session, plugin.getArtifactId(), relocation, relocation.getArtifactId(), d -> plugin.setArtifactId( relocation.getArtifactId() ) );
+                }
+                if ( relocation.getVersionString().equals( WildcardMap.WILDCARD ) )
+                {
+                    logger.debug( "No version alignment to perform for relocation {}", relocation );
+                }
+                else
+                {
+                    DependencyPluginUtils.updateString( project, session, plugin.getVersion(), relocation, relocation.getVersionString(), d -> plugin.setVersion( relocation.getVersionString() ) );
+                }
 
-                    DependencyPluginUtils.updateString( project, session, plugin.getGroupId(), relocation, relocation.getGroupId(), d -> plugin.setGroupId( relocation.getGroupId() ) );
+                DependencyPluginUtils.updateString( project, session, plugin.getGroupId(), relocation, relocation.getGroupId(), d -> plugin.setGroupId( relocation.getGroupId() ) );
 
-                    postFixUp.put( new SimpleProjectVersionRef( plugin.getGroupId(), plugin.getArtifactId(),
-                                                                isEmpty( plugin.getVersion() ) ? "*" : plugin.getVersion()), plugin );
-                    it.remove();
-                    result = true;
-                }
+                postFixUp.put( new SimpleProjectVersionRef( plugin.getGroupId(), plugin.getArtifactId(),
+                                                            isEmpty( plugin.getVersion() ) ? "*" : plugin.getVersion()), plugin );
+                it.remove();
+                result = true;
             }
-            pluginMap.putAll( postFixUp );
-            postFixUp.clear();
         }
+        pluginMap.putAll( postFixUp );
 
         return result;
     }
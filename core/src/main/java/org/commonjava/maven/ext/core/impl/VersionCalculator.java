@@ -26,7 +26,6 @@ import org.commonjava.maven.ext.core.ManipulationSession;
 import org.commonjava.maven.ext.core.state.VersioningState;
 import org.commonjava.maven.ext.io.resolver.GalleyAPIWrapper;
 import org.commonjava.maven.galley.maven.GalleyMavenException;
-import org.commonjava.maven.galley.maven.model.view.meta.MavenMetadataView;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -292,10 +291,7 @@ public class VersionCalculator
         {
             if ( readerWrapper != null )
             {
-                final MavenMetadataView metadataView =
-                                readerWrapper.readMetadataView( new SimpleProjectRef( groupId, artifactId ) );
-
-                versions.addAll( metadataView.resolveXPathToAggregatedStringList( "/metadata/versioning/versions/version", true, -1 ) );
+                versions.addAll( readerWrapper.getMetadataVersions( new SimpleProjectRef( groupId, artifactId ) ) );
             }
         }
         catch ( final GalleyMavenException e )
@@ -24,6 +24,7 @@ import org.commonjava.maven.ext.annotation.ConfigValue;
 import org.commonjava.maven.ext.common.ManipulationException;
 import org.commonjava.maven.ext.core.impl.DependencyManipulator;
 import org.commonjava.maven.ext.core.util.IdUtils;
+import org.commonjava.maven.ext.core.util.ModuleOverrides;
 
 import java.util.HashMap;
 import java.util.List;
@@ -113,6 +114,12 @@ public class DependencyState
     @ConfigValue( docIndex = "dep-manip.html#remote-pom")
     public static final String DEPENDENCY_MANAGEMENT_POM_PROPERTY = "dependencyManagement";
 
+    /**
+     * The number of projects whose dependencies are aligned concurrently ; one or less aligns them sequentially.
+     */
+    @ConfigValue( docIndex = "dep-manip.html#parallel-alignment")
+    public static final String DEPENDENCY_ALIGNMENT_THREADS = "dependencyAlignmentThreads";
+
     /**
      * The String that needs to be prepended a system property to make it an extra BOM.
      * For example, used to align only parts of a project to a different BOM
@@ -132,10 +139,14 @@ public class DependencyState
 
     private Map<String, String> dependencyOverrides;
 
+    private ModuleOverrides dependencyOverrideRules;
+
     private Map<ArtifactRef, String> remoteRESTdepMgmt;
 
     private DependencyPrecedence precedence;
 
+    private int alignmentThreads;
+
     public DependencyState( final Properties userProps ) throws ManipulationException
     {
         initialise( userProps );
@@ -165,6 +176,10 @@ public class DependencyState
                 throw new ManipulationException( "Property clash between dependencyOverride and dependencyExclusion for {}", s );
             }
         }
+        dependencyOverrideRules = ModuleOverrides.compile( dependencyOverrides );
+
+        alignmentThreads = Integer.parseInt( userProps.getProperty( DEPENDENCY_ALIGNMENT_THREADS, "1" ) );
+
         String sourceValue = userProps.getProperty( DEPENDENCY_SOURCE,
                                                             DependencyPrecedence.BOM.toString() ).toUpperCase();
         if ( StringUtils.isEmpty(sourceValue))
@@ -239,6 +254,14 @@ public class DependencyState
         return precedence;
     }
 
+    /**
+     * @return the number of projects aligned concurrently ; one or less aligns them sequentially.
+     */
+    public int getAlignmentThreads()
+    {
+        return alignmentThreads;
+    }
+
     public void setRemoteRESTOverrides( Map<ArtifactRef, String> overrides )
     {
         remoteRESTdepMgmt = overrides;
@@ -257,4 +280,9 @@ public class DependencyState
     {
         return dependencyOverrides;
     }
+
+    public ModuleOverrides getDependencyOverrideRules( )
+    {
+        return dependencyOverrideRules;
+    }
 }
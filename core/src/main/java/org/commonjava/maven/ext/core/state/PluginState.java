@@ -23,6 +23,7 @@ import org.commonjava.maven.ext.annotation.ConfigValue;
 import org.commonjava.maven.ext.common.ManipulationException;
 import org.commonjava.maven.ext.core.impl.PluginManipulator;
 import org.commonjava.maven.ext.core.util.IdUtils;
+import org.commonjava.maven.ext.core.util.ModuleOverrides;
 
 import java.util.HashSet;
 import java.util.List;
@@ -108,6 +109,9 @@ public class PluginState
     @Getter
     private Map<String, String> pluginOverride;
 
+    @Getter
+    private ModuleOverrides pluginOverrideRules;
+
     public PluginState( final Properties userProps ) throws ManipulationException
     {
         initialise( userProps );
@@ -117,6 +121,7 @@ public class PluginState
     {
         remotePluginMgmt = IdUtils.parseGAVs( userProps.getProperty( PLUGIN_MANAGEMENT_POM_PROPERTY ) );
         pluginOverride = getPropertiesByPrefix( userProps, PLUGIN_OVERRIDE_PREFIX );
+        pluginOverrideRules = ModuleOverrides.compile( pluginOverride );
         switch ( Precedence.valueOf( userProps.getProperty( PLUGIN_MANAGEMENT_PRECEDENCE,
                                                             Precedence.REMOTE.toString() ).toUpperCase() ) )
         {
@@ -19,7 +19,10 @@ import org.apache.commons.lang.StringUtils;
 import org.commonjava.maven.ext.annotation.ConfigValue;
 import org.commonjava.maven.ext.core.ManipulationSession;
 import org.commonjava.maven.ext.core.impl.DependencyManipulator;
+import org.commonjava.maven.ext.io.rest.CachingTranslator;
+import org.commonjava.maven.ext.io.rest.ConnectionPolicy;
 import org.commonjava.maven.ext.io.rest.DefaultTranslator;
+import org.commonjava.maven.ext.io.rest.HedgingPolicy;
 import org.commonjava.maven.ext.io.rest.Translator;
 
 import java.util.Arrays;
@@ -64,12 +67,38 @@ public class RESTState implements State
     @ConfigValue( docIndex = "dep-manip.html#rest-timeouts-and-retries" )
     public static final String REST_RETRY_DURATION_SEC = "restRetryDuration";
 
+    @ConfigValue( docIndex = "dep-manip.html#rest-endpoint" )
+    public static final String REST_COMPRESSION = "restCompression";
+
+    @ConfigValue( docIndex = "dep-manip.html#rest-timeouts-and-retries" )
+    public static final String REST_HEDGE_DELAY = "restHedgeDelay";
+
+    @ConfigValue( docIndex = "dep-manip.html#rest-timeouts-and-retries" )
+    public static final String REST_HEDGE_PERCENTILE = "restHedgePercentile";
+
+    @ConfigValue( docIndex = "dep-manip.html#rest-timeouts-and-retries" )
+    public static final String REST_HEDGE_SPLIT = "restHedgeSplit";
+
+    @ConfigValue( docIndex = "dep-manip.html#rest-timeouts-and-retries" )
+    public static final String REST_MAX_CONNECTIONS = "restMaxConnections";
+
+    @ConfigValue( docIndex = "dep-manip.html#rest-timeouts-and-retries" )
+    public static final String REST_MAX_CONNECTIONS_PER_ROUTE = "restMaxConnectionsPerRoute";
+
+    @ConfigValue( docIndex = "dep-manip.html#rest-timeouts-and-retries" )
+    public static final String REST_IDLE_TIMEOUT_SEC = "restIdleTimeout";
+
+    @ConfigValue( docIndex = "dep-manip.html#rest-timeouts-and-retries" )
+    public static final String REST_CONNECTION_TTL_SEC = "restConnectionTTL";
+
     private final ManipulationSession session;
 
     private String restURL;
 
     private Translator restEndpoint;
 
+    private DefaultTranslator restClient;
+
     private boolean restSuffixAlign;
 
     public RESTState( final ManipulationSession session )
@@ -98,9 +127,28 @@ public class RESTState implements State
         int restRetryDuration = Integer.parseInt( userProps.getProperty( REST_RETRY_DURATION_SEC,
                                                                          String.valueOf( DefaultTranslator.RETRY_DURATION_SEC ) ) );
 
-        restEndpoint = new DefaultTranslator( restURL, restMaxSize, restMinSize, brewPullActive, mode,
-                                              restHeaders, restConnectionTimeout,
-                                              restSocketTimeout, restRetryDuration );
+        HedgingPolicy hedgingPolicy = new HedgingPolicy( Long.parseLong( userProps.getProperty( REST_HEDGE_DELAY, "0" ) ),
+                                                         Integer.parseInt( userProps.getProperty( REST_HEDGE_PERCENTILE, "95" ) ),
+                                                         Boolean.parseBoolean( userProps.getProperty( REST_HEDGE_SPLIT, "false" ) ) );
+
+        ConnectionPolicy connectionPolicy = new ConnectionPolicy(
+                        Integer.parseInt( userProps.getProperty( REST_MAX_CONNECTIONS, String.valueOf( ConnectionPolicy.DEFAULT_MAX_CONNECTIONS ) ) ),
+                        Integer.parseInt( userProps.getProperty( REST_MAX_CONNECTIONS_PER_ROUTE, String.valueOf( ConnectionPolicy.DEFAULT_MAX_CONNECTIONS_PER_ROUTE ) ) ),
+                        Integer.parseInt( userProps.getProperty( REST_IDLE_TIMEOUT_SEC, String.valueOf( ConnectionPolicy.DEFAULT_IDLE_TIMEOUT_SEC ) ) ),
+                        Integer.parseInt( userProps.getProperty( REST_CONNECTION_TTL_SEC, "-1" ) ) );
+
+        // Release the connections of any previous configuration.
+        shutdown();
+
+        DefaultTranslator translator = new DefaultTranslator( restURL, restMaxSize, restMinSize, brewPullActive, mode,
+                                                              restHeaders, restConnectionTimeout,
+                                                              restSocketTimeout, restRetryDuration );
+        translator.setHedgingPolicy( hedgingPolicy );
+        translator.setCompression( Boolean.parseBoolean( userProps.getProperty( REST_COMPRESSION, "false" ) ) );
+        translator.setConnectionPolicy( connectionPolicy );
+        restClient = translator;
+        // Memoize lookups so GAVs already resolved in this session are not sent to the server again.
+        restEndpoint = new CachingTranslator( translator );
     }
 
     /**
@@ -119,6 +167,17 @@ public class RESTState implements State
         return restEndpoint;
     }
 
+    /**
+     * Closes the HTTP client and its pooled connections. Called when the session finishes.
+     */
+    public void shutdown()
+    {
+        if ( restClient != null )
+        {
+            restClient.shutdown();
+        }
+    }
+
     public boolean isRestSuffixAlign()
     {
         return restSuffixAlign;
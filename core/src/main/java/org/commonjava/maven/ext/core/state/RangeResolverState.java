@@ -32,6 +32,12 @@ public class RangeResolverState
     @ConfigValue( docIndex = "misc.html#version-range-resolving")
     private static final String RESOLVE_RANGES_PROPERTY = "resolveRanges";
 
+    /**
+     * The number of GAs whose metadata is read concurrently.
+     */
+    @ConfigValue( docIndex = "misc.html#version-range-resolving")
+    private static final String RESOLVE_RANGES_THREADS_PROPERTY = "resolveRangesThreads";
+
     static
     {
         State.activeByDefault.add( RangeResolverState.class );
@@ -39,6 +45,8 @@ public class RangeResolverState
 
     private Boolean enabled;
 
+    private int threads;
+
     public RangeResolverState( final Properties userProps )
     {
         initialise( userProps );
@@ -47,6 +55,15 @@ public class RangeResolverState
     public void initialise( Properties userProps )
     {
          enabled = Boolean.parseBoolean( userProps.getProperty( RESOLVE_RANGES_PROPERTY, "true" ) );
+         threads = Integer.parseInt( userProps.getProperty( RESOLVE_RANGES_THREADS_PROPERTY, "4" ) );
+    }
+
+    /**
+     * @return the number of GAs whose metadata is read concurrently ; one or less reads them sequentially.
+     */
+    public int getThreads()
+    {
+        return threads;
     }
 
     /**
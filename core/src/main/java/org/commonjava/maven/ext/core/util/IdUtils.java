@@ -34,7 +34,9 @@ import java.io.IOException;
 import java.net.URL;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.apache.commons.lang.StringUtils.isEmpty;
@@ -154,6 +156,23 @@ public final class IdUtils
         }
     }
 
+    /**
+     * Copies the references into a hashed set of plain {@link ProjectRef}s ; other implementations (e.g. the
+     * VersionlessArtifactRef used for the nexus staging plugin) do not share the hash code of an equal ProjectRef.
+     *
+     * @param refs the references to copy
+     * @return the groupId:artifactId of each reference
+     */
+    public static Set<ProjectRef> toProjectRefSet( final List<ProjectRef> refs )
+    {
+        final Set<ProjectRef> result = new HashSet<>();
+        for ( final ProjectRef ref : refs )
+        {
+            result.add( ref.asProjectRef() );
+        }
+        return result;
+    }
+
     public static String gav( final Project project )
     {
         return String.format( "%s:%s:%s", project.getGroupId(), project.getArtifactId(), project.getVersion() );
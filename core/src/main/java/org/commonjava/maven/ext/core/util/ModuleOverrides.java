@@ -0,0 +1,250 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.core.util;
+
+import lombok.Getter;
+import org.commonjava.maven.atlas.ident.ref.ArtifactRef;
+import org.commonjava.maven.atlas.ident.ref.ProjectRef;
+import org.commonjava.maven.atlas.ident.ref.SimpleProjectRef;
+import org.commonjava.maven.ext.common.ManipulationException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The module specific entries of a dependencyOverride / dependencyExclusion / pluginOverride configuration, i.e.
+ * {@code groupId:artifactId@moduleGroupId:moduleArtifactId=value}, parsed once and indexed by module so that each
+ * project only has to look at the rules targeting it.
+ * <p>
+ * Rules that name a module (or a module group via {@code moduleGroupId:*}) are returned in configuration order.
+ * Rules for every module ({@code groupId:artifactId@*}) are kept separately as they are only applied once the
+ * module specific rules have been.
+ */
+public final class ModuleOverrides
+{
+    private final Map<String, List<Rule>> byModule = new HashMap<>();
+
+    private final Map<String, List<Rule>> byModuleGroup = new HashMap<>();
+
+    @Getter
+    private final List<Rule> wildcardRules = new ArrayList<>();
+
+    private ModuleOverrides()
+    {
+    }
+
+    /**
+     * Parses the module specific entries of the given overrides ; entries without a module are ignored.
+     *
+     * @param overrides the override configuration, keyed on e.g. {@code groupId:artifactId@groupId:artifactId}
+     * @return the indexed rules
+     * @throws ManipulationException if a key does not have the form {@code artifact@module}
+     */
+    public static ModuleOverrides compile( final Map<String, String> overrides ) throws ManipulationException
+    {
+        final ModuleOverrides result = new ModuleOverrides();
+        int order = 0;
+
+        for ( final Map.Entry<String, String> entry : overrides.entrySet() )
+        {
+            final String key = entry.getKey();
+
+            if ( !key.contains( "@" ) )
+            {
+                continue;
+            }
+            if ( key.endsWith( "@*" ) )
+            {
+                final ProjectRef artifact = SimpleProjectRef.parse( key.substring( 0, key.length() - 2 ) );
+                result.wildcardRules.add( new Rule( order++, key, artifact, entry.getValue() ) );
+                continue;
+            }
+
+            final String[] artifactAndModule = key.split( "@" );
+            if ( artifactAndModule.length != 2 )
+            {
+                throw new ManipulationException( "Invalid format for exclusion key {}", key );
+            }
+            final ProjectRef module = SimpleProjectRef.parse( artifactAndModule[1] );
+            final Rule rule = new Rule( order++, key, SimpleProjectRef.parse( artifactAndModule[0] ), entry.getValue() );
+
+            if ( module.getArtifactId().equals( "*" ) )
+            {
+                result.byModuleGroup.computeIfAbsent( module.getGroupId(), k -> new ArrayList<>() ).add( rule );
+            }
+            else
+            {
+                result.byModule.computeIfAbsent( module.toString(), k -> new ArrayList<>() ).add( rule );
+            }
+        }
+        return result;
+    }
+
+    public boolean isEmpty()
+    {
+        return byModule.isEmpty() && byModuleGroup.isEmpty() && wildcardRules.isEmpty();
+    }
+
+    /**
+     * Returns the rules naming the given module, either directly or by its groupId, in configuration order.
+     *
+     * @param projectGA the current project group : artifact
+     * @return the matching rules, possibly empty
+     */
+    public List<Rule> getModuleRules( final String projectGA )
+    {
+        if ( byModule.isEmpty() && byModuleGroup.isEmpty() )
+        {
+            return Collections.emptyList();
+        }
+        final List<Rule> exact = byModule.getOrDefault( projectGA, Collections.emptyList() );
+        final List<Rule> group = byModuleGroup.getOrDefault( SimpleProjectRef.parse( projectGA ).getGroupId(),
+                                                             Collections.emptyList() );
+        if ( group.isEmpty() )
+        {
+            return exact;
+        }
+        else if ( exact.isEmpty() )
+        {
+            return group;
+        }
+
+        // Both buckets are already ordered so a merge restores the configuration order.
+        final List<Rule> result = new ArrayList<>( exact.size() + group.size() );
+        int i = 0;
+        int j = 0;
+        while ( i < exact.size() || j < group.size() )
+        {
+            if ( j == group.size() || ( i < exact.size() && exact.get( i ).order < group.get( j ).order ) )
+            {
+                result.add( exact.get( i++ ) );
+            }
+            else
+            {
+                result.add( group.get( j++ ) );
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ModuleOverrides{byModule=" + byModule + ", byModuleGroup=" + byModuleGroup + ", wildcardRules="
+                        + wildcardRules + '}';
+    }
+
+    /**
+     * A single {@code artifact@module=value} entry. An empty value prevents any override of the artifact.
+     */
+    @Getter
+    public static final class Rule
+    {
+        private final int order;
+
+        private final String key;
+
+        private final ProjectRef artifact;
+
+        private final String value;
+
+        private Rule( int order, String key, ProjectRef artifact, String value )
+        {
+            this.order = order;
+            this.key = key;
+            this.artifact = artifact;
+            this.value = value;
+        }
+
+        public boolean isRemoval()
+        {
+            return value == null || value.isEmpty();
+        }
+
+        @Override
+        public String toString()
+        {
+            return key + '=' + value;
+        }
+    }
+
+    /**
+     * Collects the artifacts (which may use wildcards) that should no longer be overridden so they can be removed
+     * from the overrides in a single pass.
+     */
+    public static final class Removals
+    {
+        private final Set<ProjectRef> artifacts = new HashSet<>();
+
+        private final Set<String> groupIds = new HashSet<>();
+
+        private final Set<String> artifactIds = new HashSet<>();
+
+        private boolean all;
+
+        public void add( final ProjectRef ref )
+        {
+            final boolean anyGroup = ref.getGroupId().equals( "*" );
+            final boolean anyArtifact = ref.getArtifactId().equals( "*" );
+
+            if ( anyGroup && anyArtifact )
+            {
+                all = true;
+            }
+            else if ( anyArtifact )
+            {
+                groupIds.add( ref.getGroupId() );
+            }
+            else if ( anyGroup )
+            {
+                artifactIds.add( ref.getArtifactId() );
+            }
+            else
+            {
+                artifacts.add( ref );
+            }
+        }
+
+        public boolean isEmpty()
+        {
+            return !all && artifacts.isEmpty() && groupIds.isEmpty() && artifactIds.isEmpty();
+        }
+
+        /**
+         * Removes every matching entry from the overrides.
+         *
+         * @param overrides the overrides to reduce
+         */
+        public void removeFrom( final Map<ArtifactRef, String> overrides )
+        {
+            if ( all )
+            {
+                overrides.clear();
+            }
+            else if ( !isEmpty() )
+            {
+                overrides.keySet().removeIf( a -> artifacts.contains( a.asProjectRef() ) ||
+                                groupIds.contains( a.getGroupId() ) ||
+                                artifactIds.contains( a.getArtifactId() ) );
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.core.util;
+
+import org.commonjava.maven.atlas.ident.ref.ProjectRef;
+import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
+import org.commonjava.maven.atlas.ident.ref.SimpleProjectRef;
+import org.commonjava.maven.atlas.ident.ref.SimpleProjectVersionRef;
+import org.commonjava.maven.ext.common.ManipulationException;
+import org.commonjava.maven.ext.common.util.WildcardMap;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.apache.commons.lang.StringUtils.join;
+
+/**
+ * Follows chained relocations (where the result of one relocation is itself relocated) to the final relocation of a
+ * groupId:artifactId, so that each dependency or plugin only has to be relocated once.
+ * <p>
+ * The returned relocation uses the same format as those in {@link WildcardMap}: the artifactId is a wildcard if no
+ * relocation in the chain changed it and the version is a wildcard if no relocation in the chain set one (otherwise
+ * it is the last version set). As the relocations may use wildcards the closure is computed on demand and cached.
+ */
+public final class RelocationClosure
+{
+    private final WildcardMap<ProjectVersionRef> relocations;
+
+    private final Map<ProjectRef, Optional<ProjectVersionRef>> cache = new HashMap<>();
+
+    public RelocationClosure( final WildcardMap<ProjectVersionRef> relocations )
+    {
+        this.relocations = relocations;
+    }
+
+    /**
+     * @param groupId the groupId to relocate
+     * @param artifactId the artifactId to relocate
+     * @return the final relocation, or null if there is none.
+     * @throws ManipulationException if the relocations form a cycle
+     */
+    public ProjectVersionRef get( final String groupId, final String artifactId ) throws ManipulationException
+    {
+        if ( relocations.isEmpty() )
+        {
+            return null;
+        }
+        final ProjectRef start = new SimpleProjectRef( groupId, artifactId );
+        Optional<ProjectVersionRef> result = cache.get( start );
+        if ( result == null )
+        {
+            result = Optional.ofNullable( follow( start ) );
+            cache.put( start, result );
+        }
+        return result.orElse( null );
+    }
+
+    private ProjectVersionRef follow( final ProjectRef start ) throws ManipulationException
+    {
+        final Set<ProjectRef> visited = new LinkedHashSet<>();
+        ProjectRef current = start;
+        ProjectVersionRef relocation = relocations.get( current );
+        boolean artifactChanged = false;
+        String version = WildcardMap.WILDCARD;
+
+        if ( relocation == null )
+        {
+            return null;
+        }
+        while ( relocation != null )
+        {
+            visited.add( current );
+
+            final boolean wildcardArtifact = relocation.getArtifactId().equals( WildcardMap.WILDCARD );
+            final ProjectRef next = new SimpleProjectRef( relocation.getGroupId(), wildcardArtifact ?
+                            current.getArtifactId() :
+                            relocation.getArtifactId() );
+
+            artifactChanged |= !wildcardArtifact;
+            if ( !relocation.getVersionString().equals( WildcardMap.WILDCARD ) )
+            {
+                version = relocation.getVersionString();
+            }
+
+            if ( next.equals( current ) )
+            {
+                // Relocating to itself (e.g. to only change the version) ends the chain.
+                break;
+            }
+            else if ( visited.contains( next ) )
+            {
+                throw new ManipulationException( "Relocations form a cycle: {} -> {}", join( visited, " -> " ),
+                                                 next );
+            }
+            current = next;
+            relocation = relocations.get( current );
+        }
+
+        return new SimpleProjectVersionRef( current.getGroupId(),
+                                            artifactChanged ? current.getArtifactId() : WildcardMap.WILDCARD,
+                                            version );
+    }
+}
@@ -0,0 +1,430 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.core.impl;
+
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginManagement;
+import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
+import org.codehaus.plexus.util.xml.Xpp3DomBuilder;
+import org.commonjava.maven.atlas.ident.ref.ArtifactRef;
+import org.commonjava.maven.atlas.ident.ref.SimpleArtifactRef;
+import org.commonjava.maven.atlas.ident.ref.SimpleProjectRef;
+import org.commonjava.maven.ext.common.ManipulationException;
+import org.commonjava.maven.ext.common.model.Project;
+import org.commonjava.maven.ext.common.util.WildcardMap;
+import org.commonjava.maven.ext.core.ManipulationSession;
+import org.commonjava.maven.ext.core.fixture.StubTransport;
+import org.commonjava.maven.ext.core.fixture.TestUtils;
+import org.commonjava.maven.ext.core.state.CommonState;
+import org.commonjava.maven.ext.core.state.DependencyState;
+import org.commonjava.maven.ext.core.state.VersioningState;
+import org.commonjava.maven.ext.core.util.ModuleOverrides;
+import org.commonjava.maven.ext.core.util.PropertyMapper;
+import org.commonjava.maven.ext.io.ModelIO;
+import org.commonjava.maven.ext.io.resolver.GalleyAPIWrapper;
+import org.commonjava.maven.ext.io.resolver.GalleyInfrastructure;
+import org.commonjava.maven.ext.io.resolver.MavenLocationExpander;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DependencyManipulatorTest
+{
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private final DependencyManipulator manipulator = new DependencyManipulator( null, null );
+
+    @Test
+    public void testRemoveDuplicateArtifacts()
+    {
+        final Map<ArtifactRef, String> merged = new LinkedHashMap<>();
+        merged.put( artifact( "org.foo", "bar", "1.0", null ), "1.0" );
+        merged.put( artifact( "org.foo", "bar", "1.0", "tests" ), "1.0" );
+        merged.put( artifact( "org.foo", "baz", "2.0", null ), "2.0" );
+        merged.put( artifact( "org.foo", "qux", "3.0", null ), "3.0" );
+
+        final Map<ArtifactRef, String> target = new LinkedHashMap<>();
+        target.put( artifact( "org.foo", "bar", "1.1", "sources" ), "1.1" );
+        target.put( artifact( "org.foo", "qux", "3.1", null ), "3.1" );
+        target.put( artifact( "org.foo", "other", "4.0", null ), "4.0" );
+
+        manipulator.removeDuplicateArtifacts( merged, target );
+
+        assertEquals( Arrays.asList( artifact( "org.foo", "baz", "2.0", null ) ), new ArrayList<>( merged.keySet() ) );
+        assertEquals( 3, target.size() );
+    }
+
+    @Test
+    public void testRemoveDuplicateArtifactsLargeInput()
+    {
+        final Map<ArtifactRef, String> bom = new LinkedHashMap<>();
+        for ( int i = 0; i < 20000; i++ )
+        {
+            bom.put( artifact( "org.foo.group" + i % 50, "artifact-" + i, "1.0", null ), "1.0" );
+        }
+        final Map<ArtifactRef, String> rest = new LinkedHashMap<>();
+        for ( int i = 0; i < 20000; i++ )
+        {
+            // One in a hundred REST entries clashes with a BOM entry.
+            final int id = i % 100 == 0 ? i : 100000 + i;
+            rest.put( artifact( "org.foo.group" + id % 50, "artifact-" + id, "1.0.redhat-1", null ), "1.0.redhat-1" );
+        }
+
+        manipulator.removeDuplicateArtifacts( bom, rest );
+
+        assertEquals( 20000 - 200, bom.size() );
+        assertEquals( 20000, rest.size() );
+        for ( int i = 0; i < 20000; i++ )
+        {
+            assertEquals( i % 100 != 0,
+                          bom.containsKey( artifact( "org.foo.group" + i % 50, "artifact-" + i, "1.0", null ) ) );
+        }
+    }
+
+    @Test
+    public void testRemoveReactorGAs() throws Exception
+    {
+        final ManipulationSession session = new ManipulationSession();
+        final List<Project> projects = new ArrayList<>();
+        for ( String artifactId : new String[] { "parent", "bar" } )
+        {
+            final Model model = new Model();
+            model.setGroupId( "org.foo" );
+            model.setArtifactId( artifactId );
+            model.setVersion( "1.0" );
+            projects.add( new Project( model ) );
+        }
+        session.setProjects( projects );
+        manipulator.init( session );
+
+        final Map<ArtifactRef, String> overrides = new LinkedHashMap<>();
+        overrides.put( artifact( "org.foo", "bar", "1.0.redhat-1", null ), "1.0.redhat-1" );
+        overrides.put( artifact( "org.foo", "baz", "2.0", null ), "2.0" );
+        overrides.put( artifact( "org.foo", "bar", "1.0.redhat-1", "tests" ), "1.0.redhat-1" );
+        overrides.put( artifact( "org.other", "bar", "3.0", null ), "3.0" );
+
+        final Map<ArtifactRef, String> result = manipulator.removeReactorGAs( overrides );
+
+        assertEquals( Arrays.asList( artifact( "org.foo", "baz", "2.0", null ), artifact( "org.other", "bar", "3.0", null ) ),
+                      new ArrayList<>( result.keySet() ) );
+        assertEquals( 4, overrides.size() );
+    }
+
+    @Test
+    public void testApplyModuleVersionOverrides() throws Exception
+    {
+        final Map<String, String> config = new LinkedHashMap<>();
+        config.put( "org.foo:bar@org.acme:app", "1.0-explicit" );
+        config.put( "org.foo:baz@org.acme:*", "" );
+        config.put( "org.foo:bar@*", "2.0" );
+        config.put( "org.foo:qux@*", "3.0" );
+        config.put( "org.foo:zed@org.acme:other", "" );
+        config.put( "org.foo:ignored", "4.0" );
+        final ModuleOverrides rules = ModuleOverrides.compile( config );
+
+        final Map<ArtifactRef, String> overrides = new LinkedHashMap<>();
+        for ( String artifactId : new String[] { "bar", "baz", "zed", "qux" } )
+        {
+            overrides.put( artifact( "org.foo", artifactId, "1.0", null ), "1.0" );
+        }
+
+        WildcardMap<String> explicit = new WildcardMap<>();
+        Map<ArtifactRef, String> result =
+                        manipulator.applyModuleVersionOverrides( "org.acme:app", rules, overrides, explicit,
+                                                                 Collections.emptyMap() );
+        assertEquals( Arrays.asList( artifact( "org.foo", "bar", "1.0", null ), artifact( "org.foo", "zed", "1.0", null ),
+                                     artifact( "org.foo", "qux", "1.0", null ) ), new ArrayList<>( result.keySet() ) );
+        assertEquals( "1.0-explicit", explicit.get( SimpleProjectRef.parse( "org.foo:bar" ) ) );
+        assertEquals( "3.0", explicit.get( SimpleProjectRef.parse( "org.foo:qux" ) ) );
+
+        explicit = new WildcardMap<>();
+        result = manipulator.applyModuleVersionOverrides( "org.acme:other", rules, overrides, explicit,
+                                                          Collections.emptyMap() );
+        assertEquals( Arrays.asList( artifact( "org.foo", "bar", "1.0", null ), artifact( "org.foo", "qux", "1.0", null ) ),
+                      new ArrayList<>( result.keySet() ) );
+        assertEquals( "2.0", explicit.get( SimpleProjectRef.parse( "org.foo:bar" ) ) );
+        assertEquals( 4, overrides.size() );
+    }
+
+    @Test( expected = ManipulationException.class )
+    public void testInvalidModuleOverrideKey() throws Exception
+    {
+        ModuleOverrides.compile( Collections.singletonMap( "org.foo:bar@org.acme:app@org.acme:other", "1.0" ) );
+    }
+
+    @Test
+    public void testApplyOverridesWithSeveralVersionsPerGA() throws Exception
+    {
+        final Properties p = new Properties();
+        p.setProperty( VersioningState.VERSION_SUFFIX_SYSPROP, "redhat-1" );
+        final ManipulationSession session = TestUtils.createSession( p );
+
+        final Model model = new Model();
+        model.setModelVersion( "4.0.0" );
+        model.setGroupId( "org.acme" );
+        model.setArtifactId( "app" );
+        model.setVersion( "1.0" );
+        model.addProperty( "bar.version", "2.0" );
+        model.addDependency( dependency( "bar", "${bar.version}" ) );
+        final Project project = new Project( model );
+        project.setInheritanceRoot( true );
+        session.setProjects( Collections.singletonList( project ) );
+        manipulator.init( session );
+
+        // Strict alignment keeps every version of org.foo:bar; only the one matching 2.0 may be applied.
+        final Map<ArtifactRef, String> overrides = new LinkedHashMap<>();
+        overrides.put( artifact( "org.foo", "bar", "3.0.redhat-1", null ), "3.0.redhat-1" );
+        overrides.put( artifact( "org.foo", "baz", "2.0.redhat-1", null ), "2.0.redhat-1" );
+        overrides.put( artifact( "org.foo", "bar", "2.0.redhat-1", null ), "2.0.redhat-1" );
+        overrides.put( artifact( "org.foo", "bar", "4.0.redhat-1", "tests" ), "4.0.redhat-1" );
+
+        final Map<Project, Map<String, PropertyMapper>> versionPropertyUpdates = new LinkedHashMap<>();
+        final Map<ArtifactRef, String> unmatched =
+                        manipulator.applyOverrides( project, project.getResolvedDependencies( session ),
+                                                    new WildcardMap<>(), overrides,
+                                                    manipulator.indexByProject( overrides ), versionPropertyUpdates );
+
+        assertEquals( Arrays.asList( artifact( "org.foo", "bar", "3.0.redhat-1", null ),
+                                     artifact( "org.foo", "baz", "2.0.redhat-1", null ),
+                                     artifact( "org.foo", "bar", "4.0.redhat-1", "tests" ) ),
+                      new ArrayList<>( unmatched.keySet() ) );
+        assertEquals( "2.0.redhat-1", versionPropertyUpdates.get( project ).get( "bar.version" ).getNewVersion() );
+        assertEquals( 4, overrides.size() );
+    }
+
+    @Test
+    public void testConcurrentAlignmentMatchesSequential() throws Exception
+    {
+        final List<String> sequential = align( 1 );
+        final List<String> concurrent = align( 4 );
+
+        assertEquals( sequential, concurrent );
+        assertTrue( sequential.get( 0 ), sequential.get( 0 ).contains( "<bar.version>2.0</bar.version>" ) );
+        assertTrue( sequential.get( 0 ), sequential.get( 0 ).contains( "<qux.version>3.0</qux.version>" ) );
+    }
+
+    @Test
+    public void testConcurrentAlignmentWithRemoteBOMMatchesSequential() throws Exception
+    {
+        final List<String> sequential = alignWithRemoteBOM( 1 );
+        final List<String> concurrent = alignWithRemoteBOM( 4 );
+
+        assertEquals( sequential, concurrent );
+        // Set from the modules' dependencies, the parent's plugin configuration and its plugin dependencies.
+        for ( String property : new String[] { "bar.version", "qux.version", "zed.version" } )
+        {
+            assertTrue( sequential.get( 0 ),
+                        sequential.get( 0 ).contains( '<' + property + ">2.0.redhat-1</" + property + '>' ) );
+        }
+        assertTrue( sequential.get( 0 ), sequential.get( 0 ).contains(
+                        "<artifactId>plugin-dep</artifactId>\n            <version>2.0.redhat-1</version>" ) );
+    }
+
+    /**
+     * Aligns a parent and its modules, which take their versions from the parent's properties, and returns the
+     * resulting POMs.
+     */
+    private static List<String> align( int threads ) throws Exception
+    {
+        final Properties p = new Properties();
+        p.setProperty( "dependencyOverride.org.foo:bar@*", "2.0" );
+        p.setProperty( "dependencyOverride.org.foo:qux@org.acme:module-3", "3.0" );
+        p.setProperty( DependencyState.DEPENDENCY_ALIGNMENT_THREADS, Integer.toString( threads ) );
+        final ManipulationSession session = TestUtils.createSession( p );
+
+        final Model parentModel = new Model();
+        parentModel.setModelVersion( "4.0.0" );
+        parentModel.setGroupId( "org.acme" );
+        parentModel.setArtifactId( "parent" );
+        parentModel.setVersion( "1.0" );
+        parentModel.setPackaging( "pom" );
+        parentModel.addProperty( "bar.version", "1.0" );
+        parentModel.addProperty( "qux.version", "1.0" );
+        final Project parent = new Project( parentModel );
+        parent.setInheritanceRoot( true );
+
+        final List<Project> projects = new ArrayList<>();
+        projects.add( parent );
+        for ( int i = 1; i < 8; i++ )
+        {
+            final Model model = new Model();
+            model.setModelVersion( "4.0.0" );
+            final Parent parentRef = new Parent();
+            parentRef.setGroupId( "org.acme" );
+            parentRef.setArtifactId( "parent" );
+            parentRef.setVersion( "1.0" );
+            model.setParent( parentRef );
+            model.setArtifactId( "module-" + i );
+            for ( String artifactId : new String[] { "bar", "qux" } )
+            {
+                final Dependency d = new Dependency();
+                d.setGroupId( "org.foo" );
+                d.setArtifactId( artifactId );
+                d.setVersion( "${" + artifactId + ".version}" );
+                model.addDependency( d );
+            }
+            final Project project = new Project( model );
+            project.setProjectParent( parent );
+            projects.add( project );
+        }
+        session.setProjects( projects );
+
+        final DependencyManipulator manipulator = new DependencyManipulator( null, null );
+        manipulator.init( session );
+        manipulator.applyChanges( projects );
+
+        final List<String> result = new ArrayList<>();
+        for ( Project project : projects )
+        {
+            final StringWriter writer = new StringWriter();
+            new MavenXpp3Writer().write( writer, project.getModel() );
+            result.add( writer.toString() );
+        }
+        return result;
+    }
+
+    /**
+     * Aligns a parent and its modules to a BOM read through Galley, including the versions used in plugin
+     * configurations and plugin dependencies, and returns the resulting POMs.
+     */
+    private List<String> alignWithRemoteBOM( int threads ) throws Exception
+    {
+        final Map<String, byte[]> repository = new ConcurrentHashMap<>();
+        final StringBuilder bom = new StringBuilder( "<project><modelVersion>4.0.0</modelVersion><groupId>org.acme"
+                                                                     + "</groupId><artifactId>bom</artifactId><version>1.0</version>"
+                                                                     + "<packaging>pom</packaging><dependencyManagement><dependencies>" );
+        for ( String artifactId : new String[] { "bar", "qux", "zed", "plugin-dep" } )
+        {
+            bom.append( "<dependency><groupId>org.foo</groupId><artifactId>" ).append( artifactId )
+               .append( "</artifactId><version>2.0.redhat-1</version></dependency>" );
+        }
+        bom.append( "</dependencies></dependencyManagement></project>" );
+        repository.put( "org/acme/bom/1.0/bom-1.0.pom", bom.toString().getBytes( StandardCharsets.UTF_8 ) );
+
+        final GalleyAPIWrapper galleyWrapper = new GalleyAPIWrapper(
+                        new GalleyInfrastructure( new ManipulationSession(), null ).init(
+                                        MavenLocationExpander.EXPANSION_TARGET, new StubTransport( repository ),
+                                        temp.newFolder() ) );
+
+        final Properties p = new Properties();
+        p.setProperty( DependencyState.DEPENDENCY_MANAGEMENT_POM_PROPERTY, "org.acme:bom:1.0" );
+        p.setProperty( DependencyState.DEPENDENCY_ALIGNMENT_THREADS, Integer.toString( threads ) );
+        p.setProperty( CommonState.STRICT_ALIGNMENT, "false" );
+        final ManipulationSession session = TestUtils.createSession( p );
+
+        final Model parentModel = new Model();
+        parentModel.setModelVersion( "4.0.0" );
+        parentModel.setGroupId( "org.acme" );
+        parentModel.setArtifactId( "parent" );
+        parentModel.setVersion( "1.0" );
+        parentModel.setPackaging( "pom" );
+        parentModel.addProperty( "bar.version", "2.0" );
+        parentModel.addProperty( "qux.version", "2.0" );
+        parentModel.addProperty( "zed.version", "2.0" );
+        parentModel.setBuild( new Build() );
+        parentModel.getBuild().setPluginManagement( new PluginManagement() );
+        final Plugin copy = plugin( "org.apache.maven.plugins", "maven-dependency-plugin", "3.1.1" );
+        copy.setConfiguration( Xpp3DomBuilder.build( new StringReader(
+                        "<configuration><artifactItems><artifactItem><groupId>org.foo</groupId><artifactId>zed"
+                                        + "</artifactId><version>${zed.version}</version></artifactItem>"
+                                        + "</artifactItems></configuration>" ) ) );
+        parentModel.getBuild().getPluginManagement().addPlugin( copy );
+        final Plugin other = plugin( "org.acme", "other-plugin", "1.0" );
+        other.addDependency( dependency( "plugin-dep", "2.0" ) );
+        parentModel.getBuild().addPlugin( other );
+        final Project parent = new Project( parentModel );
+        parent.setInheritanceRoot( true );
+
+        final List<Project> projects = new ArrayList<>();
+        projects.add( parent );
+        for ( int i = 1; i < 8; i++ )
+        {
+            final Model model = new Model();
+            model.setModelVersion( "4.0.0" );
+            final Parent parentRef = new Parent();
+            parentRef.setGroupId( "org.acme" );
+            parentRef.setArtifactId( "parent" );
+            parentRef.setVersion( "1.0" );
+            model.setParent( parentRef );
+            model.setArtifactId( "module-" + i );
+            model.addDependency( dependency( "bar", "${bar.version}" ) );
+            model.addDependency( dependency( "qux", "${qux.version}" ) );
+            model.setBuild( new Build() );
+            model.getBuild().addPlugin( plugin( "org.apache.maven.plugins", "maven-dependency-plugin", null ) );
+            final Project project = new Project( model );
+            project.setProjectParent( parent );
+            projects.add( project );
+        }
+        session.setProjects( projects );
+
+        final DependencyManipulator manipulator = new DependencyManipulator( new ModelIO( galleyWrapper ),
+                                                                             galleyWrapper );
+        manipulator.init( session );
+        manipulator.applyChanges( projects );
+
+        final List<String> result = new ArrayList<>();
+        for ( Project project : projects )
+        {
+            final StringWriter writer = new StringWriter();
+            new MavenXpp3Writer().write( writer, project.getModel() );
+            result.add( writer.toString() );
+        }
+        return result;
+    }
+
+    private static Plugin plugin( String groupId, String artifactId, String version )
+    {
+        final Plugin plugin = new Plugin();
+        plugin.setGroupId( groupId );
+        plugin.setArtifactId( artifactId );
+        plugin.setVersion( version );
+        return plugin;
+    }
+
+    private static Dependency dependency( String artifactId, String version )
+    {
+        final Dependency dependency = new Dependency();
+        dependency.setGroupId( "org.foo" );
+        dependency.setArtifactId( artifactId );
+        dependency.setVersion( version );
+        return dependency;
+    }
+
+    private static ArtifactRef artifact( String groupId, String artifactId, String version, String classifier )
+    {
+        return new SimpleArtifactRef( groupId, artifactId, version, "jar", classifier );
+    }
+}
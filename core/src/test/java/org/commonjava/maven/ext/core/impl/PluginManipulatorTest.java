@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.core.impl;
+
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginManagement;
+import org.commonjava.maven.atlas.ident.ref.ArtifactRef;
+import org.commonjava.maven.atlas.ident.ref.SimpleArtifactRef;
+import org.commonjava.maven.ext.common.model.Project;
+import org.commonjava.maven.ext.core.ManipulationSession;
+import org.commonjava.maven.ext.core.fixture.TestUtils;
+import org.commonjava.maven.ext.core.state.CommonState;
+import org.commonjava.maven.ext.core.state.PluginState;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+
+public class PluginManipulatorTest
+{
+    @Test
+    public void testApplyRemoteOverrides() throws Exception
+    {
+        final Properties p = new Properties();
+        p.setProperty( "pluginSource", "REST" );
+        p.setProperty( CommonState.STRICT_ALIGNMENT, "false" );
+        p.setProperty( "pluginOverride.org.foo:qux-plugin@org.acme:module", "" );
+        final ManipulationSession session = TestUtils.createSession( p );
+
+        final Model parentModel = model( "parent" );
+        parentModel.getBuild().setPluginManagement( new PluginManagement() );
+        parentModel.getBuild().getPluginManagement().addPlugin( plugin( "bar-plugin", "1.0" ) );
+        parentModel.getBuild().addPlugin( plugin( "qux-plugin", "1.0" ) );
+        final Project parent = new Project( parentModel );
+        parent.setInheritanceRoot( true );
+
+        final Model moduleModel = model( "module" );
+        moduleModel.getBuild().addPlugin( plugin( "baz-plugin", "1.0" ) );
+        moduleModel.getBuild().addPlugin( plugin( "qux-plugin", "1.0" ) );
+        moduleModel.getBuild().addPlugin( plugin( "other-plugin", "1.0" ) );
+        final Project module = new Project( moduleModel );
+
+        final List<Project> projects = Arrays.asList( parent, module );
+        session.setProjects( projects );
+
+        final PluginManipulator manipulator = new PluginManipulator( null );
+        manipulator.init( session );
+        final Map<ArtifactRef, String> overrides = new LinkedHashMap<>();
+        for ( String artifactId : new String[] { "bar-plugin", "baz-plugin", "qux-plugin", "unused-plugin" } )
+        {
+            overrides.put( new SimpleArtifactRef( "org.foo", artifactId, "1.0.redhat-1", "maven-plugin", null ),
+                           "1.0.redhat-1" );
+        }
+        session.getState( PluginState.class ).setRemoteRESTOverrides( overrides );
+        manipulator.applyChanges( projects );
+
+        assertEquals( "1.0.redhat-1", parentModel.getBuild().getPluginManagement().getPlugins().get( 0 ).getVersion() );
+        assertEquals( 1, parentModel.getBuild().getPluginManagement().getPlugins().size() );
+        assertEquals( "1.0.redhat-1", parentModel.getBuild().getPlugins().get( 0 ).getVersion() );
+        assertEquals( "1.0.redhat-1", moduleModel.getBuild().getPlugins().get( 0 ).getVersion() );
+        assertEquals( "1.0", moduleModel.getBuild().getPlugins().get( 1 ).getVersion() );
+        assertEquals( "1.0", moduleModel.getBuild().getPlugins().get( 2 ).getVersion() );
+    }
+
+    private static Model model( String artifactId )
+    {
+        final Model model = new Model();
+        model.setModelVersion( "4.0.0" );
+        model.setGroupId( "org.acme" );
+        model.setArtifactId( artifactId );
+        model.setVersion( "1.0" );
+        model.setBuild( new Build() );
+        return model;
+    }
+
+    private static Plugin plugin( String artifactId, String version )
+    {
+        final Plugin plugin = new Plugin();
+        plugin.setGroupId( "org.foo" );
+        plugin.setArtifactId( artifactId );
+        plugin.setVersion( version );
+        return plugin;
+    }
+}
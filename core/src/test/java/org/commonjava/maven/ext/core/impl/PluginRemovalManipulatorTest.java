@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.core.impl;
+
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.Profile;
+import org.commonjava.maven.ext.common.model.Project;
+import org.commonjava.maven.ext.common.util.ProfileUtils;
+import org.commonjava.maven.ext.core.ManipulationSession;
+import org.commonjava.maven.ext.core.fixture.TestUtils;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+
+public class PluginRemovalManipulatorTest
+{
+    @Test
+    public void testRemovePlugins() throws Exception
+    {
+        final Properties p = new Properties();
+        p.setProperty( "pluginRemoval", "org.foo:bar-plugin,org.apache.maven.plugins:maven-javadoc-plugin" );
+        p.setProperty( ProfileUtils.PROFILE_SCANNING, "false" );
+        final ManipulationSession session = TestUtils.createSession( p );
+
+        final Model model = new Model();
+        model.setGroupId( "org.acme" );
+        model.setArtifactId( "app" );
+        model.setVersion( "1.0" );
+        model.setBuild( new Build() );
+        model.getBuild().setPlugins( plugins( "org.foo:bar-plugin", "org.foo:baz-plugin", "maven-javadoc-plugin",
+                                              "org.sonatype.plugins:nexus-staging-maven-plugin" ) );
+        final Profile profile = new Profile();
+        profile.setId( "release" );
+        profile.setBuild( new Build() );
+        profile.getBuild().setPlugins( plugins( "org.foo:bar-plugin" ) );
+        model.addProfile( profile );
+        final List<Project> projects = Collections.singletonList( new Project( model ) );
+
+        final PluginRemovalManipulator pluginRemoval = new PluginRemovalManipulator();
+        pluginRemoval.init( session );
+        assertEquals( 1, pluginRemoval.applyChanges( projects ).size() );
+        assertEquals( Arrays.asList( "org.foo:baz-plugin", "org.sonatype.plugins:nexus-staging-maven-plugin" ),
+                      keys( model.getBuild().getPlugins() ) );
+        assertEquals( Collections.emptyList(), keys( profile.getBuild().getPlugins() ) );
+
+        final NexusStagingMavenPluginRemovalManipulator nexusRemoval = new NexusStagingMavenPluginRemovalManipulator();
+        nexusRemoval.init( session );
+        assertEquals( 1, nexusRemoval.applyChanges( projects ).size() );
+        assertEquals( Collections.singletonList( "org.foo:baz-plugin" ), keys( model.getBuild().getPlugins() ) );
+    }
+
+    private static List<Plugin> plugins( String... keys )
+    {
+        final List<Plugin> result = new ArrayList<>();
+        for ( String key : keys )
+        {
+            final Plugin plugin = new Plugin();
+            if ( key.contains( ":" ) )
+            {
+                plugin.setGroupId( key.substring( 0, key.indexOf( ':' ) ) );
+            }
+            plugin.setArtifactId( key.substring( key.indexOf( ':' ) + 1 ) );
+            result.add( plugin );
+        }
+        return result;
+    }
+
+    private static List<String> keys( List<Plugin> plugins )
+    {
+        final List<String> result = new ArrayList<>();
+        plugins.forEach( p -> result.add( p.getKey() ) );
+        return result;
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.core.impl;
+
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.commonjava.maven.atlas.ident.ref.ProjectRef;
+import org.commonjava.maven.ext.common.model.Project;
+import org.commonjava.maven.ext.core.ManipulationSession;
+import org.commonjava.maven.ext.core.fixture.StubTransport;
+import org.commonjava.maven.ext.core.state.VersioningState;
+import org.commonjava.maven.ext.io.resolver.GalleyAPIWrapper;
+import org.commonjava.maven.ext.io.resolver.GalleyInfrastructure;
+import org.commonjava.maven.ext.io.resolver.MavenLocationExpander;
+import org.commonjava.maven.galley.maven.GalleyMavenException;
+import org.commonjava.maven.galley.maven.model.view.meta.MavenMetadataView;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class RangeResolverTest
+{
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private final Map<String, byte[]> repository = new HashMap<>();
+
+    private final Map<ProjectRef, AtomicInteger> reads = new ConcurrentHashMap<>();
+
+    private final ManipulationSession session = new ManipulationSession();
+
+    private RangeResolver resolver;
+
+    @Before
+    public void before() throws Exception
+    {
+        deploy( "org.foo", "bar", "1.0", "1.5", "2.0" );
+        deploy( "org.foo", "bar-plugin", "3.0", "3.1" );
+
+        final GalleyAPIWrapper wrapper = new GalleyAPIWrapper(
+                        new GalleyInfrastructure( session, null ).init( MavenLocationExpander.EXPANSION_TARGET,
+                                                                        new StubTransport( repository ),
+                                                                        temp.newFolder( "galley-cache" ) ) )
+        {
+            @Override
+            public MavenMetadataView readMetadataView( ProjectRef ref ) throws GalleyMavenException
+            {
+                reads.computeIfAbsent( ref, k -> new AtomicInteger() ).incrementAndGet();
+                return super.readMetadataView( ref );
+            }
+        };
+
+        final Properties props = new Properties();
+        props.setProperty( VersioningState.VERSION_SUFFIX_SYSPROP, "redhat-1" );
+        session.setState( new VersioningState( props ) );
+
+        resolver = new RangeResolver( wrapper );
+        resolver.init( session );
+    }
+
+    @Test
+    public void testRangesAreResolvedOncePerGA() throws Exception
+    {
+        final List<Project> projects = new ArrayList<>();
+        for ( int i = 0; i < 5; i++ )
+        {
+            final Model model = new Model();
+            model.setGroupId( "org.foo" );
+            model.setArtifactId( "module-" + i );
+            model.setVersion( "1.0" );
+            model.addProperty( "bar.range", "[1.0,2.0)" );
+            model.addDependency( dependency( "org.foo", "bar", "${bar.range}" ) );
+            model.addDependency( dependency( "org.foo", "other", "1.0" ) );
+
+            final Plugin plugin = new Plugin();
+            plugin.setGroupId( "org.foo" );
+            plugin.setArtifactId( "bar-plugin" );
+            plugin.setVersion( "[3.0,)" );
+            model.setBuild( new Build() );
+            model.getBuild().addPlugin( plugin );
+
+            projects.add( new Project( model ) );
+        }
+
+        resolver.applyChanges( projects );
+
+        for ( Project project : projects )
+        {
+            assertEquals( "1.5", project.getModel().getDependencies().get( 0 ).getVersion() );
+            assertEquals( "1.0", project.getModel().getDependencies().get( 1 ).getVersion() );
+            assertEquals( "3.1", project.getModel().getBuild().getPlugins().get( 0 ).getVersion() );
+        }
+        assertEquals( 2, reads.size() );
+        reads.values().forEach( count -> assertEquals( 1, count.get() ) );
+    }
+
+    private Dependency dependency( String groupId, String artifactId, String version )
+    {
+        final Dependency dependency = new Dependency();
+        dependency.setGroupId( groupId );
+        dependency.setArtifactId( artifactId );
+        dependency.setVersion( version );
+        return dependency;
+    }
+
+    private void deploy( String groupId, String artifactId, String... versions )
+    {
+        final StringBuilder metadata = new StringBuilder( "<metadata><groupId>" ).append( groupId )
+                                                                                  .append( "</groupId><artifactId>" )
+                                                                                  .append( artifactId )
+                                                                                  .append( "</artifactId><versioning><versions>" );
+        for ( String version : versions )
+        {
+            metadata.append( "<version>" ).append( version ).append( "</version>" );
+        }
+        metadata.append( "</versions></versioning></metadata>" );
+
+        repository.put( groupId.replace( '.', '/' ) + '/' + artifactId + "/maven-metadata.xml",
+                        metadata.toString().getBytes( StandardCharsets.UTF_8 ) );
+    }
+}
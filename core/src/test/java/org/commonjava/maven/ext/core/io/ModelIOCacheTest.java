@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.core.io;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.model.Plugin;
+import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
+import org.commonjava.maven.atlas.ident.ref.SimpleProjectVersionRef;
+import org.commonjava.maven.ext.common.ManipulationException;
+import org.commonjava.maven.ext.core.ManipulationSession;
+import org.commonjava.maven.ext.core.fixture.StubTransport;
+import org.commonjava.maven.ext.io.ModelIO;
+import org.commonjava.maven.ext.io.resolver.GalleyAPIWrapper;
+import org.commonjava.maven.ext.io.resolver.GalleyInfrastructure;
+import org.commonjava.maven.ext.io.resolver.MavenLocationExpander;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class ModelIOCacheTest
+{
+    private static final String BOM = "<dependencyManagement><dependencies><dependency><groupId>org.bar</groupId>"
+                    + "<artifactId>bar</artifactId><version>2.0</version></dependency></dependencies>"
+                    + "</dependencyManagement><build><pluginManagement><plugins><plugin><groupId>org.bar</groupId>"
+                    + "<artifactId>bar-plugin</artifactId><version>${plugin.version}</version></plugin></plugins>"
+                    + "</pluginManagement></build><properties><plugin.version>3.0</plugin.version></properties>";
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private final Map<String, byte[]> repository = new ConcurrentHashMap<String, byte[]>()
+    {
+        @Override
+        public byte[] get( Object key )
+        {
+            // Simulate a slow remote repository.
+            try
+            {
+                Thread.sleep( 200 );
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+            }
+            return super.get( key );
+        }
+    };
+
+    private File cacheDir;
+
+    private ModelIO modelIO;
+
+    @Before
+    public void before() throws Exception
+    {
+        cacheDir = temp.newFolder( "galley-cache" );
+        modelIO = new ModelIO( new GalleyAPIWrapper(
+                        new GalleyInfrastructure( new ManipulationSession(), null ).init(
+                                        MavenLocationExpander.EXPANSION_TARGET, new StubTransport( repository ),
+                                        cacheDir ) ) );
+    }
+
+    @Test
+    public void testBOMIsParsedOnce() throws Exception
+    {
+        final ProjectVersionRef bom = deploy( "org.foo", "bom", "1.0" );
+
+        final Set<Plugin> plugins = modelIO.getRemotePluginManagementVersionOverrides( bom, new Properties() );
+        assertEquals( "3.0", plugins.iterator().next().getVersion() );
+
+        // Remove the BOM from the remote repository and the local cache.
+        repository.clear();
+        FileUtils.cleanDirectory( cacheDir );
+
+        assertEquals( "2.0", modelIO.getRemoteDependencyVersionOverrides( bom ).values().iterator().next() );
+        assertEquals( "3.0", modelIO.getRemotePropertyMappingOverrides( bom ).getProperty( "plugin.version" ) );
+        assertEquals( 1, modelIO.getRemoteDependencyVersionOverrides( bom ).size() );
+
+        assertEquals( 1, modelIO.getPomViewCacheStatistics().getMisses() );
+        assertEquals( 2, modelIO.getPomViewCacheStatistics().getHits() );
+        assertEquals( 1, modelIO.getModelCacheStatistics().getMisses() );
+        assertEquals( 1, modelIO.getModelCacheStatistics().getHits() );
+    }
+
+    @Test
+    public void testConcurrentReadsAreMerged() throws Exception
+    {
+        final ProjectVersionRef bom = deploy( "org.foo", "bom", "1.0" );
+        final ExecutorService executor = Executors.newFixedThreadPool( 8 );
+        try
+        {
+            final List<Future<?>> futures = new ArrayList<>();
+            for ( int i = 0; i < 8; i++ )
+            {
+                futures.add( executor.submit( () -> modelIO.resolveRawModel( bom ) ) );
+            }
+            for ( Future<?> future : futures )
+            {
+                future.get();
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+        assertEquals( 1, modelIO.getModelCacheStatistics().getMisses() );
+        assertEquals( 7, modelIO.getModelCacheStatistics().getHits() );
+    }
+
+    @Test
+    public void testFailuresAreNotCached()
+    {
+        final ProjectVersionRef ref = SimpleProjectVersionRef.parse( "org.foo:missing:1.0" );
+        for ( int i = 0; i < 2; i++ )
+        {
+            try
+            {
+                modelIO.resolveRawModel( ref );
+                fail( "Expected resolution to fail" );
+            }
+            catch ( ManipulationException e )
+            {
+                // Expected
+            }
+        }
+        assertEquals( 2, modelIO.getModelCacheStatistics().getMisses() );
+        assertEquals( 0, modelIO.getModelCacheStatistics().getSize() );
+    }
+
+    @Test
+    public void testClearCache() throws Exception
+    {
+        final ProjectVersionRef bom = deploy( "org.foo", "bom", "1.0" );
+
+        modelIO.resolveRawModel( bom );
+        modelIO.clearCache();
+        modelIO.resolveRawModel( bom );
+
+        assertEquals( 2, modelIO.getModelCacheStatistics().getMisses() );
+        assertEquals( 1, modelIO.getModelCacheStatistics().getSize() );
+    }
+
+    private ProjectVersionRef deploy( String groupId, String artifactId, String version )
+    {
+        final String pom = "<project><modelVersion>4.0.0</modelVersion><groupId>" + groupId + "</groupId><artifactId>"
+                        + artifactId + "</artifactId><version>" + version + "</version><packaging>pom</packaging>"
+                        + BOM + "</project>";
+        repository.put( String.format( "%s/%s/%s/%s-%s.pom", groupId.replace( '.', '/' ), artifactId, version,
+                                       artifactId, version ), pom.getBytes( StandardCharsets.UTF_8 ) );
+        return new SimpleProjectVersionRef( groupId, artifactId, version );
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.core.io;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.model.Model;
+import org.commonjava.maven.atlas.ident.ref.ArtifactRef;
+import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
+import org.commonjava.maven.atlas.ident.ref.SimpleProjectVersionRef;
+import org.commonjava.maven.ext.common.ManipulationException;
+import org.commonjava.maven.ext.core.ManipulationSession;
+import org.commonjava.maven.ext.core.fixture.StubTransport;
+import org.commonjava.maven.ext.io.ModelIO;
+import org.commonjava.maven.ext.io.resolver.GalleyAPIWrapper;
+import org.commonjava.maven.ext.io.resolver.GalleyInfrastructure;
+import org.commonjava.maven.ext.io.resolver.MavenLocationExpander;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ModelIOPrefetchTest
+{
+    private static final long DOWNLOAD_DELAY = 200;
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private final Map<String, byte[]> repository = new ConcurrentHashMap<String, byte[]>()
+    {
+        @Override
+        public byte[] get( Object key )
+        {
+            // Simulate a slow remote repository, recording how many requests it serves at once.
+            maxInFlight.accumulateAndGet( inFlight.incrementAndGet(), Math::max );
+            try
+            {
+                Thread.sleep( DOWNLOAD_DELAY );
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+            }
+            finally
+            {
+                inFlight.decrementAndGet();
+            }
+            return super.get( key );
+        }
+    };
+
+    private File cacheDir;
+
+    private ModelIO modelIO;
+
+    @Before
+    public void before() throws Exception
+    {
+        cacheDir = temp.newFolder( "galley-cache" );
+        modelIO = new ModelIO( new GalleyAPIWrapper(
+                        new GalleyInfrastructure( new ManipulationSession(), null ).init(
+                                        MavenLocationExpander.EXPANSION_TARGET, new StubTransport( repository ),
+                                        cacheDir ) ) );
+    }
+
+    @Test
+    public void testPrefetchedPOMsAreServedFromMemory() throws Exception
+    {
+        final List<ProjectVersionRef> poms = new ArrayList<>();
+        for ( int i = 0; i < 8; i++ )
+        {
+            poms.add( deploy( "org.foo", "properties-" + i, "1.0", "<properties><value>" + i + "</value></properties>" ) );
+        }
+        final ProjectVersionRef bom = deploy( "org.foo", "bom", "1.0",
+                                              "<dependencyManagement><dependencies><dependency>"
+                                                              + "<groupId>org.bar</groupId><artifactId>bar</artifactId>"
+                                                              + "<version>2.0</version></dependency></dependencies>"
+                                                              + "</dependencyManagement>" );
+
+        modelIO.prefetch( poms, Collections.singletonList( bom ), 4 );
+
+        // The downloads overlap, but no more than the requested number run at once.
+        assertTrue( "Max in flight " + maxInFlight, maxInFlight.get() > 1 );
+        assertTrue( "Max in flight " + maxInFlight, maxInFlight.get() <= 4 );
+
+        // Remove the POMs from the remote repository and the local cache.
+        repository.clear();
+        FileUtils.cleanDirectory( cacheDir );
+
+        assertEquals( "3", modelIO.resolveRawModel( poms.get( 3 ) ).getProperties().getProperty( "value" ) );
+        assertEquals( "3", modelIO.getRemotePropertyMappingOverrides( poms.get( 3 ) ).getProperty( "value" ) );
+
+        Map<ArtifactRef, String> overrides = modelIO.getRemoteDependencyVersionOverrides( bom );
+        assertEquals( 1, overrides.size() );
+        assertEquals( "2.0", overrides.values().iterator().next() );
+    }
+
+    @Test
+    public void testPrefetchedModelsAreCopied() throws Exception
+    {
+        final ProjectVersionRef pom = deploy( "org.foo", "properties", "1.0",
+                                              "<properties><value>original</value></properties>" );
+
+        modelIO.prefetch( Collections.singletonList( pom ), Collections.emptyList(), 2 );
+
+        Model model = modelIO.resolveRawModel( pom );
+        model.getProperties().setProperty( "value", "modified" );
+
+        assertEquals( "original", modelIO.resolveRawModel( pom ).getProperties().getProperty( "value" ) );
+    }
+
+    @Test( expected = ManipulationException.class )
+    public void testMissingPOMFailsOnRequest() throws Exception
+    {
+        final ProjectVersionRef missing = SimpleProjectVersionRef.parse( "org.foo:missing:1.0" );
+
+        modelIO.prefetch( Collections.singletonList( missing ), Collections.singletonList( missing ), 2 );
+
+        modelIO.resolveRawModel( missing );
+    }
+
+    private ProjectVersionRef deploy( String groupId, String artifactId, String version, String content )
+    {
+        final String pom = "<project><modelVersion>4.0.0</modelVersion><groupId>" + groupId + "</groupId><artifactId>"
+                        + artifactId + "</artifactId><version>" + version + "</version><packaging>pom</packaging>"
+                        + content + "</project>";
+        repository.put( String.format( "%s/%s/%s/%s-%s.pom", groupId.replace( '.', '/' ), artifactId, version,
+                                       artifactId, version ), pom.getBytes( StandardCharsets.UTF_8 ) );
+        return new SimpleProjectVersionRef( groupId, artifactId, version );
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.core.util;
+
+import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
+import org.commonjava.maven.atlas.ident.ref.SimpleProjectRef;
+import org.commonjava.maven.atlas.ident.ref.SimpleProjectVersionRef;
+import org.commonjava.maven.ext.common.ManipulationException;
+import org.commonjava.maven.ext.common.util.WildcardMap;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class RelocationClosureTest
+{
+    private final WildcardMap<ProjectVersionRef> relocations = new WildcardMap<>();
+
+    @Test
+    public void testChainedRelocations() throws Exception
+    {
+        relocate( "org.junit:*", "com.junit:*:*" );
+        relocate( "com.junit:another-library", "com.junit:special-junit:4.1" );
+        relocate( "org.wildfly:plugin", "com.redhat:plugin:*" );
+        relocate( "com.redhat:plugin", "com.redhat:eap-plugin:1.1" );
+        relocate( "org.foo:bar", "org.foo:bar:2.0" );
+
+        final RelocationClosure closure = new RelocationClosure( relocations );
+
+        assertEquals( "com.junit:*:*", closure.get( "org.junit", "junit" ).toString() );
+        assertEquals( "com.junit:special-junit:4.1", closure.get( "org.junit", "another-library" ).toString() );
+        assertEquals( "com.redhat:eap-plugin:1.1", closure.get( "org.wildfly", "plugin" ).toString() );
+        // Relocating to itself only changes the version.
+        assertEquals( "org.foo:bar:2.0", closure.get( "org.foo", "bar" ).toString() );
+        assertNull( closure.get( "org.other", "junit" ) );
+    }
+
+    @Test( expected = ManipulationException.class )
+    public void testCycle() throws Exception
+    {
+        relocate( "org.bar:baz", "org.foo:qux:1.0" );
+        relocate( "org.foo:*", "org.baz:*:*" );
+        relocate( "org.baz:qux", "org.bar:baz:*" );
+
+        new RelocationClosure( relocations ).get( "org.bar", "baz" );
+    }
+
+    private void relocate( String from, String to )
+    {
+        relocations.put( SimpleProjectRef.parse( from ), SimpleProjectVersionRef.parse( to ) );
+    }
+}
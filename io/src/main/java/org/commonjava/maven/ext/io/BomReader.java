@@ -0,0 +1,500 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io;
+
+import org.commonjava.maven.atlas.ident.ref.ArtifactRef;
+import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
+import org.commonjava.maven.atlas.ident.ref.SimpleArtifactRef;
+import org.commonjava.maven.atlas.ident.ref.SimpleProjectVersionRef;
+import org.commonjava.maven.ext.common.ManipulationException;
+import org.commonjava.maven.ext.common.ManipulationUncheckedException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the managed dependencies of a BOM, including those of its parents and imported BOMs, without building a DOM.
+ * Only the parent, coordinates, properties and dependencyManagement sections of each POM are read ; parents and
+ * imports are read concurrently.
+ * <p>
+ * The result matches {@link org.commonjava.maven.galley.maven.model.view.MavenPomView#getAllManagedDependencies()}:
+ * the first declaration of a groupId:artifactId:type:classifier wins, searching the BOM and its parents before the
+ * imported BOMs. Expressions that cannot be resolved from the POM properties or coordinates, and import cycles, are
+ * reported as a {@link ManipulationException} so that the caller may fall back to Galley.
+ */
+class BomReader
+{
+    private static final XMLInputFactory XML_INPUT_FACTORY = XMLInputFactory.newInstance();
+
+    static
+    {
+        XML_INPUT_FACTORY.setProperty( XMLInputFactory.SUPPORT_DTD, false );
+        XML_INPUT_FACTORY.setProperty( XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false );
+    }
+
+    private static final Pattern EXPRESSION = Pattern.compile( "\\$\\{([^}]+)}" );
+
+    private static final int MAX_DEPTH = 32;
+
+    @FunctionalInterface
+    interface Loader
+    {
+        Pom load( ProjectVersionRef ref ) throws ManipulationException;
+    }
+
+    private final Loader loader;
+
+    private final ExecutorService executor;
+
+    /**
+     * @param loader reads (and may cache) the POM for a GAV, e.g. through {@link #parse(InputStream)}.
+     * @param executor runs the POM reads. It may be shared between readers, as its tasks never wait on each other.
+     */
+    BomReader( final Loader loader, final ExecutorService executor )
+    {
+        this.loader = loader;
+        this.executor = executor;
+    }
+
+    /**
+     * @param ref the BOM to read.
+     * @return the managed dependencies of the BOM, in declaration order, mapped to their version.
+     * @throws ManipulationException if a POM cannot be read, or the BOM cannot be resolved without Galley.
+     */
+    Map<ArtifactRef, String> read( final ProjectVersionRef ref ) throws ManipulationException
+    {
+        try
+        {
+            final Map<String, ArtifactRef> managed = resolve( ref, Collections.emptyList(), executor ).join();
+            final Map<ArtifactRef, String> result = new LinkedHashMap<>( managed.size() * 2 );
+            managed.values().forEach( a -> result.put( a, a.getVersionString() ) );
+            return result;
+        }
+        catch ( CompletionException e )
+        {
+            if ( e.getCause() instanceof ManipulationUncheckedException
+                            && e.getCause().getCause() instanceof ManipulationException )
+            {
+                throw (ManipulationException) e.getCause().getCause();
+            }
+            throw new ManipulationException( "Unable to read BOM {}", ref, e.getCause() );
+        }
+    }
+
+    /**
+     * Collects the managed dependencies of the BOM and its parents, then those of its imports once they are read.
+     */
+    private CompletableFuture<Map<String, ArtifactRef>> resolve( final ProjectVersionRef ref,
+                                                                 final List<ProjectVersionRef> importers,
+                                                                 final ExecutorService executor )
+    {
+        if ( importers.contains( ref ) || importers.size() > MAX_DEPTH )
+        {
+            return failed( new ManipulationException( "Cyclic import of {} by {}", ref, importers ) );
+        }
+        final List<ProjectVersionRef> chain = new ArrayList<>( importers );
+        chain.add( ref );
+
+        return stack( ref, 0, executor ).thenCompose( stack -> {
+            final Interpolator interpolator = new Interpolator( ref, stack );
+            final Map<String, ArtifactRef> managed = new LinkedHashMap<>();
+            final List<CompletableFuture<Map<String, ArtifactRef>>> imports = new ArrayList<>();
+
+            try
+            {
+                for ( Pom pom : stack )
+                {
+                    for ( Dependency dependency : pom.managed )
+                    {
+                        if ( "import".equals( dependency.scope ) )
+                        {
+                            // As Galley, imports of anything but a POM are ignored.
+                            if ( "pom".equals( dependency.type ) )
+                            {
+                                imports.add( resolve( new SimpleProjectVersionRef(
+                                                interpolator.resolve( dependency.groupId ),
+                                                interpolator.resolve( dependency.artifactId ),
+                                                interpolator.resolve( dependency.version ) ), chain, executor ) );
+                            }
+                            continue;
+                        }
+                        final String type = dependency.type == null ? "jar" : interpolator.resolve( dependency.type );
+                        final String classifier = dependency.classifier == null ?
+                                        null :
+                                        interpolator.resolve( dependency.classifier );
+                        final ArtifactRef artifact = new SimpleArtifactRef( interpolator.resolve( dependency.groupId ),
+                                                                            interpolator.resolve( dependency.artifactId ),
+                                                                            interpolator.resolve( dependency.version ),
+                                                                            type, classifier );
+                        managed.putIfAbsent( key( artifact ), artifact );
+                    }
+                }
+            }
+            catch ( ManipulationException e )
+            {
+                imports.forEach( f -> f.cancel( false ) );
+                return failed( e );
+            }
+
+            return CompletableFuture.allOf( imports.toArray( new CompletableFuture[0] ) ).thenApply( v -> {
+                imports.forEach( f -> f.join().forEach( managed::putIfAbsent ) );
+                return managed;
+            } );
+        } );
+    }
+
+    /**
+     * @return the POM followed by its parents.
+     */
+    private CompletableFuture<List<Pom>> stack( final ProjectVersionRef ref, final int depth,
+                                                final ExecutorService executor )
+    {
+        if ( depth > MAX_DEPTH )
+        {
+            return failed( new ManipulationException( "Parent hierarchy of {} is too deep", ref ) );
+        }
+        return CompletableFuture.supplyAsync( () -> {
+            try
+            {
+                return loader.load( ref );
+            }
+            catch ( ManipulationException e )
+            {
+                throw new ManipulationUncheckedException( e );
+            }
+        }, executor ).thenCompose( pom -> {
+            if ( pom.parent == null )
+            {
+                return CompletableFuture.completedFuture( Collections.singletonList( pom ) );
+            }
+            return stack( pom.parent, depth + 1, executor ).thenApply( parents -> {
+                final List<Pom> result = new ArrayList<>( parents.size() + 1 );
+                result.add( pom );
+                result.addAll( parents );
+                return result;
+            } );
+        } );
+    }
+
+    private static String key( final ArtifactRef artifact )
+    {
+        return artifact.getGroupId() + ':' + artifact.getArtifactId() + ':' + artifact.getType() + ':'
+                        + artifact.getClassifier();
+    }
+
+    private static <T> CompletableFuture<T> failed( final ManipulationException e )
+    {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        result.completeExceptionally( new ManipulationUncheckedException( e ) );
+        return result;
+    }
+
+    /**
+     * Reads the parts of a POM used to resolve its managed dependencies. Managed dependencies declared in profiles are
+     * included, as Galley does, since profile activation is not evaluated for remote BOMs.
+     *
+     * @param in the POM content.
+     * @return the parsed POM.
+     * @throws XMLStreamException if the POM is not well formed.
+     */
+    static Pom parse( final InputStream in ) throws XMLStreamException
+    {
+        final Pom pom = new Pom();
+        final XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader( in );
+        try
+        {
+            reader.nextTag();
+            while ( reader.nextTag() == XMLStreamReader.START_ELEMENT )
+            {
+                switch ( reader.getLocalName() )
+                {
+                    case "groupId":
+                        pom.groupId = reader.getElementText().trim();
+                        break;
+                    case "artifactId":
+                        pom.artifactId = reader.getElementText().trim();
+                        break;
+                    case "version":
+                        pom.version = reader.getElementText().trim();
+                        break;
+                    case "parent":
+                        pom.parent = parseParent( reader );
+                        break;
+                    case "properties":
+                        while ( reader.nextTag() == XMLStreamReader.START_ELEMENT )
+                        {
+                            pom.properties.put( reader.getLocalName(), reader.getElementText().trim() );
+                        }
+                        break;
+                    case "dependencyManagement":
+                        parseDependencyManagement( reader, pom.managed );
+                        break;
+                    case "profiles":
+                        while ( reader.nextTag() == XMLStreamReader.START_ELEMENT )
+                        {
+                            while ( reader.nextTag() == XMLStreamReader.START_ELEMENT )
+                            {
+                                if ( "dependencyManagement".equals( reader.getLocalName() ) )
+                                {
+                                    parseDependencyManagement( reader, pom.managed );
+                                }
+                                else
+                                {
+                                    skip( reader );
+                                }
+                            }
+                        }
+                        break;
+                    default:
+                        skip( reader );
+                }
+            }
+        }
+        finally
+        {
+            reader.close();
+        }
+        return pom;
+    }
+
+    private static ProjectVersionRef parseParent( final XMLStreamReader reader ) throws XMLStreamException
+    {
+        String groupId = null;
+        String artifactId = null;
+        String version = null;
+
+        while ( reader.nextTag() == XMLStreamReader.START_ELEMENT )
+        {
+            switch ( reader.getLocalName() )
+            {
+                case "groupId":
+                    groupId = reader.getElementText().trim();
+                    break;
+                case "artifactId":
+                    artifactId = reader.getElementText().trim();
+                    break;
+                case "version":
+                    version = reader.getElementText().trim();
+                    break;
+                default:
+                    skip( reader );
+            }
+        }
+        if ( groupId == null || artifactId == null || version == null )
+        {
+            throw new XMLStreamException( "Incomplete parent declaration", reader.getLocation() );
+        }
+        return new SimpleProjectVersionRef( groupId, artifactId, version );
+    }
+
+    private static void parseDependencyManagement( final XMLStreamReader reader, final List<Dependency> managed )
+                    throws XMLStreamException
+    {
+        while ( reader.nextTag() == XMLStreamReader.START_ELEMENT )
+        {
+            if ( !"dependencies".equals( reader.getLocalName() ) )
+            {
+                skip( reader );
+                continue;
+            }
+            while ( reader.nextTag() == XMLStreamReader.START_ELEMENT )
+            {
+                if ( !"dependency".equals( reader.getLocalName() ) )
+                {
+                    skip( reader );
+                    continue;
+                }
+                final Dependency dependency = new Dependency();
+                while ( reader.nextTag() == XMLStreamReader.START_ELEMENT )
+                {
+                    switch ( reader.getLocalName() )
+                    {
+                        case "groupId":
+                            dependency.groupId = reader.getElementText().trim();
+                            break;
+                        case "artifactId":
+                            dependency.artifactId = reader.getElementText().trim();
+                            break;
+                        case "version":
+                            dependency.version = reader.getElementText().trim();
+                            break;
+                        case "type":
+                            dependency.type = reader.getElementText().trim();
+                            break;
+                        case "classifier":
+                            dependency.classifier = reader.getElementText().trim();
+                            break;
+                        case "scope":
+                            dependency.scope = reader.getElementText().trim();
+                            break;
+                        default:
+                            skip( reader );
+                    }
+                }
+                managed.add( dependency );
+            }
+        }
+    }
+
+    /**
+     * Skips the current element and its children, leaving the reader on its end tag.
+     */
+    private static void skip( final XMLStreamReader reader ) throws XMLStreamException
+    {
+        int depth = 1;
+        while ( depth > 0 )
+        {
+            final int event = reader.next();
+            if ( event == XMLStreamReader.START_ELEMENT )
+            {
+                depth++;
+            }
+            else if ( event == XMLStreamReader.END_ELEMENT )
+            {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * The parts of a POM needed to resolve its managed dependencies.
+     */
+    static final class Pom
+    {
+        private ProjectVersionRef parent;
+
+        private String groupId;
+
+        private String artifactId;
+
+        private String version;
+
+        private final Map<String, String> properties = new HashMap<>();
+
+        private final List<Dependency> managed = new ArrayList<>();
+    }
+
+    private static final class Dependency
+    {
+        private String groupId;
+
+        private String artifactId;
+
+        private String version;
+
+        private String type;
+
+        private String classifier;
+
+        private String scope;
+    }
+
+    /**
+     * Resolves expressions against the properties and coordinates of a POM and its parents, the POM's own taking
+     * precedence.
+     */
+    private static final class Interpolator
+    {
+        private final ProjectVersionRef ref;
+
+        private final List<Pom> stack;
+
+        private final Map<String, String> properties = new HashMap<>();
+
+        private Interpolator( final ProjectVersionRef ref, final List<Pom> stack )
+        {
+            this.ref = ref;
+            this.stack = stack;
+            stack.forEach( pom -> pom.properties.forEach( properties::putIfAbsent ) );
+        }
+
+        private String resolve( final String value ) throws ManipulationException
+        {
+            return resolve( value, 0 );
+        }
+
+        private String resolve( final String value, final int depth ) throws ManipulationException
+        {
+            if ( value == null )
+            {
+                throw new ManipulationException( "Incomplete managed dependency in {}", ref );
+            }
+            if ( value.indexOf( '$' ) < 0 )
+            {
+                return value;
+            }
+            if ( depth > MAX_DEPTH )
+            {
+                throw new ManipulationException( "Recursive expression {} in {}", value, ref );
+            }
+
+            final Matcher matcher = EXPRESSION.matcher( value );
+            final StringBuffer result = new StringBuffer();
+            while ( matcher.find() )
+            {
+                final String replacement = lookup( matcher.group( 1 ) );
+                if ( replacement == null )
+                {
+                    throw new ManipulationException( "Unable to resolve {} in {}", matcher.group(), ref );
+                }
+                matcher.appendReplacement( result, Matcher.quoteReplacement( resolve( replacement, depth + 1 ) ) );
+            }
+            matcher.appendTail( result );
+            return result.toString();
+        }
+
+        private String lookup( final String expression )
+        {
+            switch ( expression )
+            {
+                case "project.groupId":
+                    return first( p -> p.groupId );
+                case "project.artifactId":
+                    return stack.get( 0 ).artifactId;
+                case "project.version":
+                    return first( p -> p.version );
+                case "project.parent.groupId":
+                    return stack.get( 0 ).parent == null ? null : stack.get( 0 ).parent.getGroupId();
+                case "project.parent.artifactId":
+                    return stack.get( 0 ).parent == null ? null : stack.get( 0 ).parent.getArtifactId();
+                case "project.parent.version":
+                    return stack.get( 0 ).parent == null ? null : stack.get( 0 ).parent.getVersionString();
+                default:
+                    return properties.get( expression );
+            }
+        }
+
+        private String first( final Function<Pom, String> field )
+        {
+            return stack.stream().map( field ).filter( Objects::nonNull ).findFirst().orElse( null );
+        }
+    }
+}
@@ -15,11 +15,16 @@
  */
 package org.commonjava.maven.ext.io;
 
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang.SystemUtils;
 import org.commonjava.maven.ext.common.util.LineSeparator;
 import org.commonjava.maven.ext.common.ManipulationException;
 import org.commonjava.maven.ext.io.resolver.GalleyInfrastructure;
+import org.commonjava.maven.ext.io.resolver.MavenLocationExpander;
+import org.commonjava.maven.galley.model.Location;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -27,11 +32,22 @@ import javax.inject.Singleton;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
 import java.net.URL;
+import java.net.URLConnection;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Properties;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Class to resolve Files from alternate locations
@@ -40,8 +56,21 @@ import java.util.UUID;
 @Singleton
 public class FileIO
 {
+    private static final String URL_CACHE = "url-cache";
+
+    private static final String ETAG = "ETag";
+
+    private static final String LAST_MODIFIED = "Last-Modified";
+
+    private final Logger logger = LoggerFactory.getLogger( getClass() );
+
     private final GalleyInfrastructure infra;
 
+    /**
+     * URLs resolved (or being resolved) by this instance ; each is only fetched or revalidated once.
+     */
+    private final Map<String, CompletableFuture<File>> resolved = new ConcurrentHashMap<>();
+
     @Inject
     public FileIO(@Named( "galley" ) GalleyInfrastructure infra )
     {
@@ -51,6 +80,10 @@ public class FileIO
     /**
      * Read the raw file from a given URL. Useful if we need to read
      * a remote file.
+     * <p>
+     * HTTP(S) content is cached by URL, together with its ETag and Last-Modified validators, in the shared cache
+     * directory. It is revalidated with a conditional request the first time it is requested by this instance ; later
+     * (and concurrent) requests for the same URL return the same file, which must not be modified.
      *
      * @param reference the URL to read.
      * @return the file for the URL
@@ -70,13 +103,17 @@ public class FileIO
             ref = new URL( reference );
         }
         // If its a local file reference. just use the file itself rather than copying it.
-        if ( !"file".equals( ref.getProtocol() ) )
+        if ( "http".equals( ref.getProtocol() ) || "https".equals( ref.getProtocol() ) )
+        {
+            result = resolveCachedURL( ref );
+        }
+        else if ( !"file".equals( ref.getProtocol() ) )
         {
             File cache = infra.getCacheDir();
 
             result = new File( cache, UUID.randomUUID().toString() );
 
-            FileUtils.copyURLToFile( ref, result );
+            FileUtils.copyURLToFile( ref, result, getTimeout(), getTimeout() );
         }
         else
         {
@@ -86,6 +123,144 @@ public class FileIO
         return result;
     }
 
+    private File resolveCachedURL( final URL url ) throws IOException
+    {
+        final String key = url.toExternalForm();
+        final CompletableFuture<File> previous = resolved.get( key );
+
+        // The cache directory may have been cleaned since (e.g. a private one at the end of a previous session).
+        if ( previous != null && previous.isDone() && !previous.isCompletedExceptionally()
+                        && !previous.join().exists() )
+        {
+            resolved.remove( key, previous );
+        }
+
+        final CompletableFuture<File> future = new CompletableFuture<>();
+        final CompletableFuture<File> existing = resolved.putIfAbsent( key, future );
+
+        if ( existing != null )
+        {
+            try
+            {
+                return existing.get();
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                throw new IOException( "Interrupted waiting for " + key, e );
+            }
+            catch ( ExecutionException e )
+            {
+                if ( e.getCause() instanceof IOException )
+                {
+                    throw (IOException) e.getCause();
+                }
+                throw new IOException( "Unable to retrieve " + key, e.getCause() );
+            }
+        }
+
+        try
+        {
+            final File result = download( url );
+            future.complete( result );
+            return result;
+        }
+        catch ( IOException | RuntimeException e )
+        {
+            resolved.remove( key, future );
+            future.completeExceptionally( e );
+            throw e;
+        }
+    }
+
+    /**
+     * @return the connect and read timeout in milliseconds, as used for the repository downloads, so that a stalled
+     * server fails the build rather than hanging it.
+     */
+    private static int getTimeout()
+    {
+        return (int) TimeUnit.SECONDS.toMillis(
+                        MavenLocationExpander.EXPANSION_TARGET.getAttribute( Location.CONNECTION_TIMEOUT_SECONDS,
+                                                                             Integer.class,
+                                                                             Location.DEFAULT_CONNECTION_TIMEOUT_SECONDS ) );
+    }
+
+    private File download( final URL url ) throws IOException
+    {
+        final File dir = new File( infra.getSharedCacheDir(), URL_CACHE );
+        final String name = DigestUtils.sha256Hex( url.toExternalForm() );
+        final File content = new File( dir, name );
+        final File metadata = new File( dir, name + ".properties" );
+        final Properties validators = new Properties();
+
+        Files.createDirectories( dir.toPath() );
+        if ( content.exists() && metadata.exists() )
+        {
+            try ( InputStream in = Files.newInputStream( metadata.toPath() ) )
+            {
+                validators.load( in );
+            }
+        }
+
+        final URLConnection connection = url.openConnection();
+        connection.setConnectTimeout( getTimeout() );
+        connection.setReadTimeout( getTimeout() );
+        if ( validators.containsKey( ETAG ) )
+        {
+            connection.setRequestProperty( "If-None-Match", validators.getProperty( ETAG ) );
+        }
+        if ( validators.containsKey( LAST_MODIFIED ) )
+        {
+            connection.setRequestProperty( "If-Modified-Since", validators.getProperty( LAST_MODIFIED ) );
+        }
+
+        if ( ( (HttpURLConnection) connection ).getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED
+                        && content.exists() )
+        {
+            logger.debug( "Using cached copy of {}", url );
+            //noinspection ResultOfMethodCallIgnored
+            content.setLastModified( System.currentTimeMillis() );
+            return content;
+        }
+
+        // Other processes may be reading the existing copy, so replace it atomically.
+        final File tempContent = File.createTempFile( name, ".tmp", dir );
+        final File tempMetadata = File.createTempFile( name, ".tmp", dir );
+        try
+        {
+            try ( InputStream in = connection.getInputStream() )
+            {
+                Files.copy( in, tempContent.toPath(), StandardCopyOption.REPLACE_EXISTING );
+            }
+            validators.clear();
+            validators.setProperty( "url", url.toExternalForm() );
+            if ( connection.getHeaderField( ETAG ) != null )
+            {
+                validators.setProperty( ETAG, connection.getHeaderField( ETAG ) );
+            }
+            if ( connection.getHeaderField( LAST_MODIFIED ) != null )
+            {
+                validators.setProperty( LAST_MODIFIED, connection.getHeaderField( LAST_MODIFIED ) );
+            }
+            try ( OutputStream out = Files.newOutputStream( tempMetadata.toPath() ) )
+            {
+                validators.store( out, null );
+            }
+            Files.move( tempContent.toPath(), content.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE );
+            Files.move( tempMetadata.toPath(), metadata.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE );
+        }
+        finally
+        {
+            Files.deleteIfExists( tempContent.toPath() );
+            Files.deleteIfExists( tempMetadata.toPath() );
+        }
+        logger.debug( "Downloaded {} to {}", url, content );
+
+        return content;
+    }
+
     public static LineSeparator determineEOL( File file ) throws ManipulationException
     {
         try (BufferedReader bufferIn = new BufferedReader(
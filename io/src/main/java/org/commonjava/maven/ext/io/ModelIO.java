@@ -15,6 +15,7 @@
  */
 package org.commonjava.maven.ext.io;
 
+import lombok.Getter;
 import org.apache.maven.model.Dependency;
 import org.apache.maven.model.Model;
 import org.apache.maven.model.Plugin;
@@ -40,9 +41,13 @@ import org.slf4j.LoggerFactory;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
+import javax.xml.stream.XMLStreamException;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -51,6 +56,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import static org.apache.commons.lang.StringUtils.isEmpty;
@@ -64,16 +76,195 @@ import static org.apache.commons.lang.StringUtils.startsWith;
 @Singleton
 public class ModelIO
 {
+    /**
+     * The number of POMs read concurrently when resolving the parents and imports of a BOM.
+     */
+    private static final int BOM_THREADS = 4;
+
     private final Logger logger = LoggerFactory.getLogger( getClass() );
 
     private final GalleyAPIWrapper galleyWrapper;
 
+    /**
+     * Raw models read during this session ; copies are returned to callers as they may modify them.
+     */
+    private final ParsedCache<Model> models = new ParsedCache<>();
+
+    /**
+     * Pom views read during this session.
+     */
+    private final ParsedCache<MavenPomView> pomViews = new ParsedCache<>();
+
+    /**
+     * POMs read by the {@link BomReader} during this session.
+     */
+    private final ParsedCache<BomReader.Pom> boms = new ParsedCache<>();
+
+    /**
+     * Runs the POM reads of every {@link BomReader} ; created when first needed and released by {@link #shutdown()}.
+     */
+    private ExecutorService bomExecutor;
+
     @Inject
     public ModelIO(GalleyAPIWrapper galleyWrapper)
     {
         this.galleyWrapper = galleyWrapper;
     }
 
+    /**
+     * Concurrently downloads and parses remote POMs so that later calls for them are served from memory. Failures are
+     * not reported here ; the POM is resolved again (and the error reported) when it is requested.
+     *
+     * @param modelRefs the GAVs to read as raw models, e.g. for their properties or profiles.
+     * @param pomViewRefs the GAVs to read as pom views (including parents and imports), e.g. plugin BOMs.
+     * @param threads the number of concurrent downloads.
+     */
+    public void prefetch( final Collection<ProjectVersionRef> modelRefs,
+                          final Collection<ProjectVersionRef> pomViewRefs, final int threads )
+    {
+        prefetch( modelRefs, pomViewRefs, Collections.emptyList(), threads );
+    }
+
+    /**
+     * Concurrently downloads and parses remote POMs so that later calls for them are served from memory. Failures are
+     * not reported here ; the POM is resolved again (and the error reported) when it is requested.
+     *
+     * @param modelRefs the GAVs to read as raw models, e.g. for their properties or profiles.
+     * @param pomViewRefs the GAVs to read as pom views (including parents and imports), e.g. plugin BOMs.
+     * @param bomRefs the GAVs to read for their managed dependencies (including parents and imports).
+     * @param threads the number of concurrent downloads.
+     */
+    public void prefetch( final Collection<ProjectVersionRef> modelRefs,
+                          final Collection<ProjectVersionRef> pomViewRefs,
+                          final Collection<ProjectVersionRef> bomRefs, final int threads )
+    {
+        if ( modelRefs.isEmpty() && pomViewRefs.isEmpty() && bomRefs.isEmpty() )
+        {
+            return;
+        }
+        final int boms = pomViewRefs.size() + bomRefs.size();
+        logger.info( "Prefetching {} remote POMs and {} BOMs using {} threads", modelRefs.size(), boms, threads );
+
+        final long start = System.nanoTime();
+        final AtomicInteger failures = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool( threads, r -> {
+            Thread t = new Thread( r, "pme-prefetch" );
+            t.setDaemon( true );
+            return t;
+        } );
+        final List<Future<?>> futures = new ArrayList<>();
+
+        try
+        {
+            for ( ProjectVersionRef ref : modelRefs )
+            {
+                futures.add( executor.submit( () -> {
+                    try
+                    {
+                        models.get( ref, this::readRawModel );
+                    }
+                    catch ( ManipulationException e )
+                    {
+                        failures.incrementAndGet();
+                        logger.debug( "Unable to prefetch {}", ref, e );
+                    }
+                } ) );
+            }
+            for ( ProjectVersionRef ref : pomViewRefs )
+            {
+                futures.add( executor.submit( () -> {
+                    try
+                    {
+                        readPomView( ref );
+                    }
+                    catch ( ManipulationException e )
+                    {
+                        failures.incrementAndGet();
+                        logger.debug( "Unable to prefetch {}", ref, e );
+                    }
+                } ) );
+            }
+            for ( ProjectVersionRef ref : bomRefs )
+            {
+                futures.add( executor.submit( () -> {
+                    try
+                    {
+                        newBomReader().read( ref );
+                    }
+                    catch ( ManipulationException e )
+                    {
+                        failures.incrementAndGet();
+                        logger.debug( "Unable to prefetch {}", ref, e );
+                    }
+                } ) );
+            }
+            for ( Future<?> future : futures )
+            {
+                future.get();
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            logger.warn( "Interrupted prefetching remote POMs" );
+        }
+        catch ( ExecutionException e )
+        {
+            logger.warn( "Unable to prefetch remote POMs", e.getCause() );
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        logger.info( "Prefetched {} remote POMs and BOMs in {} ms ({} failed)",
+                     modelRefs.size() + boms - failures.get(), ( System.nanoTime() - start ) / 1000000,
+                     failures.get() );
+    }
+
+    /**
+     * Discards every cached model and pom view, e.g. at the start of a new session.
+     */
+    public void clearCache()
+    {
+        models.clear();
+        pomViews.clear();
+        boms.clear();
+        galleyWrapper.clearCache();
+    }
+
+    /**
+     * @return statistics for the requests made through Galley.
+     */
+    public String getResolverStatistics()
+    {
+        return galleyWrapper.getStatistics();
+    }
+
+    /**
+     * @return statistics for the raw model cache.
+     */
+    public CacheStatistics getModelCacheStatistics()
+    {
+        return models.getStatistics();
+    }
+
+    /**
+     * @return statistics for the pom view cache.
+     */
+    public CacheStatistics getPomViewCacheStatistics()
+    {
+        return pomViews.getStatistics();
+    }
+
+    /**
+     * @return statistics for the cache of POMs read for their managed dependencies.
+     */
+    public CacheStatistics getBomCacheStatistics()
+    {
+        return boms.getStatistics();
+    }
+
     /**
      * Read the raw model (equivalent to the pom file on disk) from a given GAV.
      *
@@ -83,6 +274,12 @@ public class ModelIO
      */
     public Model resolveRawModel( final ProjectVersionRef ref )
                     throws ManipulationException
+    {
+        return models.get( ref, this::readRawModel ).clone();
+    }
+
+    private Model readRawModel( final ProjectVersionRef ref )
+                    throws ManipulationException
     {
         Transfer transfer;
         try
@@ -136,28 +333,57 @@ public class ModelIO
         return transfer.getDetachedFile();
     }
 
+    /**
+     * Reads the managed dependencies of a BOM, including those inherited from its parents and imported from other
+     * BOMs. The POMs are streamed rather than read as pom views ; if that is not possible (e.g. an expression only
+     * Galley can resolve) the BOM is read through Galley instead.
+     *
+     * @param ref the BOM to read.
+     * @return the managed dependencies mapped to their version.
+     * @throws ManipulationException if an error occurs.
+     */
     public Map<ArtifactRef, String> getRemoteDependencyVersionOverrides( final ProjectVersionRef ref )
                     throws ManipulationException
     {
         logger.debug( "Resolving dependency management GAV: {}", ref );
 
-        final Map<ArtifactRef, String> versionOverrides = new LinkedHashMap<>();
+        Map<ArtifactRef, String> versionOverrides;
         try
         {
-            final MavenPomView pomView = galleyWrapper.readPomView( ref );
+            versionOverrides = newBomReader().read( ref );
+        }
+        catch ( final ManipulationException e )
+        {
+            logger.debug( "Unable to stream BOM {}, reading it through Galley: {}", ref, e.getMessage() );
+            versionOverrides = readManagedDependencies( ref );
+        }
+
+        if ( versionOverrides.isEmpty() )
+        {
+            logger.warn( "Attempting to align to a BOM that does not have a dependencyManagement section" );
+        }
+        else if ( logger.isDebugEnabled() )
+        {
+            versionOverrides.forEach( ( a, v ) -> logger.debug( "Added version override for {}:{}",
+                                                                 a.asProjectRef(), v ) );
+        }
+        return versionOverrides;
+    }
 
+    private Map<ArtifactRef, String> readManagedDependencies( final ProjectVersionRef ref )
+                    throws ManipulationException
+    {
+        final Map<ArtifactRef, String> versionOverrides = new LinkedHashMap<>();
+        final MavenPomView pomView = readPomView( ref );
+        try
+        {
             // TODO: active profiles!
             final List<DependencyView> deps = pomView.getAllManagedDependencies();
-            if ( deps == null || deps.isEmpty() )
-            {
-                logger.warn( "Attempting to align to a BOM that does not have a dependencyManagement section" );
-            }
-            else
+            if ( deps != null )
             {
                 for ( final DependencyView dep : deps )
                 {
                     versionOverrides.put( dep.asArtifactRef(), dep.getVersion() );
-                    logger.debug( "Added version override for {}:{}", dep.asProjectRef(), dep.getVersion() );
                 }
             }
         }
@@ -169,6 +395,64 @@ public class ModelIO
         return versionOverrides;
     }
 
+    private BomReader newBomReader()
+    {
+        return new BomReader( r -> boms.get( r, this::readBom ), getBomExecutor() );
+    }
+
+    private synchronized ExecutorService getBomExecutor()
+    {
+        if ( bomExecutor == null )
+        {
+            bomExecutor = Executors.newFixedThreadPool( BOM_THREADS, r -> {
+                Thread t = new Thread( r, "pme-bom-reader" );
+                t.setDaemon( true );
+                return t;
+            } );
+        }
+        return bomExecutor;
+    }
+
+    /**
+     * Releases the threads used to read BOMs, e.g. at the end of a session. They are created again if needed.
+     */
+    public synchronized void shutdown()
+    {
+        if ( bomExecutor != null )
+        {
+            bomExecutor.shutdown();
+            bomExecutor = null;
+        }
+    }
+
+    private BomReader.Pom readBom( final ProjectVersionRef ref )
+                    throws ManipulationException
+    {
+        Transfer transfer;
+        try
+        {
+            transfer = galleyWrapper.resolveArtifact( ref.asPomArtifact() );
+        }
+        catch ( final TransferException e )
+        {
+            throw new ManipulationException( "Failed to resolve POM ({}) : {}", ref, e.getMessage(), e );
+        }
+        // Galley leaves a missing file locked once it has tried to open it, so check it still exists first.
+        if ( transfer == null || !transfer.exists() )
+        {
+            throw new ManipulationException( "Failed to resolve POM: {}", ref.asPomArtifact() );
+        }
+
+        try (InputStream in = transfer.openInputStream())
+        {
+            return BomReader.parse( in );
+        }
+        catch ( final IOException | XMLStreamException e )
+        {
+            throw new ManipulationException( "Failed to parse POM ({}) : {}", ref, e.getMessage(), e );
+        }
+    }
+
     public Map<ProjectRef, String> getRemoteDependencyVersionOverridesByProject( final ProjectVersionRef ref )
         throws ManipulationException
     {
@@ -211,10 +495,10 @@ public class ModelIO
         final Set<Plugin> pluginOverrides = new HashSet<>();
         final Map<ProjectRef, ProjectVersionRef> pluginOverridesPomView = new HashMap<>();
         final Model m = resolveRawModel( ref );
+        final MavenPomView pomView = readPomView( ref );
 
         try
         {
-            final MavenPomView pomView = galleyWrapper.readPomView( ref );
             final List<PluginView> deps = pomView.getAllManagedBuildPlugins();
             for ( final PluginView p : deps )
             {
@@ -324,6 +608,21 @@ public class ModelIO
         return pluginOverrides;
     }
 
+    private MavenPomView readPomView( final ProjectVersionRef ref )
+                    throws ManipulationException
+    {
+        return pomViews.get( ref, r -> {
+            try
+            {
+                return galleyWrapper.readPomView( r );
+            }
+            catch ( final GalleyMavenException e )
+            {
+                throw new ManipulationException( "Unable to resolve: {}", r, e );
+            }
+        } );
+    }
+
     /**
      * Recursively process the DOM elements to inline any property values from the model.
      */
@@ -370,4 +669,108 @@ public class ModelIO
         }
         return result;
     }
+
+    @FunctionalInterface
+    private interface Loader<V>
+    {
+        V load( ProjectVersionRef ref ) throws ManipulationException;
+    }
+
+    /**
+     * Hit and miss counts of a session cache.
+     */
+    @Getter
+    public static class CacheStatistics
+    {
+        /**
+         * The number of requests answered from memory or by waiting on another in-flight load.
+         */
+        private final int hits;
+
+        /**
+         * The number of requests that read and parsed the POM.
+         */
+        private final int misses;
+
+        private final int size;
+
+        CacheStatistics( int hits, int misses, int size )
+        {
+            this.hits = hits;
+            this.misses = misses;
+            this.size = size;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "hits=" + hits + ", misses=" + misses + ", size=" + size;
+        }
+    }
+
+    /**
+     * Parses each POM at most once ; concurrent requests for the same GAV wait on a single load. Failures are not
+     * cached so that a later request retries.
+     */
+    private static final class ParsedCache<V>
+    {
+        private final Map<ProjectVersionRef, CompletableFuture<V>> cache = new ConcurrentHashMap<>();
+
+        private final AtomicInteger hits = new AtomicInteger();
+
+        private final AtomicInteger misses = new AtomicInteger();
+
+        V get( final ProjectVersionRef ref, final Loader<V> loader )
+                        throws ManipulationException
+        {
+            final CompletableFuture<V> future = new CompletableFuture<>();
+            final CompletableFuture<V> existing = cache.putIfAbsent( ref, future );
+
+            if ( existing == null )
+            {
+                misses.incrementAndGet();
+                try
+                {
+                    final V value = loader.load( ref );
+                    future.complete( value );
+                    return value;
+                }
+                catch ( ManipulationException | RuntimeException e )
+                {
+                    cache.remove( ref, future );
+                    future.completeExceptionally( e );
+                    throw e;
+                }
+            }
+
+            hits.incrementAndGet();
+            try
+            {
+                return existing.get();
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                throw new ManipulationException( "Interrupted waiting for {}", ref, e );
+            }
+            catch ( ExecutionException e )
+            {
+                if ( e.getCause() instanceof ManipulationException )
+                {
+                    throw (ManipulationException) e.getCause();
+                }
+                throw new ManipulationException( "Concurrent read of {} failed", ref, e.getCause() );
+            }
+        }
+
+        void clear()
+        {
+            cache.clear();
+        }
+
+        CacheStatistics getStatistics()
+        {
+            return new CacheStatistics( hits.get(), misses.get(), cache.size() );
+        }
+    }
 }
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.resolver;
+
+import org.commonjava.maven.galley.event.EventMetadata;
+import org.commonjava.maven.galley.internal.TransferManagerImpl;
+import org.commonjava.maven.galley.internal.xfer.DownloadHandler;
+import org.commonjava.maven.galley.internal.xfer.ExistenceHandler;
+import org.commonjava.maven.galley.internal.xfer.ListingHandler;
+import org.commonjava.maven.galley.internal.xfer.UploadHandler;
+import org.commonjava.maven.galley.model.ConcreteResource;
+import org.commonjava.maven.galley.model.Transfer;
+import org.commonjava.maven.galley.model.VirtualResource;
+import org.commonjava.maven.galley.spi.cache.CacheProvider;
+import org.commonjava.maven.galley.spi.event.FileEventManager;
+import org.commonjava.maven.galley.spi.io.SpecialPathManager;
+import org.commonjava.maven.galley.spi.nfc.NotFoundCache;
+import org.commonjava.maven.galley.spi.transport.TransportManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Galley's {@link TransferManagerImpl#retrieveAll(VirtualResource, EventMetadata)} collects its results from a
+ * completion service shared by every caller, so concurrent callers (e.g. metadata reads for different GAs) may be
+ * handed each other's transfers. This still retrieves the locations in parallel but collects them through a
+ * completion service private to each call ; the individual downloads still go through the {@link DownloadHandler}.
+ */
+public class ConcurrentTransferManager
+                extends TransferManagerImpl
+{
+    private final Logger logger = LoggerFactory.getLogger( getClass() );
+
+    private final ExecutorService executorService;
+
+    public ConcurrentTransferManager( final TransportManager transportManager, final CacheProvider cacheProvider,
+                                      final NotFoundCache nfc, final FileEventManager fileEventManager,
+                                      final DownloadHandler downloader, final UploadHandler uploader,
+                                      final ListingHandler lister, final ExistenceHandler exister,
+                                      final SpecialPathManager specialPathManager,
+                                      final ExecutorService executorService )
+    {
+        super( transportManager, cacheProvider, nfc, fileEventManager, downloader, uploader, lister, exister,
+               specialPathManager, executorService );
+        this.executorService = executorService;
+    }
+
+    @Override
+    public List<Transfer> retrieveAll( final VirtualResource resource, final EventMetadata eventMetadata )
+    {
+        final CompletionService<Transfer> completionService = new ExecutorCompletionService<>( executorService );
+        final Map<Future<Transfer>, ConcreteResource> pending = new LinkedHashMap<>();
+
+        for ( final ConcreteResource concrete : resource.toConcreteResources() )
+        {
+            pending.put( completionService.submit( () -> retrieve( concrete, false, eventMetadata ) ), concrete );
+        }
+
+        try
+        {
+            for ( int i = 0; i < pending.size(); i++ )
+            {
+                completionService.take();
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            pending.keySet().forEach( f -> f.cancel( true ) );
+            logger.warn( "Interrupted while retrieving: {}", resource );
+            return new ArrayList<>();
+        }
+
+        // Results are returned in location order so the outcome does not depend on which repository answered first.
+        final List<Transfer> result = new ArrayList<>();
+        for ( final Map.Entry<Future<Transfer>, ConcreteResource> entry : pending.entrySet() )
+        {
+            try
+            {
+                final Transfer transfer = entry.getKey().get();
+                if ( transfer != null && transfer.exists() )
+                {
+                    result.add( transfer );
+                }
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            catch ( ExecutionException e )
+            {
+                // As the batch retrieval, failures for a single location are logged rather than thrown.
+                logger.warn( "Failed to retrieve: {}. Reason: {}", entry.getValue(), e.getCause().getMessage() );
+            }
+        }
+        return result;
+    }
+}
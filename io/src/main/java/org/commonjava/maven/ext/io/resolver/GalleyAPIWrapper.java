@@ -38,7 +38,9 @@ import java.io.ByteArrayInputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Wraps the galley-maven APIs with the plumbing necessary to resolve using the repositories defined for the maven build.
@@ -59,8 +61,24 @@ public class GalleyAPIWrapper
         private static final long serialVersionUID = 1L;
     };
 
+    private static final String METADATA_VERSIONS = "/metadata/versioning/versions/version";
+
     private GalleyInfrastructure infra;
 
+    // Concurrent requests for the same coordinates share one read ; results are kept briefly.
+    private final SingleFlight<ProjectVersionRef, MavenPomView, GalleyMavenException> pomViews =
+                    new SingleFlight<>( "pom views", GalleyMavenException.class, this::getResolverCacheTTL );
+
+    private final SingleFlight<ProjectRef, MavenMetadataView, GalleyMavenException> metadataViews =
+                    new SingleFlight<>( "metadata views", GalleyMavenException.class, this::getResolverCacheTTL );
+
+    private final SingleFlight<ProjectRef, MavenMetadataView, GalleyMavenException> remoteMetadataViews =
+                    new SingleFlight<>( "remote metadata views", GalleyMavenException.class,
+                                        this::getResolverCacheTTL );
+
+    private final SingleFlight<ArtifactRef, Transfer, TransferException> artifacts =
+                    new SingleFlight<>( "artifacts", TransferException.class, this::getResolverCacheTTL );
+
     @Inject
     public GalleyAPIWrapper(@Named("galley") GalleyInfrastructure infra)
     {
@@ -87,22 +105,77 @@ public class GalleyAPIWrapper
     public MavenPomView readPomView( final ProjectVersionRef ref )
         throws GalleyMavenException
     {
-        return infra.getPomReader()
-                    .read( ref, MAVEN_REPOS );
+        return pomViews.get( ref, r -> infra.getPomReader()
+                                            .read( r, MAVEN_REPOS ) );
     }
 
     public MavenMetadataView readMetadataView( final ProjectRef ref )
         throws GalleyMavenException
     {
-        return infra.getMetadataReader()
-                    .getMetadata( ref, MAVEN_REPOS );
+        return metadataViews.get( ref, r -> infra.getMetadataReader()
+                                                 .getMetadata( r, MAVEN_REPOS ) );
+    }
+
+    /**
+     * Returns the versions listed in the repository metadata for the GA. If the local repository metadata index is
+     * enabled and lists the GA, its versions are merged with those from the other repositories' metadata rather than
+     * reading the local metadata again.
+     *
+     * @param ref the groupId and artifactId to look up.
+     * @return the available versions.
+     * @throws GalleyMavenException if an error occurs reading the metadata.
+     */
+    public List<String> getMetadataVersions( final ProjectRef ref )
+        throws GalleyMavenException
+    {
+        final MetadataIndex index = infra.getMetadataIndex();
+        final List<String> indexed = index == null ? null : index.getVersions( ref );
+
+        if ( indexed == null )
+        {
+            return readMetadataView( ref ).resolveXPathToAggregatedStringList( METADATA_VERSIONS, true, -1 );
+        }
+
+        final Set<String> result = new LinkedHashSet<>( indexed );
+        final List<Location> remote = infra.getRemoteLocations();
+        if ( !remote.isEmpty() )
+        {
+            result.addAll( remoteMetadataViews.get( ref, r -> infra.getMetadataReader().getMetadata( r, remote ) )
+                                              .resolveXPathToAggregatedStringList( METADATA_VERSIONS, true, -1 ) );
+        }
+        return new ArrayList<>( result );
     }
 
     public Transfer resolveArtifact( final ArtifactRef asPomArtifact )
         throws TransferException
     {
-        return infra.getArtifactManager()
-                    .retrieveFirst( MAVEN_REPOS, asPomArtifact );
+        return artifacts.get( asPomArtifact, r -> infra.getArtifactManager()
+                                                       .retrieveFirst( MAVEN_REPOS, r ) );
+    }
+
+    /**
+     * Discards the results kept from earlier requests, e.g. at the start of a new session.
+     */
+    public void clearCache()
+    {
+        pomViews.clear();
+        metadataViews.clear();
+        remoteMetadataViews.clear();
+        artifacts.clear();
+    }
+
+    /**
+     * @return the number of loads, cached results and collapsed concurrent requests, and the time spent waiting on
+     * them, for each kind of request.
+     */
+    public String getStatistics()
+    {
+        return pomViews + "; " + metadataViews + "; " + remoteMetadataViews + "; " + artifacts;
+    }
+
+    private long getResolverCacheTTL()
+    {
+        return infra == null ? 0 : infra.getResolverCacheTTL();
     }
 
     public String toXML( final Node config, final boolean includeXmlDeclaration )
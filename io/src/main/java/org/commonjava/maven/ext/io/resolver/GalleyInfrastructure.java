@@ -15,11 +15,14 @@
  */
 package org.commonjava.maven.ext.io.resolver;
 
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.maven.artifact.repository.ArtifactRepository;
 import org.apache.maven.repository.MirrorSelector;
 import org.apache.maven.settings.Settings;
+import org.commonjava.maven.ext.annotation.ConfigValue;
 import org.commonjava.maven.ext.common.ManipulationException;
 import org.commonjava.maven.ext.common.session.MavenSessionHandler;
+import org.commonjava.maven.galley.TransferException;
 import org.commonjava.maven.galley.TransferManager;
 import org.commonjava.maven.galley.auth.MemoryPasswordManager;
 import org.commonjava.maven.galley.cache.FileCacheProvider;
@@ -27,7 +30,6 @@ import org.commonjava.maven.galley.config.TransportManagerConfig;
 import org.commonjava.maven.galley.event.NoOpFileEventManager;
 import org.commonjava.maven.galley.filearc.FileTransport;
 import org.commonjava.maven.galley.filearc.ZipJarTransport;
-import org.commonjava.maven.galley.internal.TransferManagerImpl;
 import org.commonjava.maven.galley.internal.xfer.DownloadHandler;
 import org.commonjava.maven.galley.internal.xfer.ExistenceHandler;
 import org.commonjava.maven.galley.internal.xfer.ListingHandler;
@@ -62,16 +64,24 @@ import org.commonjava.maven.galley.spi.transport.TransportManager;
 import org.commonjava.maven.galley.transport.TransportManagerImpl;
 import org.commonjava.maven.galley.transport.htcli.HttpClientTransport;
 import org.commonjava.maven.galley.transport.htcli.HttpImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 import java.io.File;
+import java.io.IOException;
 import java.net.MalformedURLException;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Properties;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * Manager component responsible for setting up and managing the Galley API instances used to resolve POMs and metadata.
@@ -83,6 +93,87 @@ import java.util.concurrent.Executors;
 public class GalleyInfrastructure
     implements ExtensionInfrastructure
 {
+    /**
+     * A directory to cache downloaded POMs and metadata in, which may be shared between runs and between concurrent
+     * processes. If not set a private cache is created in the target directory.
+     */
+    @ConfigValue( docIndex = "../index.html#shared-cache" )
+    public static final String SHARED_CACHE_DIR = "sharedCacheDir";
+
+    /**
+     * The time in seconds that cached maven-metadata and snapshots are valid for. Zero means forever.
+     */
+    @ConfigValue( docIndex = "../index.html#shared-cache" )
+    public static final String SHARED_CACHE_METADATA_TTL = "sharedCacheMetadataTTL";
+
+    /**
+     * The maximum size in megabytes of the shared cache. Zero means unbounded.
+     */
+    @ConfigValue( docIndex = "../index.html#shared-cache" )
+    public static final String SHARED_CACHE_MAX_SIZE = "sharedCacheMaxSize";
+
+    /**
+     * The time in seconds that a resource found to be missing from a repository is remembered for when using a shared
+     * cache. May be overridden per repository with <code>notFoundCacheTTL.&lt;repository id&gt;</code>. Zero keeps
+     * the not-found cache in memory only.
+     */
+    @ConfigValue( docIndex = "../index.html#shared-cache" )
+    public static final String NOT_FOUND_CACHE_TTL = "notFoundCacheTTL";
+
+    /**
+     * Discards the persistent not-found cache at the start of the run.
+     */
+    @ConfigValue( docIndex = "../index.html#shared-cache" )
+    public static final String NOT_FOUND_CACHE_CLEAR = "notFoundCacheClear";
+
+    /**
+     * The maximum number of concurrent downloads from remote repositories.
+     */
+    @ConfigValue( docIndex = "../index.html#transfers" )
+    public static final String TRANSFER_THREADS = "transferThreads";
+
+    /**
+     * The maximum number of concurrent downloads from a single repository host.
+     */
+    @ConfigValue( docIndex = "../index.html#transfers" )
+    public static final String TRANSFER_THREADS_PER_HOST = "transferThreadsPerHost";
+
+    /**
+     * Whether to run downloads on virtual threads. Requires Java 21 or later ; ignored otherwise.
+     */
+    @ConfigValue( docIndex = "../index.html#transfers" )
+    public static final String TRANSFER_VIRTUAL_THREADS = "transferVirtualThreads";
+
+    /**
+     * Reads the local repository's part of repository metadata lookups from an index of its maven-metadata files,
+     * rather than parsing them again on every build. The metadata of the other repositories is still read and merged.
+     */
+    @ConfigValue( docIndex = "../index.html#metadata-index" )
+    public static final String METADATA_INDEX = "metadataIndex";
+
+    /**
+     * The time in seconds that POMs, metadata and artifacts resolved through Galley are remembered for in memory.
+     * Concurrent requests for the same coordinates always share a single resolution ; zero disables the cache.
+     */
+    @ConfigValue( docIndex = "../index.html#transfers" )
+    public static final String RESOLVER_CACHE_TTL = "resolverCacheTTL";
+
+    private static final int DEFAULT_TRANSFER_THREADS = 32;
+
+    private static final int DEFAULT_TRANSFER_THREADS_PER_HOST = 8;
+
+    private static final String NOT_FOUND_CACHE_FILE = "not-found.txt";
+
+    private static final long DEFAULT_METADATA_TTL_SEC = 3600;
+
+    private static final long DEFAULT_NOT_FOUND_TTL_SEC = 86400;
+
+    private static final long DEFAULT_MAX_SIZE_MB = 2048;
+
+    private static final long DEFAULT_RESOLVER_CACHE_TTL_SEC = 60;
+
+    private final Logger logger = LoggerFactory.getLogger( getClass() );
+
     private final MirrorSelector mirrorSelector;
 
     private final MavenSessionHandler sessionHandler;
@@ -99,13 +190,38 @@ public class GalleyInfrastructure
 
     private ExecutorService executor;
 
+    private TransferExecutor transferExecutor;
+
     public File getCacheDir()
     {
         return cacheDir;
     }
 
+    /**
+     * @return the shared cache directory if one is configured, otherwise the private cache directory. Content stored
+     * here may outlive the current run.
+     */
+    public File getSharedCacheDir()
+    {
+        return sharedCacheDir == null ? cacheDir : sharedCacheDir;
+    }
+
     private File cacheDir;
 
+    private File sharedCacheDir;
+
+    private SharedFileCacheProvider sharedCache;
+
+    private long sharedCacheMaxSize;
+
+    private PersistentNotFoundCache notFoundCache;
+
+    private MetadataIndex metadataIndex;
+
+    private List<Location> remoteLocations;
+
+    private long resolverCacheTTL = TimeUnit.SECONDS.toMillis( DEFAULT_RESOLVER_CACHE_TTL_SEC );
+
     @Inject
     public GalleyInfrastructure( MavenSessionHandler session, MirrorSelector mirrorSelector)
     {
@@ -177,6 +293,12 @@ public class GalleyInfrastructure
                        final Transport customTransport, File cacheDir_ )
         throws ManipulationException
     {
+        // A later initialisation may use different settings, so nothing is kept from an earlier one.
+        sharedCacheDir = null;
+        sharedCache = null;
+        sharedCacheMaxSize = 0;
+        notFoundCache = null;
+
         LocationExpander locationExpander;
         try
         {
@@ -216,20 +338,74 @@ public class GalleyInfrastructure
 
         final FileEventManager fileEvents = new NoOpFileEventManager();
 
-        final CacheProvider cache =
-            new FileCacheProvider( cacheDir, new HashedLocationPathGenerator(), fileEvents, new NoOpTransferDecorator() );
+        final Properties userProps = sessionHandler == null ? new Properties() : sessionHandler.getUserProperties();
+        final String sharedCacheDir = userProps.getProperty( SHARED_CACHE_DIR );
 
-        final NotFoundCache nfc = new MemoryNotFoundCache();
+        resolverCacheTTL = TimeUnit.SECONDS.toMillis(
+                        getLong( userProps, RESOLVER_CACHE_TTL, DEFAULT_RESOLVER_CACHE_TTL_SEC ) );
+
+        final CacheProvider cache;
+        NotFoundCache nfc = new MemoryNotFoundCache();
+        // An explicit cache directory (as used by tests) takes precedence over the shared cache.
+        if ( cacheDir_ == null && sharedCacheDir != null && !sharedCacheDir.isEmpty() )
+        {
+            final long ttl = getLong( userProps, SHARED_CACHE_METADATA_TTL, DEFAULT_METADATA_TTL_SEC );
+            sharedCacheMaxSize = getLong( userProps, SHARED_CACHE_MAX_SIZE, DEFAULT_MAX_SIZE_MB ) * 1024 * 1024;
+            this.sharedCacheDir = new File( sharedCacheDir );
+            sharedCache = new SharedFileCacheProvider( this.sharedCacheDir, fileEvents, ttl );
+            cache = sharedCache;
+
+            logger.info( "Using shared cache {} (metadata TTL {}s, maximum size {} MB)", sharedCacheDir, ttl,
+                         sharedCacheMaxSize / ( 1024 * 1024 ) );
+
+            final long notFoundTTL = getLong( userProps, NOT_FOUND_CACHE_TTL, DEFAULT_NOT_FOUND_TTL_SEC );
+            if ( notFoundTTL > 0 )
+            {
+                final Map<String, Long> locationTTLs = new HashMap<>();
+                for ( String key : userProps.stringPropertyNames() )
+                {
+                    if ( key.startsWith( NOT_FOUND_CACHE_TTL + '.' ) )
+                    {
+                        locationTTLs.put( key.substring( NOT_FOUND_CACHE_TTL.length() + 1 ),
+                                          getLong( userProps, key, notFoundTTL ) );
+                    }
+                }
+                notFoundCache = new PersistentNotFoundCache( new File( sharedCacheDir, NOT_FOUND_CACHE_FILE ),
+                                                             notFoundTTL, locationTTLs, Boolean.parseBoolean(
+                                userProps.getProperty( NOT_FOUND_CACHE_CLEAR, "false" ) ) );
+                nfc = notFoundCache;
+            }
+        }
+        else
+        {
+            cache = new FileCacheProvider( cacheDir, new HashedLocationPathGenerator(), fileEvents,
+                                           new NoOpTransferDecorator() );
+        }
+
+        // The transfer manager's own jobs only coordinate and wait on the transport jobs, so they are not bounded ;
+        // bounding them could leave no threads for the transfers they wait on.
         executor = Executors.newCachedThreadPool();
+        try
+        {
+            transferExecutor = new TransferExecutor(
+                            (int) getLong( userProps, TRANSFER_THREADS, DEFAULT_TRANSFER_THREADS ),
+                            (int) getLong( userProps, TRANSFER_THREADS_PER_HOST, DEFAULT_TRANSFER_THREADS_PER_HOST ),
+                            Boolean.parseBoolean( userProps.getProperty( TRANSFER_VIRTUAL_THREADS, "false" ) ) );
+        }
+        catch ( IllegalArgumentException e )
+        {
+            throw new ManipulationException( "Invalid transfer configuration: {}", e.getMessage(), e );
+        }
+        logger.debug( "Using {}", transferExecutor );
 
         final TransportManagerConfig config = new TransportManagerConfig(  );
 
         final TransferManager transfers =
-            new TransferManagerImpl( transports, cache, nfc, fileEvents, new DownloadHandler( nfc, config, executor ),
-                                     new UploadHandler( nfc, config, executor ), new ListingHandler( nfc ),
-                                     new ExistenceHandler( nfc ),
-                                     new SpecialPathManagerImpl(),
-                                     executor );
+            new ConcurrentTransferManager( transports, cache, nfc, fileEvents,
+                                           new DownloadHandler( nfc, config, transferExecutor ),
+                                           new UploadHandler( nfc, config, transferExecutor ),
+                                           new ListingHandler( nfc ), new ExistenceHandler( nfc ),
+                                           new SpecialPathManagerImpl(), executor );
 
         final TypeMapper types = new StandardTypeMapper();
         final ArtifactMetadataManager metadataManager = new ArtifactMetadataManagerImpl( transfers, locationExpander );
@@ -246,6 +422,31 @@ public class GalleyInfrastructure
 
         metadataReader = new MavenMetadataReader( xml, locationExpander, metadataManager, xpaths );
 
+        metadataIndex = null;
+        remoteLocations = null;
+        if ( localRepository != null && Boolean.parseBoolean( userProps.getProperty( METADATA_INDEX, "false" ) ) )
+        {
+            final File repository = new File( localRepository.getBasedir() ).getAbsoluteFile();
+            final String localUri = new File( localRepository.getBasedir() ).toURI().toString();
+            final MetadataIndex index = new MetadataIndex( new File( getSharedCacheDir(), "metadata-index-"
+                            + DigestUtils.sha1Hex( repository.getPath() ) + ".idx" ) );
+            try
+            {
+                remoteLocations = locationExpander.expand( MavenLocationExpander.EXPANSION_TARGET )
+                                                  .stream()
+                                                  .filter( l -> !localUri.equals( l.getUri() ) )
+                                                  .collect( Collectors.toList() );
+                index.update( repository );
+                metadataIndex = index;
+            }
+            catch ( IOException | TransferException e )
+            {
+                logger.warn( "Unable to index the metadata in {} ; reading it from the repositories instead: {}",
+                             repository, e.toString() );
+                remoteLocations = null;
+            }
+        }
+
         return this;
     }
 
@@ -274,7 +475,58 @@ public class GalleyInfrastructure
         return xpaths;
     }
 
+    /**
+     * @return the time in milliseconds that resolved POMs, metadata and artifacts are remembered for.
+     */
+    public long getResolverCacheTTL()
+    {
+        return resolverCacheTTL;
+    }
+
+    /**
+     * @return the index of the local repository's metadata, or null if it is not enabled.
+     */
+    public MetadataIndex getMetadataIndex()
+    {
+        return metadataIndex;
+    }
+
+    /**
+     * @return the repositories other than the indexed local repository, or null if the index is not enabled.
+     */
+    public List<Location> getRemoteLocations()
+    {
+        return remoteLocations;
+    }
+
     public void finish() {
         executor.shutdown();
+        transferExecutor.shutdown();
+        logger.info( "Remote transfers: {} completed, mean latency {} ms, max latency {} ms, mean queue time {} ms, "
+                                     + "max queue depth {}", transferExecutor.getCompletedTransfers(),
+                     transferExecutor.getMeanLatency(), transferExecutor.getMaxLatency(),
+                     transferExecutor.getMeanQueueTime(), transferExecutor.getMaxQueueDepth() );
+
+        if ( sharedCache != null )
+        {
+            sharedCache.evict( sharedCacheMaxSize );
+        }
+        if ( notFoundCache != null )
+        {
+            notFoundCache.save();
+        }
+    }
+
+    private static long getLong( Properties userProps, String key, long defaultValue ) throws ManipulationException
+    {
+        final String value = userProps.getProperty( key );
+        try
+        {
+            return value == null ? defaultValue : Long.parseLong( value.trim() );
+        }
+        catch ( NumberFormatException e )
+        {
+            throw new ManipulationException( "Invalid value for {}: {}", key, value, e );
+        }
     }
 }
@@ -0,0 +1,541 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.resolver;
+
+import org.commonjava.maven.atlas.ident.ref.ProjectRef;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Index of the versions listed in the maven-metadata files of a local repository, keyed by
+ * <code>groupId:artifactId</code>. The index is kept in a file sorted by key and memory-mapped, so a lookup is a
+ * binary search rather than an XML parse.
+ * <p>
+ * The repository is only walked when the index is missing or older than {@link #REBUILD_INTERVAL}, and then only the
+ * directories whose metadata files have changed (by count or modification time) are parsed again. Otherwise each
+ * lookup compares the metadata files of that one directory with the index and parses them again if they changed ;
+ * artifacts first installed since the index was written are not found until it is rebuilt.
+ * <p>
+ * File format: a header of magic, format version and entry count, a table of entry offsets, then per entry the key,
+ * the newest modification time and number of its metadata files, and its versions. Strings are written as a short
+ * length followed by UTF-8 bytes.
+ */
+public class MetadataIndex
+{
+    private static final int MAGIC = 0x504d4549;
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int HEADER_SIZE = 12;
+
+    /**
+     * How long in milliseconds an index is used before the whole repository is walked again.
+     */
+    public static final long REBUILD_INTERVAL = TimeUnit.DAYS.toMillis( 1 );
+
+    private static final Pattern METADATA = Pattern.compile( "maven-metadata(-[^.]+)?\\.xml" );
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = XMLInputFactory.newInstance();
+
+    static
+    {
+        XML_INPUT_FACTORY.setProperty( XMLInputFactory.SUPPORT_DTD, false );
+        XML_INPUT_FACTORY.setProperty( XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false );
+    }
+
+    private final Logger logger = LoggerFactory.getLogger( getClass() );
+
+    private final File file;
+
+    private volatile ByteBuffer buffer;
+
+    private volatile Path repository;
+
+    /**
+     * Entries whose metadata has changed since the index was written, by key.
+     */
+    private final Map<String, Entry> changed = new ConcurrentHashMap<>();
+
+    private int parsed;
+
+    private int reused;
+
+    /**
+     * @param file the index file ; it is created by the first {@link #update(File)}.
+     */
+    public MetadataIndex( final File file )
+    {
+        this.file = file;
+    }
+
+    /**
+     * Prepares the index for lookups in the given repository, rebuilding it if it is missing or older than
+     * {@link #REBUILD_INTERVAL}.
+     *
+     * @param repository the root of the local repository.
+     * @throws IOException if the repository cannot be scanned or the index written.
+     */
+    public synchronized void update( final File repository ) throws IOException
+    {
+        parsed = 0;
+        reused = 0;
+        changed.clear();
+        this.repository = repository.toPath();
+
+        if ( file.exists() && System.currentTimeMillis() - file.lastModified() < REBUILD_INTERVAL )
+        {
+            buffer = map();
+            if ( buffer != null )
+            {
+                logger.debug( "Using metadata index {} for {}", file, repository );
+                return;
+            }
+        }
+        rebuild( repository );
+    }
+
+    /**
+     * Walks the repository and brings the index up to date with its metadata files.
+     *
+     * @param repository the root of the local repository.
+     * @throws IOException if the repository cannot be scanned or the index written.
+     */
+    public synchronized void rebuild( final File repository ) throws IOException
+    {
+        final long start = System.currentTimeMillis();
+        final Map<String, Stamp> stamps = scan( repository.toPath() );
+
+        parsed = 0;
+        reused = 0;
+        changed.clear();
+        this.repository = repository.toPath();
+
+        final TreeMap<String, Entry> entries = new TreeMap<>();
+        final ByteBuffer previous = map();
+        for ( Map.Entry<String, Stamp> e : stamps.entrySet() )
+        {
+            final String key = e.getKey();
+            final Stamp stamp = e.getValue();
+            final int offset = previous == null ? -1 : find( previous, key );
+
+            if ( offset >= 0 && matches( previous, offset, key, stamp ) )
+            {
+                entries.put( key, new Entry( stamp, readVersions( previous, offset ) ) );
+                reused++;
+            }
+            else
+            {
+                entries.put( key, new Entry( stamp, parse( stamp.files ) ) );
+                parsed++;
+            }
+        }
+
+        write( entries );
+        buffer = map();
+
+        logger.debug( "Updated metadata index {} for {} in {} ms ({} entries, {} parsed, {} unchanged)", file,
+                      repository, System.currentTimeMillis() - start, entries.size(), parsed, reused );
+    }
+
+    /**
+     * @param ga the groupId and artifactId to look up.
+     * @return the versions listed in the local metadata for the GA, or null if it has none or is not indexed.
+     */
+    public List<String> getVersions( final ProjectRef ga )
+    {
+        final ByteBuffer b = buffer == null ? map() : buffer;
+        if ( b == null )
+        {
+            return null;
+        }
+        buffer = b;
+
+        final String key = ga.getGroupId() + ':' + ga.getArtifactId();
+        final int offset = find( b, key );
+        if ( offset < 0 )
+        {
+            return null;
+        }
+
+        final List<String> versions;
+        final Path root = repository;
+        final Stamp stamp = root == null ? null : stamp( root, ga );
+        if ( stamp == null || matches( b, offset, key, stamp ) )
+        {
+            versions = readVersions( b, offset );
+        }
+        else
+        {
+            Entry entry = changed.get( key );
+            if ( entry == null || entry.stamp.lastModified != stamp.lastModified
+                            || entry.stamp.files.size() != stamp.files.size() )
+            {
+                entry = new Entry( stamp, parse( stamp.files ) );
+                changed.put( key, entry );
+            }
+            versions = entry.versions;
+        }
+        return versions.isEmpty() ? null : versions;
+    }
+
+    /**
+     * @return the number of directories parsed by the last update.
+     */
+    public int getParsed()
+    {
+        return parsed;
+    }
+
+    /**
+     * @return the number of directories taken unchanged from the previous index by the last update.
+     */
+    public int getReused()
+    {
+        return reused;
+    }
+
+    /**
+     * @return the current metadata files of the GA's directory.
+     */
+    private Stamp stamp( final Path root, final ProjectRef ga )
+    {
+        final Path directory = root.resolve( ga.getGroupId().replace( '.', File.separatorChar ) )
+                                   .resolve( ga.getArtifactId() );
+        final Stamp stamp = new Stamp();
+        try ( DirectoryStream<Path> files = Files.newDirectoryStream( directory, p -> METADATA.matcher(
+                        p.getFileName().toString() ).matches() ) )
+        {
+            for ( Path path : files )
+            {
+                stamp.files.add( path );
+                stamp.lastModified = Math.max( stamp.lastModified, Files.getLastModifiedTime( path ).toMillis() );
+            }
+        }
+        catch ( IOException e )
+        {
+            logger.debug( "Unable to read {} : {}", directory, e.toString() );
+        }
+        return stamp;
+    }
+
+    private static boolean matches( final ByteBuffer b, final int offset, final String key, final Stamp stamp )
+    {
+        final int length = utf8Length( key );
+        return b.getLong( offset + 2 + length ) == stamp.lastModified
+                        && b.getInt( offset + 10 + length ) == stamp.files.size();
+    }
+
+    private Map<String, Stamp> scan( final Path root ) throws IOException
+    {
+        final Map<String, Stamp> result = new TreeMap<>();
+        if ( !Files.isDirectory( root ) )
+        {
+            return result;
+        }
+
+        Files.walkFileTree( root, new SimpleFileVisitor<Path>()
+        {
+            @Override
+            public FileVisitResult visitFile( Path path, BasicFileAttributes attrs )
+            {
+                final Path parent = path.getParent();
+                if ( METADATA.matcher( path.getFileName().toString() ).matches() && parent != null
+                                && parent.getParent() != null && !parent.equals( root ) )
+                {
+                    // <groupId path>/<artifactId>/maven-metadata-<repository>.xml
+                    final Path relative = root.relativize( parent.getParent() );
+                    if ( relative.getNameCount() > 0 && !relative.toString().isEmpty() )
+                    {
+                        final String key = relative.toString().replace( File.separatorChar, '.' ) + ':'
+                                        + parent.getFileName();
+                        final Stamp stamp = result.computeIfAbsent( key, k -> new Stamp() );
+                        stamp.files.add( path );
+                        stamp.lastModified = Math.max( stamp.lastModified, attrs.lastModifiedTime().toMillis() );
+                    }
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed( Path path, IOException e )
+            {
+                logger.debug( "Unable to read {} : {}", path, e.toString() );
+                return FileVisitResult.CONTINUE;
+            }
+        } );
+        return result;
+    }
+
+    private List<String> parse( final List<Path> files )
+    {
+        final Set<String> versions = new LinkedHashSet<>();
+
+        for ( Path path : files )
+        {
+            try ( InputStream in = Files.newInputStream( path ) )
+            {
+                final XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader( in );
+                try
+                {
+                    // Only /metadata/versioning/versions/version ; plugin group and snapshot metadata have none.
+                    final List<String> elements = new ArrayList<>();
+                    while ( reader.hasNext() )
+                    {
+                        final int event = reader.next();
+                        if ( event == XMLStreamReader.START_ELEMENT )
+                        {
+                            elements.add( reader.getLocalName() );
+                            if ( elements.size() == 4 && "version".equals( elements.get( 3 ) )
+                                            && "versions".equals( elements.get( 2 ) )
+                                            && "versioning".equals( elements.get( 1 ) ) )
+                            {
+                                final String version = reader.getElementText().trim();
+                                elements.remove( 3 );
+                                if ( !version.isEmpty() )
+                                {
+                                    versions.add( version );
+                                }
+                            }
+                        }
+                        else if ( event == XMLStreamReader.END_ELEMENT )
+                        {
+                            elements.remove( elements.size() - 1 );
+                        }
+                    }
+                }
+                finally
+                {
+                    reader.close();
+                }
+            }
+            catch ( IOException | XMLStreamException e )
+            {
+                logger.debug( "Ignoring unreadable metadata {} : {}", path, e.toString() );
+            }
+        }
+        return new ArrayList<>( versions );
+    }
+
+    private void write( final TreeMap<String, Entry> entries ) throws IOException
+    {
+        Files.createDirectories( file.getAbsoluteFile().getParentFile().toPath() );
+
+        final File temp = File.createTempFile( file.getName(), ".tmp", file.getAbsoluteFile().getParentFile() );
+        try
+        {
+            try ( DataOutputStream out = new DataOutputStream(
+                            new BufferedOutputStream( Files.newOutputStream( temp.toPath() ) ) ) )
+            {
+                out.writeInt( MAGIC );
+                out.writeInt( FORMAT_VERSION );
+                out.writeInt( entries.size() );
+
+                int offset = HEADER_SIZE + 4 * entries.size();
+                for ( Map.Entry<String, Entry> e : entries.entrySet() )
+                {
+                    out.writeInt( offset );
+                    offset += e.getValue().size( e.getKey() );
+                }
+                for ( Map.Entry<String, Entry> e : entries.entrySet() )
+                {
+                    writeString( out, e.getKey() );
+                    out.writeLong( e.getValue().stamp.lastModified );
+                    out.writeInt( e.getValue().stamp.files.size() );
+                    out.writeInt( e.getValue().versions.size() );
+                    for ( String version : e.getValue().versions )
+                    {
+                        writeString( out, version );
+                    }
+                }
+            }
+            // Other processes may have the previous index mapped, so replace rather than rewrite it.
+            Files.move( temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE );
+        }
+        finally
+        {
+            Files.deleteIfExists( temp.toPath() );
+        }
+    }
+
+    private ByteBuffer map()
+    {
+        if ( !file.exists() )
+        {
+            return null;
+        }
+        try ( FileChannel channel = FileChannel.open( file.toPath(), StandardOpenOption.READ ) )
+        {
+            final ByteBuffer b = channel.map( FileChannel.MapMode.READ_ONLY, 0, channel.size() );
+            if ( b.limit() < HEADER_SIZE || b.getInt( 0 ) != MAGIC || b.getInt( 4 ) != FORMAT_VERSION )
+            {
+                logger.warn( "Ignoring invalid metadata index {}", file );
+                return null;
+            }
+            return b;
+        }
+        catch ( IOException e )
+        {
+            logger.warn( "Unable to read metadata index {} : {}", file, e.toString() );
+            return null;
+        }
+    }
+
+    /**
+     * @return the offset of the entry for the key, or -1 if there is none.
+     */
+    private static int find( final ByteBuffer b, final String key )
+    {
+        final byte[] target = key.getBytes( StandardCharsets.UTF_8 );
+        int low = 0;
+        int high = b.getInt( 8 ) - 1;
+
+        while ( low <= high )
+        {
+            final int mid = ( low + high ) >>> 1;
+            final int offset = b.getInt( HEADER_SIZE + 4 * mid );
+            final int cmp = compare( b, offset, target );
+
+            if ( cmp < 0 )
+            {
+                low = mid + 1;
+            }
+            else if ( cmp > 0 )
+            {
+                high = mid - 1;
+            }
+            else
+            {
+                return offset;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Compares the string at the offset with the target. Keys are sorted as Strings, which for the characters
+     * allowed in a groupId and artifactId matches the order of their UTF-8 bytes.
+     */
+    private static int compare( final ByteBuffer b, final int offset, final byte[] target )
+    {
+        final int length = b.getShort( offset ) & 0xFFFF;
+        for ( int i = 0; i < Math.min( length, target.length ); i++ )
+        {
+            final int cmp = ( b.get( offset + 2 + i ) & 0xFF ) - ( target[i] & 0xFF );
+            if ( cmp != 0 )
+            {
+                return cmp;
+            }
+        }
+        return length - target.length;
+    }
+
+    private static List<String> readVersions( final ByteBuffer b, final int offset )
+    {
+        int position = offset + 2 + ( b.getShort( offset ) & 0xFFFF ) + 16;
+        final int count = b.getInt( position - 4 );
+        if ( count == 0 )
+        {
+            return Collections.emptyList();
+        }
+
+        final List<String> result = new ArrayList<>( count );
+        for ( int i = 0; i < count; i++ )
+        {
+            final int length = b.getShort( position ) & 0xFFFF;
+            final byte[] bytes = new byte[length];
+            for ( int j = 0; j < length; j++ )
+            {
+                bytes[j] = b.get( position + 2 + j );
+            }
+            result.add( new String( bytes, StandardCharsets.UTF_8 ) );
+            position += 2 + length;
+        }
+        return result;
+    }
+
+    private static void writeString( final DataOutputStream out, final String value ) throws IOException
+    {
+        final byte[] bytes = value.getBytes( StandardCharsets.UTF_8 );
+        out.writeShort( bytes.length );
+        out.write( bytes );
+    }
+
+    private static int utf8Length( final String value )
+    {
+        return value.getBytes( StandardCharsets.UTF_8 ).length;
+    }
+
+    private static final class Stamp
+    {
+        private final List<Path> files = new ArrayList<>();
+
+        private long lastModified;
+    }
+
+    private static final class Entry
+    {
+        private final Stamp stamp;
+
+        private final List<String> versions;
+
+        private Entry( final Stamp stamp, final List<String> versions )
+        {
+            this.stamp = stamp;
+            this.versions = versions;
+        }
+
+        private int size( final String key )
+        {
+            int size = 2 + utf8Length( key ) + 8 + 4 + 4;
+            for ( String version : versions )
+            {
+                size += 2 + utf8Length( version );
+            }
+            return size;
+        }
+    }
+}
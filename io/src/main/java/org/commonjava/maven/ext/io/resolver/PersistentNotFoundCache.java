@@ -0,0 +1,312 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.resolver;
+
+import org.commonjava.maven.galley.model.ConcreteResource;
+import org.commonjava.maven.galley.model.Location;
+import org.commonjava.maven.galley.model.SimpleLocation;
+import org.commonjava.maven.galley.spi.nfc.NotFoundCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A Galley {@link NotFoundCache} that is saved to disk so that resources known to be missing from a repository are not
+ * requested again by later runs. Each entry expires after the TTL of its location, which is looked up by repository
+ * id and otherwise defaults to a global value.
+ * <p>
+ * Several processes may share the file ; when saving, entries added by other processes since this cache was loaded are
+ * merged in. Entries for local (file) repositories are only kept in memory as their content changes with every
+ * install.
+ */
+public class PersistentNotFoundCache
+                implements NotFoundCache
+{
+    private static final String SEPARATOR = "\t";
+
+    private final Logger logger = LoggerFactory.getLogger( getClass() );
+
+    private final File file;
+
+    private final long defaultTTL;
+
+    private final Map<String, Long> locationTTLs;
+
+    private final long loaded = System.currentTimeMillis();
+
+    /**
+     * Location URI to the missing paths and the time they were found to be missing.
+     */
+    private final Map<String, Map<String, Long>> missing = new ConcurrentHashMap<>();
+
+    private final Map<String, Location> locations = new ConcurrentHashMap<>();
+
+    private final AtomicLong probesSaved = new AtomicLong();
+
+    private final AtomicLong added = new AtomicLong();
+
+    /**
+     * @param file the file the cache is stored in.
+     * @param defaultTTL the time in seconds entries are valid for.
+     * @param locationTTLs the time in seconds entries are valid for, keyed by location (repository) name.
+     * @param clear whether to discard the existing entries.
+     */
+    public PersistentNotFoundCache( final File file, final long defaultTTL, final Map<String, Long> locationTTLs,
+                                    final boolean clear )
+    {
+        this.file = file;
+        this.defaultTTL = TimeUnit.SECONDS.toMillis( defaultTTL );
+        this.locationTTLs = new HashMap<>();
+        locationTTLs.forEach( ( k, v ) -> this.locationTTLs.put( k, TimeUnit.SECONDS.toMillis( v ) ) );
+
+        if ( clear )
+        {
+            logger.info( "Clearing not-found cache {}", file );
+        }
+        else
+        {
+            load();
+        }
+    }
+
+    @Override
+    public void addMissing( final ConcreteResource resource )
+    {
+        final Location location = resource.getLocation();
+        locations.putIfAbsent( location.getUri(), location );
+        missing.computeIfAbsent( location.getUri(), k -> new ConcurrentHashMap<>() )
+               .put( resource.getPath(), System.currentTimeMillis() );
+        added.incrementAndGet();
+    }
+
+    @Override
+    public boolean isMissing( final ConcreteResource resource )
+    {
+        final Location location = resource.getLocation();
+        final Map<String, Long> paths = missing.get( location.getUri() );
+        final Long timestamp = paths == null ? null : paths.get( resource.getPath() );
+
+        if ( timestamp == null )
+        {
+            return false;
+        }
+        if ( isExpired( location.getName(), location.getUri(), timestamp, System.currentTimeMillis() ) )
+        {
+            paths.remove( resource.getPath(), timestamp );
+            return false;
+        }
+        probesSaved.incrementAndGet();
+        return true;
+    }
+
+    @Override
+    public void clearMissing( final Location location )
+    {
+        missing.remove( location.getUri() );
+    }
+
+    @Override
+    public void clearMissing( final ConcreteResource resource )
+    {
+        final Map<String, Long> paths = missing.get( resource.getLocation().getUri() );
+        if ( paths != null )
+        {
+            paths.remove( resource.getPath() );
+        }
+    }
+
+    @Override
+    public void clearAllMissing()
+    {
+        missing.clear();
+    }
+
+    @Override
+    public Map<Location, Set<String>> getAllMissing()
+    {
+        final Map<Location, Set<String>> result = new HashMap<>();
+        missing.forEach( ( uri, paths ) -> {
+            if ( !paths.isEmpty() )
+            {
+                result.put( locations.get( uri ), new HashSet<>( paths.keySet() ) );
+            }
+        } );
+        return result;
+    }
+
+    @Override
+    public Set<String> getMissing( final Location location )
+    {
+        final Map<String, Long> paths = missing.get( location.getUri() );
+        return paths == null ? Collections.emptySet() : new HashSet<>( paths.keySet() );
+    }
+
+    /**
+     * @return the number of requests that were avoided because the resource was known to be missing.
+     */
+    public long getProbesSaved()
+    {
+        return probesSaved.get();
+    }
+
+    /**
+     * Writes the cache to disk, merging any entries saved by other processes since it was loaded. Failures are logged
+     * as the cache is only an optimisation.
+     */
+    public void save()
+    {
+        final File lockFile = new File( file.getPath() + SharedFileCacheProvider.LOCK_SUFFIX );
+        try
+        {
+            Files.createDirectories( file.getAbsoluteFile().getParentFile().toPath() );
+
+            try ( FileChannel channel = FileChannel.open( lockFile.toPath(), StandardOpenOption.CREATE,
+                                                          StandardOpenOption.WRITE ); FileLock ignored = channel.lock() )
+            {
+                final long now = System.currentTimeMillis();
+
+                // Entries on disk that predate our load were either loaded or deliberately discarded.
+                read( ( location, path, timestamp ) -> {
+                    if ( timestamp > loaded )
+                    {
+                        missing.computeIfAbsent( location.getUri(), k -> new ConcurrentHashMap<>() )
+                               .merge( path, timestamp, Math::max );
+                    }
+                } );
+
+                final File temp = new File( file.getPath() + ".tmp" );
+                int count = 0;
+                try ( BufferedWriter writer = Files.newBufferedWriter( temp.toPath(), StandardCharsets.UTF_8 ) )
+                {
+                    for ( Map.Entry<String, Map<String, Long>> entry : missing.entrySet() )
+                    {
+                        final Location location = locations.get( entry.getKey() );
+                        if ( location.getUri().startsWith( "file:" ) )
+                        {
+                            continue;
+                        }
+                        for ( Map.Entry<String, Long> path : entry.getValue().entrySet() )
+                        {
+                            if ( !isExpired( location.getName(), location.getUri(), path.getValue(), now ) )
+                            {
+                                writer.write( path.getValue() + SEPARATOR + location.getName() + SEPARATOR
+                                                              + location.getUri() + SEPARATOR + path.getKey() );
+                                writer.newLine();
+                                count++;
+                            }
+                        }
+                    }
+                }
+                Files.move( temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                            StandardCopyOption.ATOMIC_MOVE );
+
+                logger.info( "Not-found cache saved {} repository requests ; recorded {} new missing resources and "
+                                             + "wrote {} entries to {}", probesSaved.get(), added.get(), count, file );
+            }
+        }
+        catch ( IOException e )
+        {
+            logger.warn( "Unable to save not-found cache {}: {}", file, e.getMessage() );
+            logger.debug( "Save failure", e );
+        }
+    }
+
+    private void load()
+    {
+        final long now = System.currentTimeMillis();
+        try
+        {
+            read( ( location, path, timestamp ) -> {
+                if ( !isExpired( location.getName(), location.getUri(), timestamp, now ) )
+                {
+                    missing.computeIfAbsent( location.getUri(), k -> new ConcurrentHashMap<>() ).put( path, timestamp );
+                }
+            } );
+            logger.debug( "Loaded not-found cache {} with {} locations", file, missing.size() );
+        }
+        catch ( IOException e )
+        {
+            logger.warn( "Unable to load not-found cache {}: {}", file, e.getMessage() );
+            logger.debug( "Load failure", e );
+        }
+    }
+
+    private void read( final EntryConsumer consumer ) throws IOException
+    {
+        if ( !file.exists() )
+        {
+            return;
+        }
+        try ( BufferedReader reader = Files.newBufferedReader( file.toPath(), StandardCharsets.UTF_8 ) )
+        {
+            String line;
+            while ( ( line = reader.readLine() ) != null )
+            {
+                final String[] parts = line.split( SEPARATOR, 4 );
+                if ( parts.length != 4 )
+                {
+                    logger.debug( "Ignoring malformed not-found cache entry {}", line );
+                    continue;
+                }
+                final Location location =
+                                locations.computeIfAbsent( parts[2], uri -> new SimpleLocation( parts[1], uri ) );
+                try
+                {
+                    consumer.accept( location, parts[3], Long.parseLong( parts[0] ) );
+                }
+                catch ( NumberFormatException e )
+                {
+                    logger.debug( "Ignoring malformed not-found cache entry {}", line );
+                }
+            }
+        }
+    }
+
+    private boolean isExpired( final String name, final String uri, final long timestamp, final long now )
+    {
+        // Local repositories are only cached for the current session.
+        if ( uri.startsWith( "file:" ) )
+        {
+            return false;
+        }
+        final long ttl = locationTTLs.getOrDefault( name, defaultTTL );
+        return now - timestamp > ttl;
+    }
+
+    @FunctionalInterface
+    private interface EntryConsumer
+    {
+        void accept( Location location, String path, long timestamp );
+    }
+}
@@ -0,0 +1,373 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.resolver;
+
+import org.commonjava.maven.galley.cache.FileCacheProvider;
+import org.commonjava.maven.galley.io.HashedLocationPathGenerator;
+import org.commonjava.maven.galley.io.NoOpTransferDecorator;
+import org.commonjava.maven.galley.model.ConcreteResource;
+import org.commonjava.maven.galley.spi.event.FileEventManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * A Galley {@link FileCacheProvider} for a cache directory that is shared between runs and between concurrent PME
+ * processes. Files are stored per repository, under a hash of the repository location, so the same path from
+ * different repositories never collides.
+ * <ul>
+ *     <li>Writes are serialised across processes with a lock file alongside the cached file ; Galley itself writes to
+ *     a temporary file which is renamed into place so readers never see a partial file.</li>
+ *     <li>Release artifacts are immutable and are kept until evicted. Metadata and snapshots are considered missing
+ *     once older than the metadata TTL, so they are downloaded again.</li>
+ *     <li>Reading a file updates its modification time so that {@link #evict(long)} can remove the least recently
+ *     used files (and their lock files) once the cache exceeds its maximum size.</li>
+ * </ul>
+ */
+public class SharedFileCacheProvider
+                extends FileCacheProvider
+{
+    static final String LOCK_SUFFIX = ".lock";
+
+    private static final String EVICTION_LOCK = ".eviction" + LOCK_SUFFIX;
+
+    /**
+     * The per repository directories created by the {@link HashedLocationPathGenerator} (a SHA-1 of the repository
+     * URI). Only these are evicted from ; anything else in the cache directory (e.g. the not-found cache, metadata
+     * indexes or the URL cache) is not a Galley artifact.
+     */
+    private static final Pattern LOCATION_DIR = Pattern.compile( "[0-9a-f]{40}" );
+
+    private static final Pattern METADATA = Pattern.compile( "maven-metadata(-[^.]+)?\\.xml(\\..+)?" );
+
+    /**
+     * Within a single JVM a file lock may only be held once, so writers for the same file are serialised here first.
+     */
+    private static final Map<String, ReentrantLock> WRITE_LOCKS = new ConcurrentHashMap<>();
+
+    private final Logger logger = LoggerFactory.getLogger( getClass() );
+
+    private final File cacheDir;
+
+    private final long metadataTTL;
+
+    /**
+     * @param cacheDir the shared cache directory.
+     * @param fileEvents the event manager.
+     * @param metadataTTL the time in seconds that metadata and snapshots are valid for ; zero or less means forever.
+     */
+    public SharedFileCacheProvider( final File cacheDir, final FileEventManager fileEvents, final long metadataTTL )
+    {
+        super( cacheDir, new HashedLocationPathGenerator(), fileEvents, new NoOpTransferDecorator() );
+        this.cacheDir = cacheDir;
+        this.metadataTTL = TimeUnit.SECONDS.toMillis( metadataTTL );
+    }
+
+    @Override
+    public boolean exists( final ConcreteResource resource )
+    {
+        if ( !super.exists( resource ) )
+        {
+            return false;
+        }
+        if ( metadataTTL > 0 && isMutable( resource.getPath() ) )
+        {
+            final File file = getDetachedFile( resource );
+            if ( System.currentTimeMillis() - file.lastModified() > metadataTTL )
+            {
+                logger.debug( "Cached copy of {} has expired", resource );
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public InputStream openInputStream( final ConcreteResource resource ) throws IOException
+    {
+        final InputStream result = super.openInputStream( resource );
+
+        // The modification time of mutable files records when they were downloaded, for expiry.
+        if ( result != null && !isMutable( resource.getPath() ) )
+        {
+            //noinspection ResultOfMethodCallIgnored
+            getDetachedFile( resource ).setLastModified( System.currentTimeMillis() );
+        }
+        return result;
+    }
+
+    @Override
+    public OutputStream openOutputStream( final ConcreteResource resource ) throws IOException
+    {
+        final File file = getDetachedFile( resource );
+        final ReentrantLock threadLock = WRITE_LOCKS.computeIfAbsent( file.getAbsolutePath(), k -> new ReentrantLock() );
+
+        threadLock.lock();
+        FileChannel channel = null;
+        try
+        {
+            Files.createDirectories( file.getParentFile().toPath() );
+            channel = FileChannel.open( new File( file.getPath() + LOCK_SUFFIX ).toPath(), StandardOpenOption.CREATE,
+                                        StandardOpenOption.WRITE );
+            final FileLock fileLock = channel.lock();
+            final FileChannel lockChannel = channel;
+
+            return new FilterOutputStream( super.openOutputStream( resource ) )
+            {
+                private boolean closed;
+
+                @Override
+                public void write( byte[] b, int off, int len ) throws IOException
+                {
+                    out.write( b, off, len );
+                }
+
+                @Override
+                public void close() throws IOException
+                {
+                    if ( closed )
+                    {
+                        return;
+                    }
+                    closed = true;
+                    try
+                    {
+                        super.close();
+                    }
+                    finally
+                    {
+                        fileLock.release();
+                        lockChannel.close();
+                        threadLock.unlock();
+                    }
+                }
+            };
+        }
+        catch ( IOException | RuntimeException e )
+        {
+            if ( channel != null )
+            {
+                channel.close();
+            }
+            threadLock.unlock();
+            throw e;
+        }
+    }
+
+    /**
+     * Deletes the least recently used files until the cache is no larger than the given size. If another process is
+     * already evicting this does nothing.
+     *
+     * @param maximumSize the maximum size in bytes ; zero or less is unbounded.
+     * @return the number of bytes removed.
+     */
+    public long evict( final long maximumSize )
+    {
+        if ( maximumSize <= 0 || !cacheDir.isDirectory() )
+        {
+            return 0;
+        }
+
+        try ( FileChannel channel = FileChannel.open( new File( cacheDir, EVICTION_LOCK ).toPath(),
+                                                      StandardOpenOption.CREATE, StandardOpenOption.WRITE ) )
+        {
+            final FileLock lock = channel.tryLock();
+            if ( lock == null )
+            {
+                logger.debug( "Cache eviction already running in another process" );
+                return 0;
+            }
+            try
+            {
+                return evictUnlocked( maximumSize );
+            }
+            finally
+            {
+                lock.release();
+            }
+        }
+        catch ( IOException e )
+        {
+            logger.warn( "Unable to evict files from cache {}: {}", cacheDir, e.getMessage() );
+            logger.debug( "Eviction failure", e );
+            return 0;
+        }
+    }
+
+    private long evictUnlocked( final long maximumSize ) throws IOException
+    {
+        final List<Path> files = new ArrayList<>();
+        final Set<Path> locks = new HashSet<>();
+        final Map<Path, BasicFileAttributes> attributes = new ConcurrentHashMap<>();
+        final Path root = cacheDir.toPath();
+
+        Files.walkFileTree( root, new SimpleFileVisitor<Path>()
+        {
+            @Override
+            public FileVisitResult preVisitDirectory( Path dir, BasicFileAttributes attrs )
+            {
+                if ( root.equals( dir.getParent() ) && !LOCATION_DIR.matcher( dir.getFileName().toString() ).matches() )
+                {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile( Path file, BasicFileAttributes attrs )
+            {
+                if ( root.equals( file.getParent() ) )
+                {
+                    // Bookkeeping files of this and the other caches.
+                    return FileVisitResult.CONTINUE;
+                }
+                if ( file.getFileName().toString().endsWith( LOCK_SUFFIX ) )
+                {
+                    locks.add( file );
+                }
+                else
+                {
+                    files.add( file );
+                    attributes.put( file, attrs );
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed( Path file, IOException exc )
+            {
+                // Concurrently deleted or renamed by another process.
+                return FileVisitResult.CONTINUE;
+            }
+        } );
+
+        // Lock files whose artifact has already gone (e.g. a failed download) are no longer needed.
+        for ( Path lock : locks )
+        {
+            final String name = lock.getFileName().toString();
+            final Path file = lock.resolveSibling( name.substring( 0, name.length() - LOCK_SUFFIX.length() ) );
+            if ( !attributes.containsKey( file ) )
+            {
+                delete( file, lock );
+            }
+        }
+
+        long size = files.stream().mapToLong( f -> attributes.get( f ).size() ).sum();
+        if ( size <= maximumSize )
+        {
+            logger.debug( "Cache {} is {} bytes ; no eviction required", cacheDir, size );
+            return 0;
+        }
+
+        files.sort( Comparator.comparing( f -> attributes.get( f ).lastModifiedTime() ) );
+
+        long removed = 0;
+        int count = 0;
+        for ( Path file : files )
+        {
+            if ( size - removed <= maximumSize )
+            {
+                break;
+            }
+            final Path lock = file.resolveSibling( file.getFileName() + LOCK_SUFFIX );
+            if ( delete( file, locks.contains( lock ) ? lock : null ) )
+            {
+                removed += attributes.get( file ).size();
+                count++;
+            }
+        }
+        logger.info( "Evicted {} files ({} bytes) from cache {}", count, removed, cacheDir );
+        return removed;
+    }
+
+    /**
+     * Deletes a cached file together with the lock file guarding it, unless it is currently being written.
+     *
+     * @param file the cached file.
+     * @param lock its lock file, or null if there is none.
+     * @return true if the cached file was deleted.
+     */
+    private boolean delete( final Path file, final Path lock ) throws IOException
+    {
+        if ( lock == null )
+        {
+            return Files.deleteIfExists( file );
+        }
+        try ( FileChannel channel = FileChannel.open( lock, StandardOpenOption.WRITE ) )
+        {
+            final FileLock fileLock = channel.tryLock();
+            if ( fileLock == null )
+            {
+                logger.debug( "Not evicting {} as it is being written", file );
+                return false;
+            }
+            try
+            {
+                final boolean result = Files.deleteIfExists( file );
+                Files.deleteIfExists( lock );
+                return result;
+            }
+            finally
+            {
+                fileLock.release();
+            }
+        }
+        catch ( OverlappingFileLockException e )
+        {
+            logger.debug( "Not evicting {} as it is being written", file );
+            return false;
+        }
+        catch ( NoSuchFileException e )
+        {
+            // Concurrently deleted by another process.
+            return Files.deleteIfExists( file );
+        }
+    }
+
+    /**
+     * @param path the path of a cached file.
+     * @return true if the content at the path may change, i.e. it is metadata or a snapshot.
+     */
+    static boolean isMutable( final String path )
+    {
+        return METADATA.matcher( path.substring( path.lastIndexOf( '/' ) + 1 ) ).matches() || path.contains( "-SNAPSHOT" );
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.resolver;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Collapses concurrent loads of the same key into one: the first caller loads the value and any others wait for its
+ * result. Successful results are then kept for a short time ; failures are not kept. Expired results are swept
+ * (at most once a second, or once per TTL if shorter) whenever a new load starts so the map only holds recent results.
+ *
+ * @param <K> the key type.
+ * @param <V> the value type.
+ * @param <E> the checked exception thrown by the loader.
+ */
+final class SingleFlight<K, V, E extends Exception>
+{
+    @FunctionalInterface
+    interface Loader<K, V, E extends Exception>
+    {
+        V load( K key ) throws E;
+    }
+
+    private static final long SWEEP_INTERVAL = 1000;
+
+    private final String name;
+
+    private final Class<E> exceptionType;
+
+    private final LongSupplier ttlMillis;
+
+    private final Map<K, Flight<V>> flights = new ConcurrentHashMap<>();
+
+    private final AtomicLong loads = new AtomicLong();
+
+    private final AtomicLong cached = new AtomicLong();
+
+    private final AtomicLong collapsed = new AtomicLong();
+
+    private final AtomicLong totalWait = new AtomicLong();
+
+    private final AtomicLong maxWait = new AtomicLong();
+
+    private final AtomicLong nextSweep = new AtomicLong();
+
+    /**
+     * @param name the name used in {@link #toString()}.
+     * @param exceptionType the checked exception thrown by loaders, rethrown as is to waiting callers.
+     * @param ttlMillis how long a result is kept once loaded ; zero or less only collapses concurrent loads.
+     */
+    SingleFlight( final String name, final Class<E> exceptionType, final LongSupplier ttlMillis )
+    {
+        this.name = name;
+        this.exceptionType = exceptionType;
+        this.ttlMillis = ttlMillis;
+    }
+
+    V get( final K key, final Loader<K, V, E> loader ) throws E
+    {
+        final Flight<V> flight = new Flight<>();
+        Flight<V> existing = flights.putIfAbsent( key, flight );
+
+        while ( existing != null && existing.isExpired( ttlMillis.getAsLong() ) )
+        {
+            flights.remove( key, existing );
+            existing = flights.putIfAbsent( key, flight );
+        }
+
+        if ( existing == null )
+        {
+            loads.incrementAndGet();
+            sweep();
+            try
+            {
+                final V value = loader.load( key );
+                flight.complete( value );
+                if ( ttlMillis.getAsLong() <= 0 )
+                {
+                    flights.remove( key, flight );
+                }
+                return value;
+            }
+            catch ( Throwable e )
+            {
+                // Includes errors, as otherwise any waiting (or later) caller would block forever.
+                flights.remove( key, flight );
+                flight.future.completeExceptionally( e );
+                throw e;
+            }
+        }
+
+        if ( existing.future.isDone() )
+        {
+            cached.incrementAndGet();
+        }
+        else
+        {
+            collapsed.incrementAndGet();
+        }
+
+        final long start = System.nanoTime();
+        try
+        {
+            return existing.future.get();
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException( "Interrupted waiting for " + key, e );
+        }
+        catch ( ExecutionException e )
+        {
+            if ( exceptionType.isInstance( e.getCause() ) )
+            {
+                throw exceptionType.cast( e.getCause() );
+            }
+            else if ( e.getCause() instanceof RuntimeException )
+            {
+                throw (RuntimeException) e.getCause();
+            }
+            else if ( e.getCause() instanceof Error )
+            {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException( "Concurrent load of " + key + " failed", e.getCause() );
+        }
+        finally
+        {
+            final long wait = System.nanoTime() - start;
+            totalWait.addAndGet( wait );
+            maxWait.accumulateAndGet( wait, Math::max );
+        }
+    }
+
+    void clear()
+    {
+        flights.clear();
+    }
+
+    /**
+     * @return the number of results (or loads in progress) currently held.
+     */
+    int size()
+    {
+        return flights.size();
+    }
+
+    private void sweep()
+    {
+        final long now = System.currentTimeMillis();
+        final long next = nextSweep.get();
+        final long ttl = ttlMillis.getAsLong();
+
+        if ( now >= next && nextSweep.compareAndSet( next, now + Math.min( SWEEP_INTERVAL, Math.max( ttl, 0 ) ) ) )
+        {
+            flights.values().removeIf( f -> f.isExpired( ttl ) );
+        }
+    }
+
+    /**
+     * @return the number of loads performed.
+     */
+    long getLoads()
+    {
+        return loads.get();
+    }
+
+    /**
+     * @return the number of requests answered from a completed, unexpired result.
+     */
+    long getCached()
+    {
+        return cached.get();
+    }
+
+    /**
+     * @return the number of requests that waited on another caller's load.
+     */
+    long getCollapsed()
+    {
+        return collapsed.get();
+    }
+
+    @Override
+    public String toString()
+    {
+        return name + ": loads=" + loads.get() + ", cached=" + cached.get() + ", collapsed=" + collapsed.get()
+                        + ", totalWait=" + TimeUnit.NANOSECONDS.toMillis( totalWait.get() ) + "ms, maxWait="
+                        + TimeUnit.NANOSECONDS.toMillis( maxWait.get() ) + "ms";
+    }
+
+    private static final class Flight<V>
+    {
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+
+        private volatile long completed;
+
+        private void complete( final V value )
+        {
+            completed = System.currentTimeMillis();
+            future.complete( value );
+        }
+
+        private boolean isExpired( final long ttl )
+        {
+            return future.isDone() && !future.isCompletedExceptionally()
+                            && System.currentTimeMillis() - completed > Math.max( ttl, 0 );
+        }
+    }
+}
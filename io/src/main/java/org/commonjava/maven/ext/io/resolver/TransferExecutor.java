@@ -0,0 +1,443 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.resolver;
+
+import org.commonjava.maven.galley.model.Transfer;
+import org.commonjava.maven.galley.spi.transport.DownloadJob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executor for Galley transport jobs. At most {@code maxTransfers} jobs run at once, and at most {@code maxPerHost}
+ * against a single repository host ; further jobs are queued in submission order until a slot is free. Jobs run on
+ * a fixed pool of platform threads or, where requested and available (JDK 21+), on virtual threads.
+ * <p>
+ * Only leaf transport jobs should be submitted here: a job that itself submits and waits for another could otherwise
+ * occupy every slot.
+ * <p>
+ * Galley waits on a download with {@link Future#get(long, TimeUnit)}. So that a job which is still queued behind the
+ * limits is not reported as timed out before it has run, the timeout of the returned futures only starts once the
+ * job does.
+ */
+public class TransferExecutor
+                extends AbstractExecutorService
+{
+    private static final String OTHER_HOST = "";
+
+    private final Logger logger = LoggerFactory.getLogger( getClass() );
+
+    private final ExecutorService delegate;
+
+    private final int maxTransfers;
+
+    private final int maxPerHost;
+
+    private final boolean virtual;
+
+    /**
+     * Guarded by this.
+     */
+    private final Deque<Task<?>> waiting = new ArrayDeque<>();
+
+    /**
+     * Guarded by this.
+     */
+    private final Map<String, Integer> activePerHost = new HashMap<>();
+
+    /**
+     * Guarded by this.
+     */
+    private int active;
+
+    /**
+     * Guarded by this.
+     */
+    private boolean shutdown;
+
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+
+    private final AtomicLong completed = new AtomicLong();
+
+    private final AtomicLong totalLatency = new AtomicLong();
+
+    private final AtomicLong maxLatency = new AtomicLong();
+
+    private final AtomicLong totalQueueTime = new AtomicLong();
+
+    /**
+     * @param maxTransfers the maximum number of concurrent transfers.
+     * @param maxPerHost the maximum number of concurrent transfers to a single host.
+     * @param virtualThreads whether to run transfers on virtual threads if the JVM supports them.
+     */
+    public TransferExecutor( final int maxTransfers, final int maxPerHost, final boolean virtualThreads )
+    {
+        if ( maxTransfers < 1 || maxPerHost < 1 )
+        {
+            throw new IllegalArgumentException(
+                            "Transfer limits must be positive but were " + maxTransfers + " and " + maxPerHost );
+        }
+        this.maxTransfers = maxTransfers;
+        this.maxPerHost = Math.min( maxTransfers, maxPerHost );
+
+        ExecutorService virtualExecutor = virtualThreads ? newVirtualThreadExecutor() : null;
+        this.virtual = virtualExecutor != null;
+        this.delegate = virtual ? virtualExecutor : Executors.newFixedThreadPool( maxTransfers, new ThreadFactory()
+        {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread( Runnable r )
+            {
+                Thread t = new Thread( r, "pme-transfer-" + count.incrementAndGet() );
+                t.setDaemon( true );
+                return t;
+            }
+        } );
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor( final Callable<T> callable )
+    {
+        return new Task<>( callable, hostOf( callable ) );
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor( final Runnable runnable, final T value )
+    {
+        return new Task<>( Executors.callable( runnable, value ), OTHER_HOST );
+    }
+
+    @Override
+    public void execute( final Runnable command )
+    {
+        final Task<?> task = command instanceof Task ? (Task<?>) command : (Task<?>) newTaskFor( command, null );
+
+        synchronized ( this )
+        {
+            if ( shutdown )
+            {
+                throw new RejectedExecutionException( "Transfer executor has been shut down" );
+            }
+            else if ( hasCapacity( task.host ) )
+            {
+                start( task );
+            }
+            else
+            {
+                waiting.add( task );
+                maxQueueDepth.accumulateAndGet( waiting.size(), Math::max );
+            }
+        }
+    }
+
+    private boolean hasCapacity( final String host )
+    {
+        return active < maxTransfers && activePerHost.getOrDefault( host, 0 ) < maxPerHost;
+    }
+
+    /**
+     * Must be called while holding the lock.
+     */
+    private void start( final Task<?> task )
+    {
+        active++;
+        activePerHost.merge( task.host, 1, Integer::sum );
+        delegate.execute( () -> {
+            try
+            {
+                task.run();
+            }
+            finally
+            {
+                finished( task );
+            }
+        } );
+    }
+
+    private synchronized void finished( final Task<?> task )
+    {
+        active--;
+        activePerHost.computeIfPresent( task.host, ( k, v ) -> v == 1 ? null : v - 1 );
+
+        final Iterator<Task<?>> i = waiting.iterator();
+        while ( i.hasNext() && active < maxTransfers )
+        {
+            final Task<?> next = i.next();
+            if ( hasCapacity( next.host ) )
+            {
+                i.remove();
+                start( next );
+            }
+        }
+        if ( shutdown && waiting.isEmpty() )
+        {
+            delegate.shutdown();
+        }
+    }
+
+    /**
+     * @return the number of transfers waiting for a free slot.
+     */
+    public synchronized int getQueueDepth()
+    {
+        return waiting.size();
+    }
+
+    /**
+     * @return the largest number of transfers that have waited for a free slot at once.
+     */
+    public int getMaxQueueDepth()
+    {
+        return maxQueueDepth.get();
+    }
+
+    /**
+     * @return the number of transfers currently running.
+     */
+    public synchronized int getActiveTransfers()
+    {
+        return active;
+    }
+
+    /**
+     * @return the number of transfers that have finished, successfully or not.
+     */
+    public long getCompletedTransfers()
+    {
+        return completed.get();
+    }
+
+    /**
+     * @return the mean time in milliseconds a transfer took to run, excluding time spent queued.
+     */
+    public long getMeanLatency()
+    {
+        final long count = completed.get();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis( totalLatency.get() / count );
+    }
+
+    /**
+     * @return the longest time in milliseconds a transfer took to run.
+     */
+    public long getMaxLatency()
+    {
+        return TimeUnit.NANOSECONDS.toMillis( maxLatency.get() );
+    }
+
+    /**
+     * @return the mean time in milliseconds a transfer waited before running.
+     */
+    public long getMeanQueueTime()
+    {
+        final long count = completed.get();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis( totalQueueTime.get() / count );
+    }
+
+    public boolean isVirtual()
+    {
+        return virtual;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "TransferExecutor[" + ( virtual ? "virtual" : "platform" ) + " threads, maxTransfers=" + maxTransfers
+                        + ", maxPerHost=" + maxPerHost + ", completed=" + getCompletedTransfers() + ", active="
+                        + getActiveTransfers() + ", queued=" + getQueueDepth() + ", maxQueued=" + getMaxQueueDepth()
+                        + ", meanLatency=" + getMeanLatency() + "ms, maxLatency=" + getMaxLatency()
+                        + "ms, meanQueueTime=" + getMeanQueueTime() + "ms]";
+    }
+
+    /**
+     * Stops accepting transfers. Those already queued are still run.
+     */
+    @Override
+    public synchronized void shutdown()
+    {
+        shutdown = true;
+        if ( waiting.isEmpty() )
+        {
+            delegate.shutdown();
+        }
+    }
+
+    @Override
+    public synchronized List<Runnable> shutdownNow()
+    {
+        shutdown = true;
+        final List<Runnable> result = new ArrayList<>( waiting );
+        waiting.clear();
+        result.addAll( delegate.shutdownNow() );
+        return result;
+    }
+
+    @Override
+    public synchronized boolean isShutdown()
+    {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated()
+    {
+        return isShutdown() && delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination( final long timeout, final TimeUnit unit ) throws InterruptedException
+    {
+        return delegate.awaitTermination( timeout, unit );
+    }
+
+    /**
+     * @param job the job to be run.
+     * @return the host the job transfers from, or an empty string if unknown.
+     */
+    static String hostOf( final Object job )
+    {
+        if ( job instanceof DownloadJob )
+        {
+            final Transfer transfer = ( (DownloadJob) job ).getTransfer();
+            if ( transfer != null && transfer.getLocation() != null && transfer.getLocation().getUri() != null )
+            {
+                final String uri = transfer.getLocation().getUri();
+                try
+                {
+                    final String host = new URI( uri ).getHost();
+                    return host == null ? uri : host;
+                }
+                catch ( Exception e )
+                {
+                    return uri;
+                }
+            }
+        }
+        return OTHER_HOST;
+    }
+
+    private ExecutorService newVirtualThreadExecutor()
+    {
+        try
+        {
+            // Looked up reflectively so that we still build and run on Java 8.
+            return (ExecutorService) Executors.class.getMethod( "newVirtualThreadPerTaskExecutor" ).invoke( null );
+        }
+        catch ( ReflectiveOperationException e )
+        {
+            logger.warn( "Virtual threads are not available on Java {} ; using platform threads",
+                         System.getProperty( "java.version" ) );
+            return null;
+        }
+    }
+
+    private final class Task<T>
+                    extends FutureTask<T>
+    {
+        private final String host;
+
+        private final long submitted = System.nanoTime();
+
+        private final CountDownLatch running = new CountDownLatch( 1 );
+
+        private volatile long started;
+
+        private Task( final Callable<T> callable, final String host )
+        {
+            super( callable );
+            this.host = host;
+        }
+
+        @Override
+        public void run()
+        {
+            started = System.nanoTime();
+            running.countDown();
+            super.run();
+        }
+
+        @Override
+        protected void done()
+        {
+            running.countDown();
+        }
+
+        /**
+         * Waits, without a limit, for the job to leave the queue and then at most {@code timeout} from the time it
+         * started.
+         */
+        @Override
+        public T get( final long timeout, final TimeUnit unit )
+                        throws InterruptedException, ExecutionException, TimeoutException
+        {
+            running.await();
+            if ( started == 0 )
+            {
+                // Cancelled while queued.
+                return super.get( 0, TimeUnit.NANOSECONDS );
+            }
+            final long remaining = unit.toNanos( timeout ) - ( System.nanoTime() - started );
+            return super.get( Math.max( 0, remaining ), TimeUnit.NANOSECONDS );
+        }
+
+        // Recorded before the result is published so that a caller sees its own transfer in the statistics.
+        @Override
+        protected void set( final T result )
+        {
+            record();
+            super.set( result );
+        }
+
+        @Override
+        protected void setException( final Throwable t )
+        {
+            record();
+            super.setException( t );
+        }
+
+        private void record()
+        {
+            final long latency = System.nanoTime() - started;
+            totalQueueTime.addAndGet( started - submitted );
+            totalLatency.addAndGet( latency );
+            maxLatency.accumulateAndGet( latency, Math::max );
+            completed.incrementAndGet();
+        }
+    }
+}
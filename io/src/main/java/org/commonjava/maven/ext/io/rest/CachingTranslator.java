@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.rest;
+
+import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Memoizing {@link Translator} that wraps another translator for the lifetime of a session. Each GAV is only sent to
+ * the delegate once per endpoint ; later lookups, including of GAVs that had no match, are answered from memory. If
+ * a GAV is already being looked up by another thread the caller waits for that request rather than sending its own.
+ * <p>
+ * Failed lookups are not cached so that a subsequent call will retry them.
+ */
+public class CachingTranslator
+                implements Translator
+{
+    @FunctionalInterface
+    private interface Lookup
+    {
+        Map<ProjectVersionRef, String> apply( List<ProjectVersionRef> projects ) throws RestException;
+    }
+
+    private final Logger logger = LoggerFactory.getLogger( getClass() );
+
+    private final Translator delegate;
+
+    private final Map<ProjectVersionRef, CompletableFuture<Optional<String>>> versions = new ConcurrentHashMap<>();
+
+    private final Map<ProjectVersionRef, CompletableFuture<Optional<String>>> projectVersions = new ConcurrentHashMap<>();
+
+    private final AtomicInteger hits = new AtomicInteger();
+
+    private final AtomicInteger misses = new AtomicInteger();
+
+    public CachingTranslator( Translator delegate )
+    {
+        this.delegate = delegate;
+    }
+
+    public Translator getDelegate()
+    {
+        return delegate;
+    }
+
+    /**
+     * @return the number of GAVs answered from memory or by waiting on another in-flight lookup.
+     */
+    public int getHits()
+    {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of GAVs passed to the delegate translator.
+     */
+    public int getMisses()
+    {
+        return misses.get();
+    }
+
+    @Override
+    public Map<ProjectVersionRef, String> lookupVersions( List<ProjectVersionRef> projects ) throws RestException
+    {
+        return lookup( versions, projects, delegate::lookupVersions );
+    }
+
+    @Override
+    public Map<ProjectVersionRef, String> lookupProjectVersions( List<ProjectVersionRef> projects ) throws RestException
+    {
+        return lookup( projectVersions, projects, delegate::lookupProjectVersions );
+    }
+
+    private Map<ProjectVersionRef, String> lookup( Map<ProjectVersionRef, CompletableFuture<Optional<String>>> cache,
+                                                   List<ProjectVersionRef> projects, Lookup lookup )
+                    throws RestException
+    {
+        final Map<ProjectVersionRef, CompletableFuture<Optional<String>>> pending = new LinkedHashMap<>();
+        final Map<ProjectVersionRef, CompletableFuture<Optional<String>>> owned = new LinkedHashMap<>();
+        final Map<ProjectVersionRef, String> result = new HashMap<>();
+
+        for ( ProjectVersionRef project : projects )
+        {
+            if ( pending.containsKey( project ) )
+            {
+                continue;
+            }
+            final CompletableFuture<Optional<String>> future = new CompletableFuture<>();
+            final CompletableFuture<Optional<String>> existing = cache.putIfAbsent( project, future );
+
+            if ( existing == null )
+            {
+                owned.put( project, future );
+                pending.put( project, future );
+            }
+            else
+            {
+                pending.put( project, existing );
+            }
+        }
+        hits.addAndGet( pending.size() - owned.size() );
+        misses.addAndGet( owned.size() );
+
+        if ( !owned.isEmpty() )
+        {
+            logger.debug( "Looking up {} GAVs ; {} already resolved or in-flight", owned.size(),
+                          pending.size() - owned.size() );
+            try
+            {
+                final Map<ProjectVersionRef, String> translated = lookup.apply( new ArrayList<>( owned.keySet() ) );
+
+                owned.forEach( ( project, future ) -> future.complete( Optional.ofNullable( translated.get( project ) ) ) );
+                // Retain any results the server keyed differently to the request.
+                result.putAll( translated );
+            }
+            catch ( RestException | RuntimeException e )
+            {
+                owned.forEach( ( project, future ) -> {
+                    cache.remove( project, future );
+                    future.completeExceptionally( e );
+                } );
+                throw e;
+            }
+        }
+        else
+        {
+            logger.debug( "All {} GAVs already resolved or in-flight", pending.size() );
+        }
+
+        for ( Map.Entry<ProjectVersionRef, CompletableFuture<Optional<String>>> entry : pending.entrySet() )
+        {
+            if ( owned.containsKey( entry.getKey() ) )
+            {
+                continue;
+            }
+            try
+            {
+                entry.getValue().get().ifPresent( v -> result.put( entry.getKey(), v ) );
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                throw new RestException( "Interrupted waiting for lookup of {}", entry.getKey(), e );
+            }
+            catch ( ExecutionException e )
+            {
+                throw new RestException( "Concurrent lookup of {} failed", entry.getKey(), e.getCause() );
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Discards every cached result.
+     */
+    public void clear()
+    {
+        versions.clear();
+        projectVersions.clear();
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.rest;
+
+import lombok.Getter;
+
+/**
+ * Configures the connection pool of the dedicated HTTP client created by {@link DefaultTranslator}. Connections are
+ * kept alive and reused between chunks, retries and hedged requests ; idle connections are evicted in the background
+ * so that a connection closed by the server (or an intermediate proxy) is not handed out again.
+ */
+@Getter
+public class ConnectionPolicy
+{
+    /**
+     * Matches the pool size used by the shared Unirest client.
+     */
+    public static final int DEFAULT_MAX_CONNECTIONS = 200;
+
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 20;
+
+    public static final int DEFAULT_IDLE_TIMEOUT_SEC = 30;
+
+    private final int maxConnections;
+
+    private final int maxConnectionsPerRoute;
+
+    private final int idleTimeout;
+
+    private final int timeToLive;
+
+    /**
+     * @param maxConnections the maximum number of pooled connections.
+     * @param maxConnectionsPerRoute the maximum number of pooled connections to a single host.
+     * @param idleTimeout the time in seconds after which an idle connection is closed ; zero disables eviction.
+     * @param timeToLive the maximum lifetime in seconds of a connection ; zero or less is unlimited.
+     */
+    public ConnectionPolicy( int maxConnections, int maxConnectionsPerRoute, int idleTimeout, int timeToLive )
+    {
+        if ( maxConnections < 1 || maxConnectionsPerRoute < 1 )
+        {
+            throw new IllegalArgumentException(
+                            "Connection pool sizes must be positive but were " + maxConnections + " and "
+                                            + maxConnectionsPerRoute );
+        }
+        this.maxConnections = maxConnections;
+        this.maxConnectionsPerRoute = Math.min( maxConnections, maxConnectionsPerRoute );
+        this.idleTimeout = idleTimeout;
+        this.timeToLive = timeToLive;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ConnectionPolicy[maxConnections=" + maxConnections + ", maxConnectionsPerRoute="
+                        + maxConnectionsPerRoute + ", idleTimeout=" + idleTimeout + ", timeToLive=" + timeToLive + ']';
+    }
+}
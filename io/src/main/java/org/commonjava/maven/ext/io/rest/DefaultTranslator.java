@@ -19,9 +19,14 @@ import com.redhat.resilience.otel.OTelCLIHelper;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.SpanContext;
 import kong.unirest.GenericType;
+import kong.unirest.HttpRequestWithBody;
 import kong.unirest.HttpResponse;
+import kong.unirest.RequestBodyEntity;
 import kong.unirest.Unirest;
 import kong.unirest.UnirestException;
+import kong.unirest.UnirestInstance;
+import kong.unirest.UnirestParsingException;
+import kong.unirest.apache.ApacheClient;
 import lombok.Getter;
 import org.apache.http.HttpStatus;
 import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
@@ -36,16 +41,28 @@ import org.jboss.da.lookup.model.MavenLookupRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 import static org.apache.commons.lang.StringUtils.isNotBlank;
 import static org.apache.http.HttpStatus.SC_OK;
@@ -62,6 +79,12 @@ public class DefaultTranslator
     {
     };
 
+    private static final int MAXIMUM_LATENCY_SAMPLES = 256;
+
+    private static final InternalObjectMapper OBJECT_MAPPER = new InternalObjectMapper( new com.fasterxml.jackson.databind.ObjectMapper() );
+
+    private static final String GZIP = "gzip";
+
     public enum Endpoint
     {
         LOOKUP_GAVS ("lookup/maven"),
@@ -104,6 +127,39 @@ public class DefaultTranslator
 
     private final int restSocketTimeout;
 
+    /**
+     * Latencies (in milliseconds) of the most recently completed chunks ; used to compute the hedging threshold.
+     */
+    private final Deque<Long> chunkLatencies = new ArrayDeque<>();
+
+    private final AtomicInteger hedgedRequests = new AtomicInteger();
+
+    private final AtomicInteger hedgesWon = new AtomicInteger();
+
+    private final AtomicInteger hedgesWasted = new AtomicInteger();
+
+    private final AtomicInteger hedgesFailed = new AtomicInteger();
+
+    /**
+     * Runs the original and hedged requests once hedging is enabled ; released by {@link #shutdown()}.
+     */
+    private ExecutorService hedgingExecutor;
+
+    private HedgingPolicy hedgingPolicy = HedgingPolicy.DISABLED;
+
+    /**
+     * Whether request bodies are gzip compressed ; disabled automatically if the server rejects them.
+     */
+    private volatile boolean compression;
+
+    /**
+     * If set, requests are sent through a dedicated client with this pool configuration rather than the shared
+     * Unirest client.
+     */
+    private ConnectionPolicy connectionPolicy;
+
+    private UnirestInstance client;
+
     static
     {
         // According to https://kong.github.io/unirest-java/#configuration the default connection timeout is 10000
@@ -112,7 +168,7 @@ public class DefaultTranslator
         Unirest.config()
                .socketTimeout( 600000 )
                .connectTimeout( 30000 )
-               .setObjectMapper( new InternalObjectMapper( new com.fasterxml.jackson.databind.ObjectMapper() ) );
+               .setObjectMapper( OBJECT_MAPPER );
     }
 
     /**
@@ -165,6 +221,141 @@ public class DefaultTranslator
         }
     }
 
+    /**
+     * @param hedgingPolicy the policy controlling whether slow chunks are hedged with a duplicate request.
+     */
+    public void setHedgingPolicy( HedgingPolicy hedgingPolicy )
+    {
+        this.hedgingPolicy = hedgingPolicy;
+    }
+
+    /**
+     * @param compression whether to gzip compress the request bodies and explicitly request gzip encoded responses.
+     *                    If the server rejects a compressed request it is retried uncompressed and compression is
+     *                    disabled for subsequent requests.
+     */
+    public void setCompression( boolean compression )
+    {
+        this.compression = compression;
+    }
+
+    public boolean isCompression()
+    {
+        return compression;
+    }
+
+    /**
+     * Configures a dedicated HTTP client for this translator instead of the shared Unirest client. The client is
+     * created on first use and must be released with {@link #shutdown()}.
+     *
+     * @param connectionPolicy the connection pool configuration.
+     */
+    public synchronized void setConnectionPolicy( ConnectionPolicy connectionPolicy )
+    {
+        shutdown();
+        this.connectionPolicy = connectionPolicy;
+    }
+
+    /**
+     * Closes the dedicated HTTP client, if one has been created, and its pooled connections, and releases the
+     * hedging threads. A new client is created if further requests are made.
+     */
+    public synchronized void shutdown()
+    {
+        if ( client != null )
+        {
+            logger.debug( "Shutting down REST client" );
+            client.shutDown();
+            client = null;
+        }
+        if ( hedgingExecutor != null )
+        {
+            logger.debug( "REST client hedged {} requests of which {} won, {} were wasted and {} failed",
+                          hedgedRequests.get(), hedgesWon.get(), hedgesWasted.get(), hedgesFailed.get() );
+            // Let any request that lost a hedging race run to completion ; they cannot be aborted.
+            hedgingExecutor.shutdown();
+            hedgingExecutor = null;
+        }
+    }
+
+    private synchronized ExecutorService getHedgingExecutor()
+    {
+        if ( hedgingExecutor == null )
+        {
+            hedgingExecutor = Executors.newCachedThreadPool( r -> {
+                Thread t = new Thread( r, "pme-rest-hedging" );
+                t.setDaemon( true );
+                return t;
+            } );
+        }
+        return hedgingExecutor;
+    }
+
+    private synchronized UnirestInstance getClient()
+    {
+        if ( connectionPolicy == null )
+        {
+            return Unirest.primaryInstance();
+        }
+        if ( client == null )
+        {
+            logger.debug( "Creating REST client with {}", connectionPolicy );
+
+            final ConnectionPolicy policy = connectionPolicy;
+            client = Unirest.spawnInstance();
+            client.config()
+                  .socketTimeout( restSocketTimeout * 1000 )
+                  .connectTimeout( restConnectionTimeout * 1000 )
+                  .setObjectMapper( OBJECT_MAPPER )
+                  .concurrency( policy.getMaxConnections(), policy.getMaxConnectionsPerRoute() )
+                  .addShutdownHook( false )
+                  .httpClient( config -> new ApacheClient( config, builder -> {
+                      builder.evictExpiredConnections();
+                      if ( policy.getIdleTimeout() > 0 )
+                      {
+                          builder.evictIdleConnections( policy.getIdleTimeout(), TimeUnit.SECONDS );
+                      }
+                  } ) );
+            if ( policy.getTimeToLive() > 0 )
+            {
+                client.config().connectionTTL( policy.getTimeToLive(), TimeUnit.SECONDS );
+            }
+        }
+        return client;
+    }
+
+    /**
+     * @return the number of chunks for which a hedged request has been sent.
+     */
+    public int getHedgedRequests()
+    {
+        return hedgedRequests.get();
+    }
+
+    /**
+     * @return the number of hedged requests that returned before the original request.
+     */
+    public int getHedgesWon()
+    {
+        return hedgesWon.get();
+    }
+
+    /**
+     * @return the number of hedged requests that were discarded as the original request returned first.
+     */
+    public int getHedgesWasted()
+    {
+        return hedgesWasted.get();
+    }
+
+    /**
+     * @return the number of hedged chunks for which both the original and the hedged request failed.
+     */
+    public int getHedgesFailed()
+    {
+        return hedgesFailed.get();
+    }
+
     /**
      * Translate the versions.
      * <pre>
@@ -300,6 +491,8 @@ public class DefaultTranslator
 
         boolean finishedSuccessfully = false;
 
+        final ExecutorService executor = hedgingPolicy.isEnabled() ? getHedgingExecutor() : null;
+
         try
         {
 
@@ -307,8 +500,7 @@ public class DefaultTranslator
 
             while ( !queue.isEmpty() )
             {
-                Task task = queue.remove();
-                task.executeTranslate();
+                Task task = execute( endpointType, queue.remove(), executor );
                 if ( task.isSuccess() )
                 {
                     result.putAll( task.getResult() );
@@ -358,11 +550,195 @@ public class DefaultTranslator
         return result;
     }
 
+    /**
+     * Executes the task. If hedging is enabled and the task has not completed within the hedging threshold a
+     * duplicate request (split if configured) is sent ; the first successful response is used and the other is
+     * ignored. As the blocking HTTP call cannot be aborted the losing request still runs to completion (bounded by
+     * the socket timeout) in the background.
+     *
+     * @param endpointType the endpoint to call
+     * @param task the task to execute
+     * @param executor the executor to run the hedged requests on ; null if hedging is disabled.
+     * @return the task holding the result ; this may be a different instance to the original task.
+     * @throws RestException if the wait is interrupted.
+     */
+    private Task execute( Endpoint endpointType, Task task, ExecutorService executor ) throws RestException
+    {
+        if ( executor == null )
+        {
+            task.executeTranslate();
+            return task;
+        }
+
+        final long threshold = getHedgingThreshold();
+        final CompletableFuture<Task> primary = CompletableFuture.supplyAsync( () -> {
+            task.executeTranslate();
+            return task;
+        }, executor );
+
+        try
+        {
+            try
+            {
+                return primary.get( threshold, TimeUnit.MILLISECONDS );
+            }
+            catch ( TimeoutException e )
+            {
+                logger.debug( "Task @{} exceeded hedging threshold of {} ms", task.hashCode(), threshold );
+            }
+
+            final List<Task> hedges = hedgingPolicy.isSplit() && initialRestMinSize > 0 && task.canSplit() ?
+                            task.split( endpointType ) :
+                            Collections.singletonList( new Task( task.chunk, endpointUrl, endpointType ) );
+            final CompletableFuture<Task> hedge = CompletableFuture.allOf(
+                            hedges.stream()
+                                  .map( h -> CompletableFuture.runAsync( h::executeTranslate, executor ) )
+                                  .toArray( CompletableFuture[]::new ) ).thenApply( v -> combine( task, hedges ) );
+
+            hedgedRequests.incrementAndGet();
+            logger.info( "Task @{} with chunk size {} exceeded hedging threshold of {} ms ; sending hedged request in {} segment(s)",
+                         task.hashCode(), task.getChunkSize(), threshold, hedges.size() );
+
+            Task winner = (Task) CompletableFuture.anyOf( primary, hedge ).get();
+            if ( !winner.isSuccess() )
+            {
+                // The first response was a failure so wait for the other before falling back to the original task.
+                Task other = ( winner == task ? hedge : primary ).get();
+                if ( !other.isSuccess() )
+                {
+                    hedgesFailed.incrementAndGet();
+                    return task;
+                }
+                winner = other;
+            }
+
+            if ( winner == task )
+            {
+                hedgesWasted.incrementAndGet();
+            }
+            else
+            {
+                hedgesWon.incrementAndGet();
+            }
+            return winner;
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new RestException( "Interrupted while waiting for REST response", e );
+        }
+        catch ( ExecutionException e )
+        {
+            if ( e.getCause() instanceof RuntimeException )
+            {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RestException( "Caught exception executing REST request", e.getCause() );
+        }
+    }
+
+    /**
+     * Combines the results of the hedged requests for the original task.
+     */
+    private Task combine( Task original, List<Task> hedges )
+    {
+        if ( hedges.size() == 1 )
+        {
+            return hedges.get( 0 );
+        }
+
+        final Task combined = new Task( original.chunk, endpointUrl, original.endpointType );
+        final Map<ProjectVersionRef, String> merged = new HashMap<>();
+
+        for ( Task h : hedges )
+        {
+            if ( !h.isSuccess() )
+            {
+                combined.status = h.status;
+                combined.exception = h.exception;
+                combined.errorString = h.errorString;
+                return combined;
+            }
+            merged.putAll( h.getResult() );
+        }
+        combined.status = SC_OK;
+        combined.result = merged;
+
+        return combined;
+    }
+
+    private void recordLatency( long millis )
+    {
+        synchronized ( chunkLatencies )
+        {
+            chunkLatencies.addLast( millis );
+            if ( chunkLatencies.size() > MAXIMUM_LATENCY_SAMPLES )
+            {
+                chunkLatencies.removeFirst();
+            }
+        }
+    }
+
+    /**
+     * @return the configured percentile of the observed chunk latencies, bounded below by the minimum delay.
+     */
+    long getHedgingThreshold()
+    {
+        final List<Long> samples;
+        synchronized ( chunkLatencies )
+        {
+            samples = new ArrayList<>( chunkLatencies );
+        }
+        if ( samples.size() < HedgingPolicy.MINIMUM_SAMPLES )
+        {
+            return hedgingPolicy.getMinimumDelay();
+        }
+        Collections.sort( samples );
+
+        int index = (int) Math.ceil( hedgingPolicy.getPercentile() / 100.0 * samples.size() ) - 1;
+        return Math.max( hedgingPolicy.getMinimumDelay(), samples.get( Math.max( 0, index ) ) );
+    }
+
     private boolean isRecoverable(int httpErrorCode)
     {
         return httpErrorCode == HttpStatus.SC_GATEWAY_TIMEOUT || httpErrorCode == HttpStatus.SC_SERVICE_UNAVAILABLE;
     }
 
+    /**
+     * A compressed request is only considered rejected on 415 Unsupported Media Type, or on 400 Bad Request where
+     * the body says the encoding is not supported ; any other 400 is a genuine error to report.
+     */
+    private boolean isCompressionRejected( HttpResponse<?> response )
+    {
+        if ( response.getStatus() == HttpStatus.SC_UNSUPPORTED_MEDIA_TYPE )
+        {
+            return true;
+        }
+        else if ( response.getStatus() != HttpStatus.SC_BAD_REQUEST )
+        {
+            return false;
+        }
+        final String body = response.getParsingError()
+                                    .map( UnirestParsingException::getOriginalBody )
+                                    .orElse( "" )
+                                    .toLowerCase( Locale.ROOT );
+        return body.contains( "encoding" ) && ( body.contains( "unsupported" ) || body.contains( "not supported" ) );
+    }
+
+    private static byte[] gzip( String body )
+    {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream( body.length() / 4 );
+        try ( GZIPOutputStream out = new GZIPOutputStream( bytes ) )
+        {
+            out.write( body.getBytes( StandardCharsets.UTF_8 ) );
+        }
+        catch ( IOException e )
+        {
+            throw new ManipulationUncheckedException( "Unable to compress request", e );
+        }
+        return bytes.toByteArray();
+    }
+
     private void waitBeforeRetry(int seconds) {
         try
         {
@@ -390,6 +766,7 @@ public class DefaultTranslator
 
         private String errorString;
 
+        private boolean compressionRejected;
 
 
         Task( List<ProjectVersionRef> chunk, String endpointUrl, Endpoint endpointType )
@@ -400,8 +777,24 @@ public class DefaultTranslator
         }
 
         void executeTranslate()
+        {
+            if ( send( compression ) )
+            {
+                // Retry (once) uncompressed ; compression stays disabled for subsequent requests.
+                compression = false;
+                send( false );
+            }
+        }
+
+        /**
+         * @param compress whether to compress the request.
+         * @return true if the server rejected the compressed request, in which case no result has been recorded.
+         */
+        private boolean send( boolean compress )
         {
             HttpResponse<List<DependencyAnalyserResult>> r;
+            final long start = System.nanoTime();
+            compressionRejected = false;
 
             try
             {
@@ -420,15 +813,26 @@ public class DefaultTranslator
                                                 .artifacts( GAVUtils.generateGAVs( chunk ) )
                                                 .build() );
 
-                r = Unirest.post( endpointUrl + endpointType )
+                final HttpRequestWithBody post = getClient().post( endpointUrl + endpointType )
                            .header( "accept", "application/json" )
                            .header( "Content-Type", "application/json" )
                            .headers( restHeaders )
                            .headers( otelHeaders )
                            .connectTimeout(restConnectionTimeout * 1000)
-                           .socketTimeout(restSocketTimeout * 1000)
-                           .body( request )
-                           .asObject( lookupType  )
+                           .socketTimeout(restSocketTimeout * 1000);
+                final RequestBodyEntity body;
+                if ( compress )
+                {
+                    body = post.header( "Content-Encoding", GZIP )
+                               .header( "Accept-Encoding", GZIP )
+                               .body( gzip( OBJECT_MAPPER.writeValue( request ) ) );
+                }
+                else
+                {
+                    body = post.body( request );
+                }
+
+                r = body.asObject( lookupType  )
                            .ifSuccess( successResponse -> result = successResponse.getBody()
                                                                                   .stream()
                                                                                   .filter( f -> lookup ? isNotBlank( f.getBestMatchVersion() ) : isNotBlank( f.getLatestVersion() ) )
@@ -444,7 +848,11 @@ public class DefaultTranslator
                                                                                   )
                            )
                            .ifFailure( failedResponse -> {
-                               if ( !failedResponse.getParsingError().isPresent() )
+                               if ( compress && isCompressionRejected( failedResponse ) )
+                               {
+                                   compressionRejected = true;
+                               }
+                               else if ( !failedResponse.getParsingError().isPresent() )
                                {
                                    logger.debug( "Parsing error but no message. Status text {}", failedResponse.getStatusText() );
                                    throw new ManipulationUncheckedException( failedResponse.getStatusText() );
@@ -484,13 +892,26 @@ public class DefaultTranslator
                                }
                            } );
 
+                if ( compressionRejected )
+                {
+                    logger.warn( "Server rejected compressed request with status {} ; disabling request compression and retrying",
+                                 r.getStatus() );
+                    return true;
+                }
+
                 status = r.getStatus();
+
+                if ( isSuccess() )
+                {
+                    recordLatency( TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - start ) );
+                }
             }
             catch ( ManipulationUncheckedException | UnirestException e )
             {
                 exception = e;
                 this.status = -1;
             }
+            return false;
         }
 
         public List<Task> split( Endpoint endpointType )
@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.rest;
+
+import lombok.Getter;
+
+/**
+ * Configures hedged requests within {@link DefaultTranslator}. When a chunk has been outstanding for longer than the
+ * hedging threshold a duplicate request (optionally split into smaller chunks) is sent and whichever answers first
+ * is used.
+ * <p>
+ * The threshold is the configured percentile of the latencies of previously completed chunks, but never less than
+ * the configured minimum delay. Until enough chunks have completed the minimum delay is used on its own.
+ */
+@Getter
+public class HedgingPolicy
+{
+    public static final HedgingPolicy DISABLED = new HedgingPolicy( 0, 95, false );
+
+    /**
+     * Number of completed chunks required before the observed percentile is used as the threshold.
+     */
+    static final int MINIMUM_SAMPLES = 5;
+
+    private final long minimumDelay;
+
+    private final int percentile;
+
+    private final boolean split;
+
+    /**
+     * @param minimumDelay the minimum time in milliseconds to wait before hedging a chunk; zero disables hedging.
+     * @param percentile the percentile (1-100) of completed chunk latencies used as the hedging threshold.
+     * @param split whether the hedged request should split the chunk into smaller requests.
+     */
+    public HedgingPolicy( long minimumDelay, int percentile, boolean split )
+    {
+        if ( percentile < 1 || percentile > 100 )
+        {
+            throw new IllegalArgumentException( "Hedging percentile must be between 1 and 100 but was " + percentile );
+        }
+        this.minimumDelay = minimumDelay;
+        this.percentile = percentile;
+        this.split = split;
+    }
+
+    public boolean isEnabled()
+    {
+        return minimumDelay > 0;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "HedgingPolicy[minimumDelay=" + minimumDelay + ", percentile=" + percentile + ", split=" + split + ']';
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io;
+
+import org.commonjava.maven.atlas.ident.ref.ArtifactRef;
+import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
+import org.commonjava.maven.atlas.ident.ref.SimpleArtifactRef;
+import org.commonjava.maven.atlas.ident.ref.SimpleProjectVersionRef;
+import org.commonjava.maven.ext.common.ManipulationException;
+import org.junit.After;
+import org.junit.Test;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BomReaderTest
+{
+    private static final long LOAD_DELAY = 200;
+
+    private static final int THREADS = 4;
+
+    private final Map<ProjectVersionRef, String> repository = new HashMap<>();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool( THREADS );
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private long delay;
+
+    @After
+    public void after()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testInheritedAndImportedDependencies() throws Exception
+    {
+        deploy( "org.foo:parent:1", null, "<properties><bar.version>1.0</bar.version><baz.version>2.0</baz.version>"
+                        + "</properties><dependencyManagement><dependencies>"
+                        + managed( "org.foo", "baz", "${baz.version}" )
+                        + managed( "org.foo", "bar", "0.1" )
+                        + "</dependencies></dependencyManagement>" );
+        deploy( "org.foo:bom:1", "org.foo:parent:1", "<properties><baz.version>2.1</baz.version></properties>"
+                        + "<dependencyManagement><dependencies>"
+                        + managed( "org.foo", "bar", "${bar.version}" )
+                        + managed( "org.foo", "self", "${project.version}" )
+                        + "<dependency><groupId>org.foo</groupId><artifactId>bar</artifactId><version>1.0</version>"
+                        + "<type>test-jar</type><classifier>tests</classifier></dependency>"
+                        + "<dependency><groupId>org.foo</groupId><artifactId>imported</artifactId><version>1</version>"
+                        + "<type>pom</type><scope>import</scope></dependency>"
+                        + "</dependencies></dependencyManagement><build><plugins><plugin><artifactId>foo</artifactId>"
+                        + "</plugin></plugins></build><profiles><profile><id>extra</id><dependencyManagement>"
+                        + "<dependencies>" + managed( "org.foo", "profiled", "3.0" ) + "</dependencies>"
+                        + "</dependencyManagement></profile></profiles>" );
+        deploy( "org.foo:imported:1", null, "<dependencyManagement><dependencies>"
+                        + managed( "org.foo", "bar", "9.0" )
+                        + managed( "org.foo", "qux", "4.0" )
+                        + "</dependencies></dependencyManagement>" );
+
+        final Map<ArtifactRef, String> result = newReader().read( SimpleProjectVersionRef.parse( "org.foo:bom:1" ) );
+
+        assertEquals( Arrays.asList( "org.foo:bar:jar:1.0", "org.foo:self:jar:1", "org.foo:bar:test-jar:1.0:tests",
+                                     "org.foo:profiled:jar:3.0", "org.foo:baz:jar:2.1", "org.foo:qux:jar:4.0" ),
+                      toStrings( result ) );
+        assertEquals( "2.1", result.get( new SimpleArtifactRef( "org.foo", "baz", "2.1", "jar", null ) ) );
+    }
+
+    @Test
+    public void testImportsAreReadConcurrently() throws Exception
+    {
+        final StringBuilder imports = new StringBuilder();
+        for ( int i = 0; i < 6; i++ )
+        {
+            deploy( "org.foo:imported-" + i + ":1", null, "<dependencyManagement><dependencies>"
+                            + managed( "org.foo", "dep-" + i, "1.0" ) + "</dependencies></dependencyManagement>" );
+            imports.append( "<dependency><groupId>org.foo</groupId><artifactId>imported-" ).append( i )
+                   .append( "</artifactId><version>1</version><type>pom</type><scope>import</scope></dependency>" );
+        }
+        deploy( "org.foo:bom:1", null, "<dependencyManagement><dependencies>" + imports
+                        + "</dependencies></dependencyManagement>" );
+        delay = LOAD_DELAY;
+
+        final Map<ArtifactRef, String> result = newReader().read( SimpleProjectVersionRef.parse( "org.foo:bom:1" ) );
+
+        assertEquals( Arrays.asList( "org.foo:dep-0:jar:1.0", "org.foo:dep-1:jar:1.0", "org.foo:dep-2:jar:1.0",
+                                     "org.foo:dep-3:jar:1.0", "org.foo:dep-4:jar:1.0", "org.foo:dep-5:jar:1.0" ),
+                      toStrings( result ) );
+        // The imports overlap, but no more than the executor's threads are read at once.
+        assertTrue( "Max in flight " + maxInFlight, maxInFlight.get() > 1 );
+        assertTrue( "Max in flight " + maxInFlight, maxInFlight.get() <= THREADS );
+    }
+
+    @Test( expected = ManipulationException.class )
+    public void testUnresolvedExpressionIsReported() throws Exception
+    {
+        deploy( "org.foo:bom:1", null, "<dependencyManagement><dependencies>"
+                        + managed( "org.foo", "bar", "${env.BAR_VERSION}" ) + "</dependencies></dependencyManagement>" );
+
+        newReader().read( SimpleProjectVersionRef.parse( "org.foo:bom:1" ) );
+    }
+
+    @Test( expected = ManipulationException.class )
+    public void testCyclicImportIsReported() throws Exception
+    {
+        final String importSelf = "<dependencyManagement><dependencies><dependency><groupId>org.foo</groupId>"
+                        + "<artifactId>bom</artifactId><version>1</version><type>pom</type><scope>import</scope>"
+                        + "</dependency></dependencies></dependencyManagement>";
+        deploy( "org.foo:bom:1", null, importSelf );
+
+        newReader().read( SimpleProjectVersionRef.parse( "org.foo:bom:1" ) );
+    }
+
+    private BomReader newReader()
+    {
+        return new BomReader( ref -> {
+            maxInFlight.accumulateAndGet( inFlight.incrementAndGet(), Math::max );
+            try
+            {
+                Thread.sleep( delay );
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+            }
+            finally
+            {
+                inFlight.decrementAndGet();
+            }
+            final String pom = repository.get( ref );
+            if ( pom == null )
+            {
+                throw new ManipulationException( "Failed to resolve POM: {}", ref );
+            }
+            try
+            {
+                return BomReader.parse( new ByteArrayInputStream( pom.getBytes( StandardCharsets.UTF_8 ) ) );
+            }
+            catch ( XMLStreamException e )
+            {
+                throw new ManipulationException( "Failed to parse POM ({}) : {}", ref, e.getMessage(), e );
+            }
+        }, executor );
+    }
+
+    private void deploy( String gav, String parent, String content )
+    {
+        final ProjectVersionRef ref = SimpleProjectVersionRef.parse( gav );
+        final StringBuilder pom = new StringBuilder( "<?xml version=\"1.0\" encoding=\"UTF-8\"?><project>" );
+        pom.append( "<modelVersion>4.0.0</modelVersion>" );
+        if ( parent != null )
+        {
+            final ProjectVersionRef p = SimpleProjectVersionRef.parse( parent );
+            pom.append( "<parent><groupId>" ).append( p.getGroupId() ).append( "</groupId><artifactId>" )
+               .append( p.getArtifactId() ).append( "</artifactId><version>" ).append( p.getVersionString() )
+               .append( "</version></parent>" );
+        }
+        else
+        {
+            pom.append( "<groupId>" ).append( ref.getGroupId() ).append( "</groupId>" );
+        }
+        pom.append( "<artifactId>" ).append( ref.getArtifactId() ).append( "</artifactId><version>" )
+           .append( ref.getVersionString() ).append( "</version><packaging>pom</packaging>" ).append( content )
+           .append( "</project>" );
+        repository.put( ref, pom.toString() );
+    }
+
+    private static String managed( String groupId, String artifactId, String version )
+    {
+        return "<dependency><groupId>" + groupId + "</groupId><artifactId>" + artifactId + "</artifactId><version>"
+                        + version + "</version></dependency>";
+    }
+
+    private static ArrayList<String> toStrings( Map<ArtifactRef, String> result )
+    {
+        final ArrayList<String> strings = new ArrayList<>();
+        result.keySet().forEach( a -> strings.add( a.toString() ) );
+        return strings;
+    }
+}
@@ -20,17 +20,29 @@ import org.commonjava.maven.ext.common.ManipulationException;
 import org.commonjava.maven.ext.io.resolver.GalleyInfrastructure;
 import org.commonjava.maven.ext.io.rest.handler.StaticResourceHandler;
 import org.commonjava.maven.ext.io.rest.rule.MockServer;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.handler.AbstractHandler;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class FileIOTest
 {
@@ -42,6 +54,48 @@ public class FileIOTest
     @Rule
     public MockServer mockServer = new MockServer( staticFile );
 
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private final AtomicInteger notModified = new AtomicInteger();
+
+    @Rule
+    public MockServer etagServer = new MockServer( new AbstractHandler()
+    {
+        @Override
+        public void handle( String target, Request baseRequest, HttpServletRequest request,
+                            HttpServletResponse response ) throws IOException
+        {
+            requests.incrementAndGet();
+            baseRequest.setHandled( true );
+            if ( target.contains( "missing" ) )
+            {
+                response.setStatus( HttpServletResponse.SC_NOT_FOUND );
+            }
+            else if ( "\"v1\"".equals( request.getHeader( "If-None-Match" ) ) )
+            {
+                notModified.incrementAndGet();
+                response.setStatus( HttpServletResponse.SC_NOT_MODIFIED );
+            }
+            else
+            {
+                try
+                {
+                    // Give concurrent callers time to pile up.
+                    Thread.sleep( 200 );
+                }
+                catch ( InterruptedException e )
+                {
+                    Thread.currentThread().interrupt();
+                }
+                response.setStatus( HttpServletResponse.SC_OK );
+                response.setHeader( "ETag", "\"v1\"" );
+                response.getWriter().print( "content of " + target );
+            }
+        }
+    } );
+
+    private GalleyInfrastructure galleyInfra;
+
     private FileIO fileIO;
 
     @Before
@@ -49,7 +103,7 @@ public class FileIOTest
         throws Exception
     {
         File res = folder.newFolder();
-        GalleyInfrastructure galleyInfra = new GalleyInfrastructure
+        galleyInfra = new GalleyInfrastructure
                         ( null, null).init( null, null, res );
         fileIO = new FileIO( galleyInfra );
    }
@@ -84,4 +138,64 @@ public class FileIOTest
         File result = fileIO.resolveURL( "file://" + root.getAbsolutePath() );
         assertEquals( root, result );
     }
+
+    @Test
+    public void testURLIsRevalidated() throws Exception
+    {
+        final String url = etagServer.getUrl() + "/script.groovy";
+
+        final File first = fileIO.resolveURL( url );
+        assertEquals( "content of /script.groovy", FileUtils.readFileToString( first, StandardCharsets.UTF_8 ) );
+        assertEquals( first, fileIO.resolveURL( url ) );
+        assertEquals( 1, requests.get() );
+
+        final File second = new FileIO( galleyInfra ).resolveURL( url );
+        assertEquals( first, second );
+        assertEquals( "content of /script.groovy", FileUtils.readFileToString( second, StandardCharsets.UTF_8 ) );
+        assertEquals( 2, requests.get() );
+        assertEquals( 1, notModified.get() );
+    }
+
+    @Test
+    public void testConcurrentRequestsAreMerged() throws Exception
+    {
+        final String url = etagServer.getUrl() + "/script.groovy";
+        final ExecutorService executor = Executors.newFixedThreadPool( 4 );
+        try
+        {
+            final List<Future<File>> futures = new ArrayList<>();
+            for ( int i = 0; i < 4; i++ )
+            {
+                futures.add( executor.submit( () -> fileIO.resolveURL( url ) ) );
+            }
+            for ( Future<File> future : futures )
+            {
+                assertEquals( futures.get( 0 ).get(), future.get() );
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+        assertEquals( 1, requests.get() );
+    }
+
+    @Test
+    public void testFailuresAreNotCached() throws Exception
+    {
+        final String url = etagServer.getUrl() + "/missing.groovy";
+        for ( int i = 0; i < 2; i++ )
+        {
+            try
+            {
+                fileIO.resolveURL( url );
+                fail( "Expected FileNotFoundException" );
+            }
+            catch ( FileNotFoundException e )
+            {
+                // Expected
+            }
+        }
+        assertEquals( 2, requests.get() );
+    }
 }
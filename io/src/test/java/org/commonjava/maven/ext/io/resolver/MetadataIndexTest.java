@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.resolver;
+
+import org.apache.commons.io.FileUtils;
+import org.commonjava.maven.atlas.ident.ref.SimpleProjectRef;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class MetadataIndexTest
+{
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private File repository;
+
+    private File indexFile;
+
+    @Before
+    public void before() throws IOException
+    {
+        repository = temp.newFolder( "repository" );
+        indexFile = new File( temp.newFolder( "cache" ), "metadata.idx" );
+
+        deploy( "org/foo/bar/maven-metadata-local.xml", "org.foo", "bar", "1.0", "1.1" );
+        deploy( "org/foo/bar/maven-metadata-central.xml", "org.foo", "bar", "1.1", "2.0" );
+        deploy( "org/foo/baz/maven-metadata-central.xml", "org.foo", "baz", "3.0" );
+        FileUtils.writeStringToFile( new File( repository, "org/foo/bar/1.1-SNAPSHOT/maven-metadata-local.xml" ),
+                                     "<metadata><groupId>org.foo</groupId><artifactId>bar</artifactId>"
+                                                     + "<version>1.1-SNAPSHOT</version><versioning><snapshot>"
+                                                     + "<localCopy>true</localCopy></snapshot></versioning></metadata>",
+                                     StandardCharsets.UTF_8 );
+        FileUtils.writeStringToFile( new File( repository, "org/foo/bar/1.1/bar-1.1.pom" ), "<project/>",
+                                     StandardCharsets.UTF_8 );
+    }
+
+    @Test
+    public void testLookup() throws IOException
+    {
+        final MetadataIndex index = new MetadataIndex( indexFile );
+        index.update( repository );
+
+        assertEquals( Arrays.asList( "1.0", "1.1", "2.0" ), index.getVersions( new SimpleProjectRef( "org.foo", "bar" ) ) );
+        assertEquals( Arrays.asList( "3.0" ), index.getVersions( new SimpleProjectRef( "org.foo", "baz" ) ) );
+        assertNull( index.getVersions( new SimpleProjectRef( "org.foo", "missing" ) ) );
+        assertNull( index.getVersions( new SimpleProjectRef( "org.foo.bar", "1.1-SNAPSHOT" ) ) );
+
+        // A later run reads the existing index without updating it.
+        assertEquals( Arrays.asList( "3.0" ),
+                      new MetadataIndex( indexFile ).getVersions( new SimpleProjectRef( "org.foo", "baz" ) ) );
+    }
+
+    @Test
+    public void testIncrementalUpdate() throws IOException
+    {
+        final MetadataIndex index = new MetadataIndex( indexFile );
+        index.update( repository );
+        assertEquals( 3, index.getParsed() );
+
+        index.rebuild( repository );
+        assertEquals( 0, index.getParsed() );
+        assertEquals( 3, index.getReused() );
+
+        final File baz = deploy( "org/foo/baz/maven-metadata-central.xml", "org.foo", "baz", "3.0", "3.1" );
+        //noinspection ResultOfMethodCallIgnored
+        baz.setLastModified( baz.lastModified() + 10000 );
+        deploy( "org/foo/qux/maven-metadata-local.xml", "org.foo", "qux", "0.1" );
+
+        // A recent index is not rebuilt, but changed entries are read again when looked up.
+        index.update( repository );
+        assertEquals( 0, index.getParsed() );
+        assertEquals( Arrays.asList( "3.0", "3.1" ), index.getVersions( new SimpleProjectRef( "org.foo", "baz" ) ) );
+        assertNull( index.getVersions( new SimpleProjectRef( "org.foo", "qux" ) ) );
+
+        //noinspection ResultOfMethodCallIgnored
+        indexFile.setLastModified( System.currentTimeMillis() - 2 * MetadataIndex.REBUILD_INTERVAL );
+        index.update( repository );
+        assertEquals( 2, index.getParsed() );
+        assertEquals( 2, index.getReused() );
+        assertEquals( Arrays.asList( "3.0", "3.1" ), index.getVersions( new SimpleProjectRef( "org.foo", "baz" ) ) );
+        assertEquals( Arrays.asList( "0.1" ), index.getVersions( new SimpleProjectRef( "org.foo", "qux" ) ) );
+        assertEquals( Arrays.asList( "1.0", "1.1", "2.0" ), index.getVersions( new SimpleProjectRef( "org.foo", "bar" ) ) );
+    }
+
+    @Test
+    public void testMissingRepository() throws IOException
+    {
+        final MetadataIndex index = new MetadataIndex( indexFile );
+        index.update( new File( temp.getRoot(), "none" ) );
+
+        assertNull( index.getVersions( new SimpleProjectRef( "org.foo", "bar" ) ) );
+    }
+
+    private File deploy( String path, String groupId, String artifactId, String... versions ) throws IOException
+    {
+        final StringBuilder metadata = new StringBuilder( "<?xml version=\"1.0\" encoding=\"UTF-8\"?><metadata>" );
+        metadata.append( "<groupId>" ).append( groupId ).append( "</groupId><artifactId>" ).append( artifactId )
+                .append( "</artifactId><versioning><latest>" ).append( versions[versions.length - 1] )
+                .append( "</latest><versions>" );
+        for ( String version : versions )
+        {
+            metadata.append( "<version>" ).append( version ).append( "</version>" );
+        }
+        metadata.append( "</versions></versioning></metadata>" );
+
+        final File file = new File( repository, path );
+        FileUtils.writeStringToFile( file, metadata.toString(), StandardCharsets.UTF_8 );
+        return file;
+    }
+}
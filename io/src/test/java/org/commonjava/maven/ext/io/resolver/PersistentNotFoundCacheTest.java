@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.resolver;
+
+import org.commonjava.maven.galley.model.ConcreteResource;
+import org.commonjava.maven.galley.model.Location;
+import org.commonjava.maven.galley.model.SimpleLocation;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PersistentNotFoundCacheTest
+{
+    private static final String PATH = "org/foo/internal/1.0/internal-1.0.pom";
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private final Location central = new SimpleLocation( "central", "http://repo.example.com/maven2" );
+
+    private final Location staging = new SimpleLocation( "staging", "http://staging.example.com/maven2" );
+
+    private File file;
+
+    @Before
+    public void before() throws IOException
+    {
+        file = new File( temp.newFolder(), "not-found.txt" );
+    }
+
+    @Test
+    public void testMissingResourcesAreRememberedAcrossRuns()
+    {
+        final PersistentNotFoundCache first = create( false );
+        first.addMissing( new ConcreteResource( central, PATH ) );
+        first.save();
+
+        final PersistentNotFoundCache second = create( false );
+        assertTrue( second.isMissing( new ConcreteResource( central, PATH ) ) );
+        assertFalse( second.isMissing( new ConcreteResource( staging, PATH ) ) );
+        assertTrue( second.isMissing( new ConcreteResource( central, PATH ) ) );
+        assertEquals( 2, second.getProbesSaved() );
+        assertEquals( Collections.singleton( PATH ), second.getMissing( central ) );
+    }
+
+    @Test
+    public void testLocationTTL() throws Exception
+    {
+        final PersistentNotFoundCache cache = new PersistentNotFoundCache( file, 3600,
+                                                                           Collections.singletonMap( "staging", 0L ),
+                                                                           false );
+        cache.addMissing( new ConcreteResource( central, PATH ) );
+        cache.addMissing( new ConcreteResource( staging, PATH ) );
+        Thread.sleep( 10 );
+
+        assertTrue( cache.isMissing( new ConcreteResource( central, PATH ) ) );
+        assertFalse( cache.isMissing( new ConcreteResource( staging, PATH ) ) );
+        assertEquals( Collections.singleton( central ), cache.getAllMissing().keySet() );
+    }
+
+    @Test
+    public void testLocalRepositoryIsNotPersisted()
+    {
+        final Location local = new SimpleLocation( "local", "file:/tmp/repository" );
+
+        final PersistentNotFoundCache first = create( false );
+        first.addMissing( new ConcreteResource( local, PATH ) );
+        assertTrue( first.isMissing( new ConcreteResource( local, PATH ) ) );
+        first.save();
+
+        assertFalse( create( false ).isMissing( new ConcreteResource( local, PATH ) ) );
+    }
+
+    @Test
+    public void testInvalidation()
+    {
+        final PersistentNotFoundCache first = create( false );
+        first.addMissing( new ConcreteResource( central, PATH ) );
+        first.addMissing( new ConcreteResource( staging, PATH ) );
+        first.save();
+
+        final PersistentNotFoundCache second = create( false );
+        second.clearMissing( staging );
+        second.save();
+        assertTrue( create( false ).isMissing( new ConcreteResource( central, PATH ) ) );
+        assertFalse( create( false ).isMissing( new ConcreteResource( staging, PATH ) ) );
+
+        create( true ).save();
+        assertFalse( create( false ).isMissing( new ConcreteResource( central, PATH ) ) );
+    }
+
+    @Test
+    public void testConcurrentRunsAreMerged() throws Exception
+    {
+        final PersistentNotFoundCache first = create( false );
+        final PersistentNotFoundCache second = create( false );
+        Thread.sleep( 10 );
+
+        first.addMissing( new ConcreteResource( central, PATH ) );
+        second.addMissing( new ConcreteResource( staging, PATH ) );
+        first.save();
+        second.save();
+
+        final Map<Location, ?> missing = create( false ).getAllMissing();
+        assertEquals( 2, missing.size() );
+    }
+
+    private PersistentNotFoundCache create( boolean clear )
+    {
+        return new PersistentNotFoundCache( file, 3600, Collections.emptyMap(), clear );
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.resolver;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.commonjava.maven.galley.event.NoOpFileEventManager;
+import org.commonjava.maven.galley.model.ConcreteResource;
+import org.commonjava.maven.galley.model.Location;
+import org.commonjava.maven.galley.model.SimpleLocation;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SharedFileCacheProviderTest
+{
+    private static final long HOUR = 3600 * 1000;
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private final Location location = new SimpleLocation( "central", "http://repo.example.com/maven2" );
+
+    private File cacheDir;
+
+    private SharedFileCacheProvider cache;
+
+    @Before
+    public void before() throws IOException
+    {
+        cacheDir = temp.newFolder( "shared-cache" );
+        cache = new SharedFileCacheProvider( cacheDir, new NoOpFileEventManager(), 60 );
+    }
+
+    @Test
+    public void testMetadataExpires() throws IOException
+    {
+        final ConcreteResource metadata = write( "org/foo/bar/maven-metadata.xml", "metadata" );
+        final ConcreteResource snapshot = write( "org/foo/bar/1.0-SNAPSHOT/bar-1.0-SNAPSHOT.pom", "snapshot" );
+        final ConcreteResource release = write( "org/foo/bar/1.0/bar-1.0.pom", "release" );
+
+        assertTrue( cache.exists( metadata ) );
+        assertTrue( cache.exists( snapshot ) );
+
+        for ( ConcreteResource resource : new ConcreteResource[] { metadata, snapshot, release } )
+        {
+            assertTrue( cache.getDetachedFile( resource ).setLastModified( System.currentTimeMillis() - HOUR ) );
+        }
+
+        assertFalse( cache.exists( metadata ) );
+        assertFalse( cache.exists( snapshot ) );
+        assertTrue( cache.exists( release ) );
+    }
+
+    @Test
+    public void testCacheIsShared() throws IOException
+    {
+        write( "org/foo/bar/1.0/bar-1.0.pom", "release" );
+
+        final SharedFileCacheProvider other = new SharedFileCacheProvider( cacheDir, new NoOpFileEventManager(), 60 );
+        assertEquals( "release", read( other, new ConcreteResource( location, "org/foo/bar/1.0/bar-1.0.pom" ) ) );
+
+        // The same path from another repository is stored separately.
+        assertFalse( other.exists( new ConcreteResource( new SimpleLocation( "other", "http://other.example.com" ),
+                                                         "org/foo/bar/1.0/bar-1.0.pom" ) ) );
+    }
+
+    @Test
+    public void testLeastRecentlyUsedAreEvicted() throws IOException
+    {
+        final List<ConcreteResource> resources = new ArrayList<>();
+        for ( int i = 0; i < 10; i++ )
+        {
+            ConcreteResource resource = write( "org/foo/bar/1." + i + "/bar-1." + i + ".pom", "0123456789" );
+            // The older the version the less recently it was used.
+            assertTrue( cache.getDetachedFile( resource ).setLastModified( System.currentTimeMillis() - ( 10 - i ) * HOUR ) );
+            resources.add( resource );
+        }
+        // Reading the oldest marks it as recently used.
+        read( cache, resources.get( 0 ) );
+
+        assertEquals( 0, cache.evict( 100 ) );
+        assertEquals( 50, cache.evict( 50 ) );
+
+        assertTrue( cache.exists( resources.get( 0 ) ) );
+        for ( int i = 1; i <= 5; i++ )
+        {
+            assertFalse( cache.exists( resources.get( i ) ) );
+        }
+        for ( int i = 6; i < 10; i++ )
+        {
+            assertTrue( cache.exists( resources.get( i ) ) );
+        }
+    }
+
+    @Test
+    public void testEvictionOnlyRemovesArtifacts() throws IOException
+    {
+        final ConcreteResource resource = write( "org/foo/bar/1.0/bar-1.0.pom", "0123456789" );
+        final File lock = new File( cache.getDetachedFile( resource ).getPath() + SharedFileCacheProvider.LOCK_SUFFIX );
+        final File orphan = new File( lock.getParentFile(), "bar-1.0.jar" + SharedFileCacheProvider.LOCK_SUFFIX );
+        assertTrue( lock.exists() );
+        assertTrue( orphan.createNewFile() );
+
+        final File[] bookkeeping = { new File( cacheDir, "not-found.txt" ), new File( cacheDir, "metadata-index-1.idx" ),
+                        new File( new File( cacheDir, "url-cache" ), "0123" ) };
+        for ( File file : bookkeeping )
+        {
+            file.getParentFile().mkdirs();
+            FileUtils.writeStringToFile( file, "0123456789", StandardCharsets.UTF_8 );
+            assertTrue( file.setLastModified( System.currentTimeMillis() - HOUR ) );
+        }
+
+        assertEquals( 10, cache.evict( 1 ) );
+
+        assertFalse( cache.exists( resource ) );
+        assertFalse( lock.exists() );
+        assertFalse( orphan.exists() );
+        for ( File file : bookkeeping )
+        {
+            assertTrue( file.exists() );
+        }
+    }
+
+    @Test
+    public void testConcurrentWritesAreSerialised() throws Exception
+    {
+        final ConcreteResource resource = new ConcreteResource( location, "org/foo/bar/1.0/bar-1.0.pom" );
+        final ExecutorService executor = Executors.newFixedThreadPool( 4 );
+        try
+        {
+            final List<Future<?>> futures = new ArrayList<>();
+            for ( int i = 0; i < 8; i++ )
+            {
+                final String content = String.valueOf( i );
+                futures.add( executor.submit( () -> {
+                    write( resource, String.join( "", Collections.nCopies( 1000, content ) ) );
+                    return null;
+                } ) );
+            }
+            for ( Future<?> future : futures )
+            {
+                future.get();
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        // Exactly one writer's complete content must be present.
+        final String result = read( cache, resource );
+        assertEquals( 1000, result.length() );
+        assertEquals( 1, result.chars().distinct().count() );
+    }
+
+    @Test
+    public void testIsMutable()
+    {
+        assertTrue( SharedFileCacheProvider.isMutable( "org/foo/bar/maven-metadata.xml" ) );
+        assertTrue( SharedFileCacheProvider.isMutable( "org/foo/bar/maven-metadata-central.xml.sha1" ) );
+        assertTrue( SharedFileCacheProvider.isMutable( "org/foo/bar/1.0-SNAPSHOT/bar-1.0-20200101.pom" ) );
+        assertFalse( SharedFileCacheProvider.isMutable( "org/foo/maven-metadata-bar/1.0/maven-metadata-bar-1.0.pom" ) );
+    }
+
+    private ConcreteResource write( String path, String content ) throws IOException
+    {
+        final ConcreteResource resource = new ConcreteResource( location, path );
+        write( resource, content );
+        return resource;
+    }
+
+    private void write( ConcreteResource resource, String content ) throws IOException
+    {
+        // Galley's Transfer releases its write lock once the stream is closed.
+        try ( OutputStream out = cache.openOutputStream( resource ) )
+        {
+            out.write( content.getBytes( StandardCharsets.UTF_8 ) );
+        }
+        finally
+        {
+            cache.unlockWrite( resource );
+        }
+    }
+
+    private String read( SharedFileCacheProvider provider, ConcreteResource resource ) throws IOException
+    {
+        try ( InputStream in = provider.openInputStream( resource ) )
+        {
+            return IOUtils.toString( in, StandardCharsets.UTF_8 );
+        }
+    }
+}
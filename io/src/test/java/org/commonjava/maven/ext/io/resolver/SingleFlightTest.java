@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.resolver;
+
+import org.commonjava.maven.galley.TransferException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SingleFlightTest
+{
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    public void testConcurrentRequestsAreCollapsed() throws Exception
+    {
+        final SingleFlight<String, String, TransferException> flight =
+                        new SingleFlight<>( "test", TransferException.class, () -> 0 );
+        final CountDownLatch started = new CountDownLatch( 1 );
+        final CountDownLatch release = new CountDownLatch( 1 );
+        final ExecutorService executor = Executors.newFixedThreadPool( 4 );
+        try
+        {
+            final List<Future<String>> futures = new ArrayList<>();
+            futures.add( executor.submit( () -> flight.get( "foo", k -> {
+                started.countDown();
+                await( release );
+                return load( k );
+            } ) ) );
+            started.await();
+            for ( int i = 0; i < 3; i++ )
+            {
+                futures.add( executor.submit( () -> flight.get( "foo", this::load ) ) );
+            }
+            while ( flight.getCollapsed() < 3 )
+            {
+                Thread.sleep( 10 );
+            }
+            release.countDown();
+
+            for ( Future<String> future : futures )
+            {
+                assertEquals( "foo-1", future.get() );
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+        assertEquals( 1, loads.get() );
+        assertEquals( 1, flight.getLoads() );
+
+        // Without a TTL nothing is kept once loaded.
+        assertEquals( "foo-2", flight.get( "foo", this::load ) );
+    }
+
+    @Test
+    public void testResultsExpire() throws Exception
+    {
+        final SingleFlight<String, String, TransferException> flight =
+                        new SingleFlight<>( "test", TransferException.class, () -> 100 );
+
+        assertEquals( "foo-1", flight.get( "foo", this::load ) );
+        assertEquals( "foo-1", flight.get( "foo", this::load ) );
+        assertEquals( 1, flight.getCached() );
+
+        Thread.sleep( 150 );
+        assertEquals( "foo-2", flight.get( "foo", this::load ) );
+
+        flight.clear();
+        assertEquals( "foo-3", flight.get( "foo", this::load ) );
+        assertEquals( 3, flight.getLoads() );
+    }
+
+    @Test
+    public void testFailuresAreSharedButNotKept() throws Exception
+    {
+        final SingleFlight<String, String, TransferException> flight =
+                        new SingleFlight<>( "test", TransferException.class, () -> TimeUnit.MINUTES.toMillis( 1 ) );
+        final CountDownLatch started = new CountDownLatch( 1 );
+        final CountDownLatch release = new CountDownLatch( 1 );
+        final ExecutorService executor = Executors.newFixedThreadPool( 2 );
+        try
+        {
+            final Future<String> first = executor.submit( () -> flight.get( "foo", k -> {
+                started.countDown();
+                await( release );
+                throw new TransferException( "Unable to load {}", k );
+            } ) );
+            started.await();
+            final Future<String> second = executor.submit( () -> flight.get( "foo", this::load ) );
+            while ( flight.getCollapsed() < 1 )
+            {
+                Thread.sleep( 10 );
+            }
+            release.countDown();
+
+            for ( Future<String> future : new Future[] { first, second } )
+            {
+                try
+                {
+                    future.get();
+                    fail( "Expected TransferException" );
+                }
+                catch ( ExecutionException e )
+                {
+                    assertTrue( e.getCause() instanceof TransferException );
+                }
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+        assertEquals( "foo-1", flight.get( "foo", this::load ) );
+    }
+
+    @Test
+    public void testErrorsAreNotKept() throws Exception
+    {
+        final SingleFlight<String, String, TransferException> flight =
+                        new SingleFlight<>( "test", TransferException.class, () -> TimeUnit.MINUTES.toMillis( 1 ) );
+        try
+        {
+            flight.get( "foo", k -> {
+                throw new StackOverflowError();
+            } );
+            fail( "Expected StackOverflowError" );
+        }
+        catch ( StackOverflowError e )
+        {
+            assertEquals( 0, flight.size() );
+        }
+        assertEquals( "foo-1", flight.get( "foo", this::load ) );
+    }
+
+    @Test
+    public void testExpiredResultsAreSwept() throws Exception
+    {
+        final SingleFlight<String, String, TransferException> flight =
+                        new SingleFlight<>( "test", TransferException.class, () -> 50 );
+
+        flight.get( "foo", this::load );
+        flight.get( "bar", this::load );
+        assertEquals( 2, flight.size() );
+
+        Thread.sleep( 100 );
+        flight.get( "baz", this::load );
+        assertEquals( 1, flight.size() );
+    }
+
+    private static void await( CountDownLatch latch )
+    {
+        try
+        {
+            latch.await();
+        }
+        catch ( InterruptedException e )
+        {
+            throw new IllegalStateException( e );
+        }
+    }
+
+    private String load( String key )
+    {
+        return key + '-' + loads.incrementAndGet();
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.resolver;
+
+import org.commonjava.maven.galley.TransferException;
+import org.commonjava.maven.galley.model.ConcreteResource;
+import org.commonjava.maven.galley.model.SimpleLocation;
+import org.commonjava.maven.galley.model.Transfer;
+import org.commonjava.maven.galley.spi.transport.DownloadJob;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TransferExecutorTest
+{
+    private final Map<String, AtomicInteger> running = new ConcurrentHashMap<>();
+
+    private final Map<String, AtomicInteger> maxRunning = new ConcurrentHashMap<>();
+
+    private final AtomicInteger totalRunning = new AtomicInteger();
+
+    private final AtomicInteger maxTotalRunning = new AtomicInteger();
+
+    private TransferExecutor executor;
+
+    @After
+    public void after()
+    {
+        if ( executor != null )
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testLimitsAreEnforced() throws Exception
+    {
+        executor = new TransferExecutor( 4, 2, false );
+
+        final List<Future<DownloadJob>> futures = new ArrayList<>();
+        for ( int i = 0; i < 8; i++ )
+        {
+            futures.add( executor.submit( new Job( "http://repo1.example.com/maven2" ) ) );
+            futures.add( executor.submit( new Job( "http://repo2.example.com/maven2" ) ) );
+            futures.add( executor.submit( new Job( "http://repo3.example.com/maven2" ) ) );
+        }
+        for ( Future<DownloadJob> future : futures )
+        {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue( executor.awaitTermination( 10, TimeUnit.SECONDS ) );
+
+        assertEquals( 2, maxRunning.get( "repo1.example.com" ).get() );
+        assertEquals( 2, maxRunning.get( "repo2.example.com" ).get() );
+        assertEquals( 4, maxTotalRunning.get() );
+        assertEquals( 24, executor.getCompletedTransfers() );
+        assertEquals( 0, executor.getActiveTransfers() );
+        assertEquals( 0, executor.getQueueDepth() );
+        assertTrue( executor.getMaxQueueDepth() > 0 );
+        assertTrue( executor.getMeanLatency() >= 50 );
+        assertTrue( executor.getMeanQueueTime() > 0 );
+    }
+
+    @Test
+    public void testQueuedTransfersRunAfterShutdown() throws Exception
+    {
+        executor = new TransferExecutor( 1, 1, false );
+
+        final List<Future<DownloadJob>> futures = new ArrayList<>();
+        for ( int i = 0; i < 3; i++ )
+        {
+            futures.add( executor.submit( new Job( "http://repo1.example.com/maven2" ) ) );
+        }
+        executor.shutdown();
+
+        assertTrue( executor.awaitTermination( 10, TimeUnit.SECONDS ) );
+        for ( Future<DownloadJob> future : futures )
+        {
+            assertTrue( future.isDone() );
+        }
+        assertEquals( 3, executor.getCompletedTransfers() );
+    }
+
+    @Test
+    public void testTimeoutExcludesQueueTime() throws Exception
+    {
+        executor = new TransferExecutor( 1, 1, false );
+
+        final List<Future<DownloadJob>> futures = new ArrayList<>();
+        for ( int i = 0; i < 6; i++ )
+        {
+            futures.add( executor.submit( new Job( "http://repo1.example.com/maven2" ) ) );
+        }
+
+        // The last job is queued behind ~250ms of others but must not time out while it waits.
+        futures.get( 5 ).get( 200, TimeUnit.MILLISECONDS );
+        assertEquals( 6, executor.getCompletedTransfers() );
+
+        final Future<DownloadJob> running = executor.submit( new Job( "http://repo1.example.com/maven2" ) );
+        try
+        {
+            running.get( 1, TimeUnit.MILLISECONDS );
+            fail( "Running transfer should still time out" );
+        }
+        catch ( TimeoutException e )
+        {
+            // Expected
+        }
+    }
+
+    @Test( expected = RejectedExecutionException.class )
+    public void testRejectedAfterShutdown()
+    {
+        executor = new TransferExecutor( 1, 1, false );
+        executor.shutdown();
+        executor.submit( new Job( "http://repo1.example.com/maven2" ) );
+    }
+
+    @Test
+    public void testVirtualThreads() throws Exception
+    {
+        executor = new TransferExecutor( 2, 2, true );
+        final String version = System.getProperty( "java.specification.version" );
+        final boolean supported = !version.startsWith( "1." ) && Integer.parseInt( version ) >= 21;
+
+        assertEquals( supported, executor.isVirtual() );
+        executor.submit( new Job( "http://repo1.example.com/maven2" ) ).get();
+    }
+
+    @Test
+    public void testHostOf()
+    {
+        assertEquals( "repo1.example.com", TransferExecutor.hostOf( new Job( "http://repo1.example.com:8080/m2" ) ) );
+        assertEquals( "", TransferExecutor.hostOf( (Runnable) () -> {} ) );
+    }
+
+    private class Job
+                    implements DownloadJob
+    {
+        private final Transfer transfer;
+
+        private Job( String uri )
+        {
+            this.transfer = new Transfer( new ConcreteResource( new SimpleLocation( uri, uri ), "foo" ), null, null,
+                                          null );
+        }
+
+        @Override
+        public DownloadJob call() throws Exception
+        {
+            final String host = TransferExecutor.hostOf( this );
+            final int current = running.computeIfAbsent( host, k -> new AtomicInteger() ).incrementAndGet();
+            maxRunning.computeIfAbsent( host, k -> new AtomicInteger() ).accumulateAndGet( current, Math::max );
+            maxTotalRunning.accumulateAndGet( totalRunning.incrementAndGet(), Math::max );
+            try
+            {
+                Thread.sleep( 50 );
+            }
+            finally
+            {
+                totalRunning.decrementAndGet();
+                running.get( host ).decrementAndGet();
+            }
+            return this;
+        }
+
+        @Override
+        public long getTransferSize()
+        {
+            return 0;
+        }
+
+        @Override
+        public Transfer getTransfer()
+        {
+            return transfer;
+        }
+
+        @Override
+        public TransferException getError()
+        {
+            return null;
+        }
+    }
+}
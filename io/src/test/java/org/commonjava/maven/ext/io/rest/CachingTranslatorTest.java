@@ -0,0 +1,210 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.rest;
+
+import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
+import org.commonjava.maven.ext.io.rest.handler.AddSuffixJettyHandler;
+import org.commonjava.maven.ext.io.rest.handler.DAStandInHandler;
+import org.commonjava.maven.ext.io.rest.handler.DAStandInHandler.RequestRecord;
+import org.commonjava.maven.ext.io.rest.handler.LatencyDistribution;
+import org.commonjava.maven.ext.io.rest.rule.MockServer;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class CachingTranslatorTest
+{
+    private final DAStandInHandler handler = new DAStandInHandler();
+
+    @Rule
+    public MockServer mockServer = new MockServer( handler );
+
+    private CachingTranslator translator;
+
+    @Before
+    public void before()
+    {
+        translator = new CachingTranslator( new TranslatorBenchmark( handler, mockServer.getUrl() ).createTranslator() );
+    }
+
+    @Test
+    public void testResolvedGAVsAreNotLookedUpAgain() throws RestException
+    {
+        final List<ProjectVersionRef> gavs = TranslatorBenchmark.generateGAVs( 150 );
+
+        assertEquals( 100, translator.lookupVersions( gavs.subList( 0, 100 ) ).size() );
+        assertEquals( 100, handler.getRequests().stream().mapToInt( RequestRecord::getSize ).sum() );
+
+        handler.reset();
+        Map<ProjectVersionRef, String> result = translator.lookupVersions( gavs );
+
+        assertEquals( 150, result.size() );
+        assertEquals( gavs.get( 0 ).getVersionString() + '-' + AddSuffixJettyHandler.DEFAULT_SUFFIX,
+                      result.get( gavs.get( 0 ) ) );
+        assertEquals( 50, handler.getRequests().stream().mapToInt( RequestRecord::getSize ).sum() );
+        assertEquals( 100, translator.getHits() );
+        assertEquals( 150, translator.getMisses() );
+
+        handler.reset();
+        assertEquals( 150, translator.lookupVersions( gavs ).size() );
+        assertEquals( 0, handler.getRequestCount() );
+    }
+
+    @Test
+    public void testEndpointsAreCachedSeparately() throws RestException
+    {
+        final List<ProjectVersionRef> gavs = TranslatorBenchmark.generateGAVs( 10 );
+
+        translator.lookupVersions( gavs );
+        translator.lookupProjectVersions( gavs );
+
+        assertEquals( 2, handler.getRequestCount() );
+    }
+
+    @Test
+    public void testConcurrentLookupsAreMerged() throws Exception
+    {
+        final List<ProjectVersionRef> gavs = TranslatorBenchmark.generateGAVs( 100 );
+        final ExecutorService executor = Executors.newFixedThreadPool( 2 );
+
+        handler.setLatency( LatencyDistribution.fixed( 500 ) );
+        try
+        {
+            Future<Map<ProjectVersionRef, String>> first = executor.submit( () -> translator.lookupVersions( gavs ) );
+            // Ensure the first lookup is in-flight before the second starts.
+            while ( handler.getRequestCount() == 0 )
+            {
+                Thread.sleep( 10 );
+            }
+            Future<Map<ProjectVersionRef, String>> second = executor.submit( () -> translator.lookupVersions( gavs ) );
+
+            assertEquals( 100, first.get().size() );
+            assertEquals( 100, second.get().size() );
+            assertEquals( 1, handler.getRequestCount() );
+            assertEquals( 100, translator.getHits() );
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFailuresAreNotCached() throws RestException
+    {
+        final List<ProjectVersionRef> gavs = TranslatorBenchmark.generateGAVs( 2 );
+
+        handler.setFaultRate( 1 );
+        try
+        {
+            translator.lookupVersions( gavs );
+            fail( "Expected lookup to fail" );
+        }
+        catch ( RestException e )
+        {
+            // Expected
+        }
+
+        handler.setFaultRate( 0 );
+        handler.reset();
+
+        assertEquals( 2, translator.lookupVersions( gavs ).size() );
+        assertEquals( 1, handler.getRequestCount() );
+    }
+
+    @Test
+    public void testWaitersSeeFailure() throws Exception
+    {
+        final CompletableFuture<Void> started = new CompletableFuture<>();
+        final CompletableFuture<Map<ProjectVersionRef, String>> release = new CompletableFuture<>();
+        final CachingTranslator blocking = new CachingTranslator( new Translator()
+        {
+            @Override
+            public Map<ProjectVersionRef, String> lookupVersions( List<ProjectVersionRef> projects )
+                            throws RestException
+            {
+                started.complete( null );
+                try
+                {
+                    return release.get();
+                }
+                catch ( InterruptedException | ExecutionException e )
+                {
+                    throw new RestException( "Lookup failed", e );
+                }
+            }
+
+            @Override
+            public Map<ProjectVersionRef, String> lookupProjectVersions( List<ProjectVersionRef> projects )
+            {
+                throw new UnsupportedOperationException();
+            }
+        } );
+        final List<ProjectVersionRef> gavs = TranslatorBenchmark.generateGAVs( 1 );
+        final ExecutorService executor = Executors.newFixedThreadPool( 1 );
+
+        try
+        {
+            Future<Map<ProjectVersionRef, String>> first = executor.submit( () -> blocking.lookupVersions( gavs ) );
+            started.get();
+            CompletableFuture<Map<ProjectVersionRef, String>> second = CompletableFuture.supplyAsync( () -> {
+                try
+                {
+                    return blocking.lookupVersions( gavs );
+                }
+                catch ( RestException e )
+                {
+                    throw new IllegalStateException( e );
+                }
+            } );
+            release.completeExceptionally( new IllegalStateException( "DA unavailable" ) );
+
+            try
+            {
+                first.get();
+                fail( "Expected lookup to fail" );
+            }
+            catch ( ExecutionException e )
+            {
+                assertEquals( RestException.class, e.getCause().getClass() );
+            }
+            try
+            {
+                second.get();
+                fail( "Expected lookup to fail" );
+            }
+            catch ( ExecutionException e )
+            {
+                assertEquals( RestException.class, e.getCause().getCause().getClass() );
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.rest;
+
+import org.commonjava.maven.ext.io.rest.handler.DAStandInHandler;
+import org.commonjava.maven.ext.io.rest.handler.DAStandInHandler.RequestRecord;
+import org.commonjava.maven.ext.io.rest.rule.MockServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.commonjava.maven.ext.io.rest.Translator.DEFAULT_CONNECTION_TIMEOUT_SEC;
+import static org.commonjava.maven.ext.io.rest.Translator.DEFAULT_SOCKET_TIMEOUT_SEC;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class ConnectionPolicyTest
+{
+    private final DAStandInHandler handler = new DAStandInHandler();
+
+    @Rule
+    public MockServer mockServer = new MockServer( handler );
+
+    private DefaultTranslator translator;
+
+    @Before
+    public void before()
+    {
+        // Send the GAVs in chunks of ten.
+        translator = new DefaultTranslator( mockServer.getUrl(), 10, Translator.CHUNK_SPLIT_COUNT, false, "",
+                                            Collections.emptyMap(), DEFAULT_CONNECTION_TIMEOUT_SEC,
+                                            DEFAULT_SOCKET_TIMEOUT_SEC, 0 );
+    }
+
+    @After
+    public void after()
+    {
+        translator.shutdown();
+    }
+
+    @Test
+    public void testConnectionIsReusedBetweenChunks() throws RestException
+    {
+        translator.setConnectionPolicy( new ConnectionPolicy( 10, 5, 30, -1 ) );
+
+        assertEquals( 200, translator.lookupVersions( TranslatorBenchmark.generateGAVs( 200 ) ).size() );
+        assertEquals( 20, handler.getRequestCount() );
+        assertEquals( 1, getConnections().size() );
+    }
+
+    @Test
+    public void testShutdownClosesConnections() throws RestException
+    {
+        translator.setConnectionPolicy( new ConnectionPolicy( 10, 5, 30, -1 ) );
+
+        translator.lookupVersions( TranslatorBenchmark.generateGAVs( 10 ) );
+        Set<String> first = getConnections();
+        translator.shutdown();
+
+        handler.reset();
+        assertEquals( 10, translator.lookupVersions( TranslatorBenchmark.generateGAVs( 10 ) ).size() );
+        assertNotEquals( first, getConnections() );
+    }
+
+    @Test
+    public void testIdleConnectionsAreEvicted() throws Exception
+    {
+        translator.setConnectionPolicy( new ConnectionPolicy( 10, 5, 1, -1 ) );
+
+        translator.lookupVersions( TranslatorBenchmark.generateGAVs( 10 ) );
+        Set<String> first = getConnections();
+        Thread.sleep( 3000 );
+
+        handler.reset();
+        translator.lookupVersions( TranslatorBenchmark.generateGAVs( 10 ) );
+        assertNotEquals( first, getConnections() );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void testInvalidPoolSize()
+    {
+        new ConnectionPolicy( 0, 5, 30, -1 );
+    }
+
+    private Set<String> getConnections()
+    {
+        return handler.getRequests().stream().map( RequestRecord::getConnection ).collect( Collectors.toSet() );
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.rest;
+
+import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
+import org.commonjava.maven.ext.io.rest.handler.DAStandInHandler;
+import org.commonjava.maven.ext.io.rest.rule.MockServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.commonjava.maven.ext.io.rest.Translator.DEFAULT_CONNECTION_TIMEOUT_SEC;
+import static org.commonjava.maven.ext.io.rest.Translator.DEFAULT_SOCKET_TIMEOUT_SEC;
+import static org.commonjava.maven.ext.io.rest.Translator.RETRY_DURATION_SEC;
+import static org.commonjava.maven.ext.io.rest.VersionTranslatorTest.loadALotOfGAVs;
+import static org.commonjava.maven.ext.io.rest.handler.LatencyDistribution.sequence;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HedgedRequestTest
+{
+    private static List<ProjectVersionRef> aLotOfGavs;
+
+    private final DAStandInHandler handler = new DAStandInHandler();
+
+    @Rule
+    public MockServer mockServer = new MockServer( handler );
+
+    private DefaultTranslator versionTranslator;
+
+    @BeforeClass
+    public static void startUp() throws IOException
+    {
+        aLotOfGavs = loadALotOfGAVs();
+    }
+
+    @After
+    public void after()
+    {
+        versionTranslator.shutdown();
+    }
+
+    @Before
+    public void before()
+    {
+        versionTranslator = new DefaultTranslator( mockServer.getUrl(), 4, Translator.CHUNK_SPLIT_COUNT, false, "",
+                                                   Collections.emptyMap(), DEFAULT_CONNECTION_TIMEOUT_SEC,
+                                                   DEFAULT_SOCKET_TIMEOUT_SEC, RETRY_DURATION_SEC );
+    }
+
+    @Test
+    public void testHedgeWins() throws RestException
+    {
+        versionTranslator.setHedgingPolicy( new HedgingPolicy( 200, 95, false ) );
+        handler.setLatency( sequence( 5000L ) );
+
+        long start = System.nanoTime();
+        Map<ProjectVersionRef, String> result = versionTranslator.lookupVersions( aLotOfGavs.subList( 0, 16 ) );
+        long duration = TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - start );
+
+        assertEquals( 16, result.size() );
+        assertTrue( "Lookup took " + duration, duration < 5000 );
+        assertEquals( 1, versionTranslator.getHedgedRequests() );
+        assertEquals( 1, versionTranslator.getHedgesWon() );
+        assertEquals( 0, versionTranslator.getHedgesWasted() );
+    }
+
+    @Test
+    public void testSplitHedgeWins() throws RestException
+    {
+        versionTranslator.setHedgingPolicy( new HedgingPolicy( 200, 95, true ) );
+        handler.setLatency( sequence( 5000L ) );
+
+        Map<ProjectVersionRef, String> result = versionTranslator.lookupVersions( aLotOfGavs.subList( 0, 16 ) );
+
+        assertEquals( 16, result.size() );
+        assertEquals( 1, versionTranslator.getHedgesWon() );
+        // Original four chunks plus the hedged chunk split into four.
+        assertEquals( 8, handler.getRequestCount() );
+    }
+
+    @Test
+    public void testHedgeWasted() throws RestException
+    {
+        versionTranslator.setHedgingPolicy( new HedgingPolicy( 200, 95, false ) );
+        handler.setLatency( sequence( 800L, 3000L ) );
+
+        Map<ProjectVersionRef, String> result = versionTranslator.lookupVersions( aLotOfGavs.subList( 0, 16 ) );
+
+        assertEquals( 16, result.size() );
+        assertEquals( 1, versionTranslator.getHedgedRequests() );
+        assertEquals( 0, versionTranslator.getHedgesWon() );
+        assertEquals( 1, versionTranslator.getHedgesWasted() );
+    }
+
+    @Test
+    public void testHedgeFailed() throws RestException
+    {
+        versionTranslator.setHedgingPolicy( new HedgingPolicy( 200, 95, false ) );
+        handler.setLatency( sequence( 800L, 800L ) );
+        // Both the chunk of four and its hedge fail ; the single GAV chunks it is then split into succeed.
+        handler.setFaultRate( 1 );
+        handler.setFaultMinimumSize( 2 );
+
+        Map<ProjectVersionRef, String> result = versionTranslator.lookupVersions( aLotOfGavs.subList( 0, 4 ) );
+
+        assertEquals( 4, result.size() );
+        assertEquals( 1, versionTranslator.getHedgedRequests() );
+        assertEquals( 1, versionTranslator.getHedgesFailed() );
+        assertEquals( 0, versionTranslator.getHedgesWon() );
+        assertEquals( 0, versionTranslator.getHedgesWasted() );
+    }
+
+    @Test
+    public void testHedgingDisabled() throws RestException
+    {
+        handler.setLatency( sequence( 500L ) );
+
+        Map<ProjectVersionRef, String> result = versionTranslator.lookupVersions( aLotOfGavs.subList( 0, 16 ) );
+
+        assertEquals( 16, result.size() );
+        assertEquals( 0, versionTranslator.getHedgedRequests() );
+        assertEquals( 4, handler.getRequestCount() );
+    }
+
+    @Test
+    public void testThresholdUsesObservedLatency() throws RestException
+    {
+        versionTranslator.setHedgingPolicy( new HedgingPolicy( 1, 100, false ) );
+        assertEquals( 1, versionTranslator.getHedgingThreshold() );
+
+        // Gather samples without hedging so every chunk observes the injected latency.
+        versionTranslator.setHedgingPolicy( HedgingPolicy.DISABLED );
+        handler.setLatency( sequence( 50L, 50L, 50L, 50L, 50L, 50L, 50L, 50L ) );
+        versionTranslator.lookupVersions( aLotOfGavs.subList( 0, 32 ) );
+
+        versionTranslator.setHedgingPolicy( new HedgingPolicy( 1, 100, false ) );
+        assertTrue( versionTranslator.getHedgingThreshold() >= 50 );
+    }
+}
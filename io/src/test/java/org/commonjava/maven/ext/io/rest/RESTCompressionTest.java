@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.rest;
+
+import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
+import org.commonjava.maven.ext.io.rest.TranslatorBenchmark.Report;
+import org.commonjava.maven.ext.io.rest.handler.DAStandInHandler;
+import org.commonjava.maven.ext.io.rest.rule.MockServer;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.http.HttpServletResponse;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RESTCompressionTest
+{
+    private final Logger logger = LoggerFactory.getLogger( RESTCompressionTest.class );
+
+    private final DAStandInHandler handler = new DAStandInHandler();
+
+    @Rule
+    public MockServer mockServer = new MockServer( handler );
+
+    private TranslatorBenchmark benchmark;
+
+    @Before
+    public void before()
+    {
+        benchmark = new TranslatorBenchmark( handler, mockServer.getUrl() );
+    }
+
+    @Test
+    public void testCompressedRequestsAndResponses() throws RestException
+    {
+        final List<ProjectVersionRef> gavs = TranslatorBenchmark.generateGAVs( 500 );
+
+        Report plain = benchmark.run( benchmark.createTranslator(), gavs );
+
+        handler.setCompressResponses( true );
+        DefaultTranslator translator = benchmark.createTranslator();
+        translator.setCompression( true );
+        Report compressed = benchmark.run( translator, gavs );
+
+        assertEquals( 500, compressed.getResolved() );
+        assertTrue( translator.isCompression() );
+        assertTrue( compressed.getRequestBytes() < plain.getRequestBytes() / 2 );
+        assertTrue( compressed.getResponseBytes() < plain.getResponseBytes() / 2 );
+    }
+
+    @Test
+    public void testFallbackWhenCompressionRejected() throws RestException
+    {
+        handler.setAcceptCompressedRequests( false );
+        DefaultTranslator translator = benchmark.createTranslator();
+        translator.setCompression( true );
+
+        Report report = benchmark.run( translator, TranslatorBenchmark.generateGAVs( 500 ) );
+
+        assertEquals( 500, report.getResolved() );
+        assertFalse( translator.isCompression() );
+        assertEquals( 1, handler.getRequests()
+                                .stream()
+                                .filter( r -> r.getStatus() == HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE )
+                                .count() );
+    }
+
+    @Test
+    public void testFallbackWhenCompressionRejectedAsBadRequest() throws RestException
+    {
+        handler.setAcceptCompressedRequests( false );
+        handler.setCompressionRejection( HttpServletResponse.SC_BAD_REQUEST );
+        DefaultTranslator translator = benchmark.createTranslator();
+        translator.setCompression( true );
+
+        Report report = benchmark.run( translator, TranslatorBenchmark.generateGAVs( 500 ) );
+
+        assertEquals( 500, report.getResolved() );
+        assertFalse( translator.isCompression() );
+    }
+
+    @Test
+    public void testValidationErrorIsNotCompressionRejection()
+    {
+        handler.setValidationError( "mode must not be null" );
+        DefaultTranslator translator = benchmark.createTranslator();
+        translator.setCompression( true );
+
+        try
+        {
+            translator.lookupVersions( TranslatorBenchmark.generateGAVs( 10 ) );
+            fail( "Expected RestException" );
+        }
+        catch ( RestException e )
+        {
+            assertTrue( e.getMessage(), e.getMessage().contains( "mode must not be null" ) );
+        }
+        assertTrue( translator.isCompression() );
+        assertEquals( 1, handler.getRequestCount() );
+    }
+
+    /**
+     * Compares the bytes transferred over a simulated 1MB/s link ; the times are only logged, as they depend on the
+     * host (see TranslatorBenchmark for timing).
+     */
+    @Test
+    public void testSlowLinkBenchmark() throws RestException
+    {
+        final List<ProjectVersionRef> gavs = TranslatorBenchmark.generateGAVs( 2000 );
+
+        handler.setBandwidth( 1024 * 1024 );
+
+        Report plain = benchmark.run( benchmark.createTranslator(), gavs );
+        handler.setCompressResponses( true );
+        DefaultTranslator translator = benchmark.createTranslator();
+        translator.setCompression( true );
+        Report compressed = benchmark.run( translator, gavs );
+
+        long plainBytes = plain.getRequestBytes() + plain.getResponseBytes();
+        long compressedBytes = compressed.getRequestBytes() + compressed.getResponseBytes();
+        logger.info( "Uncompressed: {}", plain );
+        logger.info( "Compressed: {}", compressed );
+        logger.info( "Compression saved {} bytes ({}%) and {} ms", plainBytes - compressedBytes,
+                     100 - ( compressedBytes * 100 / plainBytes ), plain.getDuration() - compressed.getDuration() );
+
+        assertEquals( 2000, compressed.getResolved() );
+        assertTrue( compressedBytes < plainBytes / 2 );
+    }
+}
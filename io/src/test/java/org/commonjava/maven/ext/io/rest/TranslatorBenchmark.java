@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.rest;
+
+import lombok.Getter;
+import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
+import org.commonjava.maven.atlas.ident.ref.SimpleProjectVersionRef;
+import org.commonjava.maven.ext.io.rest.handler.DAStandInHandler;
+import org.commonjava.maven.ext.io.rest.handler.DAStandInHandler.RequestRecord;
+import org.commonjava.maven.ext.io.rest.handler.LatencyDistribution;
+import org.commonjava.maven.ext.io.server.JettyHttpServer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.commonjava.maven.ext.io.rest.Translator.DEFAULT_CONNECTION_TIMEOUT_SEC;
+import static org.commonjava.maven.ext.io.rest.Translator.DEFAULT_SOCKET_TIMEOUT_SEC;
+
+/**
+ * Load-test harness that drives a {@link DefaultTranslator} against the {@link DAStandInHandler} and reports
+ * throughput, request latency percentiles and retries. May be run standalone e.g.
+ * <pre>
+ *     TranslatorBenchmark 1000 10000 50000
+ * </pre>
+ */
+public class TranslatorBenchmark
+{
+    @Getter
+    public static class Report
+    {
+        private final int gavs;
+
+        private final int resolved;
+
+        private final long duration;
+
+        private final int requests;
+
+        private final int retries;
+
+        private final long p50;
+
+        private final long p99;
+
+        private final long requestBytes;
+
+        private final long responseBytes;
+
+        Report( int gavs, int resolved, long duration, List<RequestRecord> records )
+        {
+            final List<Long> latencies =
+                            records.stream().map( RequestRecord::getLatency ).sorted().collect( Collectors.toList() );
+
+            this.gavs = gavs;
+            this.resolved = resolved;
+            this.duration = duration;
+            this.requests = records.size();
+            this.retries = (int) records.stream().filter( r -> !r.isSuccess() ).count();
+            this.p50 = percentile( latencies, 50 );
+            this.p99 = percentile( latencies, 99 );
+            this.requestBytes = records.stream().mapToLong( RequestRecord::getRequestBytes ).sum();
+            this.responseBytes = records.stream().mapToLong( RequestRecord::getResponseBytes ).sum();
+        }
+
+        /**
+         * @return the number of GAVs translated per second.
+         */
+        public double getThroughput()
+        {
+            return duration == 0 ? gavs : gavs * 1000.0 / duration;
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format( "%d GAVs (%d resolved) in %d ms : %.1f GAVs/sec ; %d requests (%d retries) ; "
+                                                  + "p50 %d ms p99 %d ms ; %d bytes sent %d bytes received", gavs,
+                                  resolved, duration, getThroughput(), requests, retries, p50, p99, requestBytes,
+                                  responseBytes );
+        }
+    }
+
+    private final DAStandInHandler handler;
+
+    private final String url;
+
+    public TranslatorBenchmark( DAStandInHandler handler, String url )
+    {
+        this.handler = handler;
+        this.url = url;
+    }
+
+    /**
+     * Creates a translator with the default auto partitioning and no wait between retries.
+     *
+     * @return a new translator for the stand-in server
+     */
+    public DefaultTranslator createTranslator()
+    {
+        return new DefaultTranslator( url, -1, Translator.CHUNK_SPLIT_COUNT, false, "", Collections.emptyMap(),
+                                      DEFAULT_CONNECTION_TIMEOUT_SEC, DEFAULT_SOCKET_TIMEOUT_SEC, 0 );
+    }
+
+    public Report run( DefaultTranslator translator, List<ProjectVersionRef> gavs ) throws RestException
+    {
+        handler.reset();
+
+        final long start = System.nanoTime();
+        final Map<ProjectVersionRef, String> result = translator.lookupVersions( gavs );
+        final long duration = TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - start );
+
+        return new Report( gavs.size(), result.size(), duration, handler.getRequests() );
+    }
+
+    /**
+     * Generates a workload with groupIds shared between many artifacts, similar to a real reactor and its BOMs.
+     *
+     * @param count the number of distinct GAVs to generate.
+     * @return the list of GAVs
+     */
+    public static List<ProjectVersionRef> generateGAVs( int count )
+    {
+        final List<ProjectVersionRef> result = new ArrayList<>( count );
+        for ( int i = 0; i < count; i++ )
+        {
+            result.add( new SimpleProjectVersionRef( "org.example.platform.group" + ( i % 50 ), "artifact-" + i,
+                                                     "1." + ( i % 10 ) + ".0" ) );
+        }
+        return result;
+    }
+
+    static long percentile( List<Long> sorted, int percentile )
+    {
+        if ( sorted.isEmpty() )
+        {
+            return 0;
+        }
+        int index = (int) Math.ceil( percentile / 100.0 * sorted.size() ) - 1;
+        return sorted.get( Math.max( 0, index ) );
+    }
+
+    public static void main( String[] args ) throws RestException
+    {
+        final DAStandInHandler handler = new DAStandInHandler();
+        final JettyHttpServer server = new JettyHttpServer( handler, 400 );
+
+        handler.setLatency( LatencyDistribution.logNormal( 20, 0.5, 0 ) );
+        handler.setFaultRate( 0.02 );
+        handler.setFaultMinimumSize( Translator.CHUNK_SPLIT_COUNT * 2 );
+
+        try
+        {
+            final TranslatorBenchmark benchmark = new TranslatorBenchmark( handler, "http://127.0.0.1:" + server.getPort() );
+            for ( String size : args.length == 0 ? new String[] { "1000", "10000", "50000" } : args )
+            {
+                System.out.println( benchmark.run( benchmark.createTranslator(), generateGAVs( Integer.parseInt( size ) ) ) );
+            }
+        }
+        finally
+        {
+            server.shutdown();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.rest;
+
+import org.commonjava.maven.ext.io.rest.TranslatorBenchmark.Report;
+import org.commonjava.maven.ext.io.rest.handler.DAStandInHandler;
+import org.commonjava.maven.ext.io.rest.handler.DAStandInHandler.Fault;
+import org.commonjava.maven.ext.io.rest.handler.LatencyDistribution;
+import org.commonjava.maven.ext.io.rest.rule.MockServer;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs the {@link TranslatorBenchmark} against the DA stand-in. By default only a small workload is used ; larger
+ * workloads may be run with e.g. <code>-DtranslatorBenchmarkSizes=1000,10000,50000</code>.
+ */
+public class TranslatorBenchmarkTest
+{
+    private final Logger logger = LoggerFactory.getLogger( TranslatorBenchmarkTest.class );
+
+    private final DAStandInHandler handler = new DAStandInHandler();
+
+    @Rule
+    public MockServer mockServer = new MockServer( handler );
+
+    private TranslatorBenchmark benchmark;
+
+    @Before
+    public void before()
+    {
+        benchmark = new TranslatorBenchmark( handler, mockServer.getUrl() );
+        handler.setFaultMinimumSize( Translator.CHUNK_SPLIT_COUNT * 2 );
+    }
+
+    @Test
+    public void testWorkloads() throws RestException
+    {
+        handler.setLatency( LatencyDistribution.uniform( 0, 5, 0 ) );
+
+        for ( String size : System.getProperty( "translatorBenchmarkSizes", "1000" ).split( "," ) )
+        {
+            Report report = benchmark.run( benchmark.createTranslator(),
+                                           TranslatorBenchmark.generateGAVs( Integer.parseInt( size.trim() ) ) );
+            logger.info( "Benchmark: {}", report );
+
+            assertEquals( report.getGavs(), report.getResolved() );
+            assertEquals( 0, report.getRetries() );
+        }
+    }
+
+    @Test
+    public void testGatewayTimeoutRetries() throws RestException
+    {
+        verifyFault( Fault.GATEWAY_TIMEOUT );
+    }
+
+    @Test
+    public void testServiceUnavailableRetries() throws RestException
+    {
+        verifyFault( Fault.SERVICE_UNAVAILABLE );
+    }
+
+    @Test
+    public void testHTMLRetries() throws RestException
+    {
+        verifyFault( Fault.HTML );
+    }
+
+    @Test
+    public void testResponsePadding() throws RestException
+    {
+        Report plain = benchmark.run( benchmark.createTranslator(), TranslatorBenchmark.generateGAVs( 500 ) );
+        handler.setResponsePadding( 10 );
+        Report padded = benchmark.run( benchmark.createTranslator(), TranslatorBenchmark.generateGAVs( 500 ) );
+
+        assertEquals( 500, padded.getResolved() );
+        assertEquals( plain.getRequestBytes(), padded.getRequestBytes() );
+        assertTrue( padded.getResponseBytes() > plain.getResponseBytes() * 2 );
+    }
+
+    private void verifyFault( Fault fault ) throws RestException
+    {
+        handler.setFault( fault );
+        handler.setFaultRate( 0.2 );
+        handler.setFaultSeed( 42 );
+
+        Report report = benchmark.run( benchmark.createTranslator(), TranslatorBenchmark.generateGAVs( 1000 ) );
+        logger.info( "Benchmark with {}: {}", fault, report );
+
+        assertEquals( 1000, report.getResolved() );
+        assertTrue( report.getRetries() > 0 );
+        assertTrue( report.getP99() >= report.getP50() );
+    }
+}
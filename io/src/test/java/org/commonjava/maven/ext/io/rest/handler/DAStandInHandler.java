@@ -0,0 +1,386 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.rest.handler;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.commons.io.IOUtils;
+import org.commonjava.maven.ext.common.util.JSONUtils;
+import org.commonjava.maven.ext.io.rest.DefaultTranslator.Endpoint;
+import org.eclipse.jetty.server.Handler;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.jboss.da.lookup.model.MavenLookupRequest;
+import org.jboss.da.model.rest.GAV;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Configurable stand-in for the Dependency Analyser lookup endpoints. Every GAV is answered with its version plus
+ * the configured suffix. In addition it supports:
+ * <ul>
+ *     <li>per-request latency via a {@link LatencyDistribution}</li>
+ *     <li>injection of 503, 504 and HTML error responses</li>
+ *     <li>scaling of the response size by padding each result with extra available versions</li>
+ *     <li>gzip encoded requests and responses, and simulation of a slow link</li>
+ *     <li>logging of every request as a {@link RequestRecord}</li>
+ * </ul>
+ */
+public class DAStandInHandler
+                extends AbstractHandler
+                implements Handler
+{
+    public enum Fault
+    {
+        SERVICE_UNAVAILABLE,
+        GATEWAY_TIMEOUT,
+        HTML
+    }
+
+    @Getter
+    public static class RequestRecord
+    {
+        private final int index;
+
+        private final String endpoint;
+
+        private final int size;
+
+        private final int status;
+
+        private final long latency;
+
+        private final long requestBytes;
+
+        private final long responseBytes;
+
+        /**
+         * The client address and port, identifying the connection the request arrived on.
+         */
+        private final String connection;
+
+        RequestRecord( int index, String endpoint, int size, int status, long latency, long requestBytes,
+                       long responseBytes, String connection )
+        {
+            this.index = index;
+            this.endpoint = endpoint;
+            this.size = size;
+            this.status = status;
+            this.latency = latency;
+            this.requestBytes = requestBytes;
+            this.responseBytes = responseBytes;
+            this.connection = connection;
+        }
+
+        public boolean isSuccess()
+        {
+            return status == HttpServletResponse.SC_OK;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "Request " + index + " to " + endpoint + " with " + size + " GAVs returned " + status + " in "
+                            + latency + " ms (" + requestBytes + " bytes in, " + responseBytes + " bytes out)";
+        }
+    }
+
+    private static final String GZIP = "gzip";
+
+    static final String HTML_ERROR = "<html><head><title>504 Gateway Time-out</title></head><body>"
+                    + "<h1>Gateway Time-out</h1>\n<p>The server didn't respond in time.</p></body></html>";
+
+    private final Logger logger = LoggerFactory.getLogger( DAStandInHandler.class );
+
+    private final JSONUtils.InternalObjectMapper objectMapper = new JSONUtils.InternalObjectMapper( new ObjectMapper() );
+
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    private final List<RequestRecord> requests = new CopyOnWriteArrayList<>();
+
+    private Random faultRandom = new Random( 0 );
+
+    @Setter
+    private String suffix = AddSuffixJettyHandler.DEFAULT_SUFFIX;
+
+    @Setter
+    private LatencyDistribution latency = LatencyDistribution.NONE;
+
+    /**
+     * Probability (0 - 1) of a request receiving the configured fault.
+     */
+    @Setter
+    private double faultRate;
+
+    @Setter
+    private Fault fault = Fault.GATEWAY_TIMEOUT;
+
+    /**
+     * Requests with fewer GAVs than this are never faulted so that the translator can always make progress by
+     * splitting.
+     */
+    @Setter
+    private int faultMinimumSize;
+
+    /**
+     * Number of extra available versions to add to each result to scale the response size.
+     */
+    @Setter
+    private int responsePadding;
+
+    /**
+     * Whether gzip encoded requests are accepted ; if not they are rejected with {@link #compressionRejection}.
+     */
+    @Setter
+    private boolean acceptCompressedRequests = true;
+
+    /**
+     * The status used to reject gzip encoded requests ; a 400 Bad Request explains the encoding is unsupported.
+     */
+    @Setter
+    private int compressionRejection = HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE;
+
+    /**
+     * If set, every request is rejected with 400 Bad Request and this validation message.
+     */
+    @Setter
+    private String validationError;
+
+    /**
+     * Whether responses are gzip encoded when the client accepts it.
+     */
+    @Setter
+    private boolean compressResponses;
+
+    /**
+     * Simulated link bandwidth in bytes per second for the request and response bodies ; zero is unlimited.
+     */
+    @Setter
+    private long bandwidth;
+
+    public void setFaultSeed( long seed )
+    {
+        faultRandom = new Random( seed );
+    }
+
+    /**
+     * Clears the request log and the request counter.
+     */
+    public void reset()
+    {
+        requestCount.set( 0 );
+        requests.clear();
+    }
+
+    public int getRequestCount()
+    {
+        return requestCount.get();
+    }
+
+    public List<RequestRecord> getRequests()
+    {
+        return new ArrayList<>( requests );
+    }
+
+    @Override
+    public void handle( String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response )
+                    throws IOException
+    {
+        if ( !"POST".equals( request.getMethod() ) || !target.contains( Endpoint.LOOKUP_GAVS.getEndpoint() ) )
+        {
+            logger.info( "Ignoring {} {}", request.getMethod(), target );
+            return;
+        }
+
+        final long start = System.nanoTime();
+        final int index = requestCount.getAndIncrement();
+        final boolean latest = target.contains( Endpoint.LOOKUP_LATEST.getEndpoint() );
+        final byte[] requestBody = IOUtils.toByteArray( request.getInputStream() );
+        final boolean compressedRequest = GZIP.equals( request.getHeader( "Content-Encoding" ) );
+        final String connection = request.getRemoteAddr() + ':' + request.getRemotePort();
+
+        if ( compressedRequest && !acceptCompressedRequests )
+        {
+            logger.info( "Rejecting compressed request {}", index );
+            requests.add( new RequestRecord( index, target, 0, compressionRejection, 0, requestBody.length, 0,
+                                             connection ) );
+            response.setStatus( compressionRejection );
+            if ( compressionRejection == HttpServletResponse.SC_BAD_REQUEST )
+            {
+                response.getOutputStream().write( "Unsupported Content-Encoding: gzip".getBytes( StandardCharsets.UTF_8 ) );
+            }
+            baseRequest.setHandled( true );
+            return;
+        }
+        if ( validationError != null )
+        {
+            requests.add( new RequestRecord( index, target, 0, HttpServletResponse.SC_BAD_REQUEST, 0,
+                                             requestBody.length, 0, connection ) );
+            response.setStatus( HttpServletResponse.SC_BAD_REQUEST );
+            response.getOutputStream()
+                    .write( ( "javax.validation.ValidationException: " + validationError ).getBytes(
+                                    StandardCharsets.UTF_8 ) );
+            baseRequest.setHandled( true );
+            return;
+        }
+
+        final String json = compressedRequest ?
+                        IOUtils.toString( new GZIPInputStream( new ByteArrayInputStream( requestBody ) ),
+                                          StandardCharsets.UTF_8 ) :
+                        new String( requestBody, StandardCharsets.UTF_8 );
+        final MavenLookupRequest lookupRequest = objectMapper.readValue( json, MavenLookupRequest.class );
+        final int size = lookupRequest.getArtifacts().size();
+
+        long delay = latency.next( index, size );
+        if ( delay > 0 )
+        {
+            try
+            {
+                Thread.sleep( delay );
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+
+        final int status;
+        byte[] responseBody;
+        final Fault injected = injectFault( size );
+
+        if ( injected == null )
+        {
+            status = HttpServletResponse.SC_OK;
+            responseBody = objectMapper.writeValue( createResults( lookupRequest, latest ) )
+                                       .getBytes( StandardCharsets.UTF_8 );
+            response.setContentType( "application/json;charset=utf-8" );
+
+            final String acceptEncoding = request.getHeader( "Accept-Encoding" );
+            if ( compressResponses && acceptEncoding != null && acceptEncoding.contains( GZIP ) )
+            {
+                responseBody = gzip( responseBody );
+                response.setHeader( "Content-Encoding", GZIP );
+            }
+        }
+        else if ( injected == Fault.HTML )
+        {
+            status = HttpServletResponse.SC_GATEWAY_TIMEOUT;
+            responseBody = HTML_ERROR.getBytes( StandardCharsets.UTF_8 );
+            response.setContentType( "text/html;charset=utf-8" );
+        }
+        else
+        {
+            status = injected == Fault.SERVICE_UNAVAILABLE ?
+                            HttpServletResponse.SC_SERVICE_UNAVAILABLE :
+                            HttpServletResponse.SC_GATEWAY_TIMEOUT;
+            responseBody = new byte[0];
+        }
+
+        if ( bandwidth > 0 )
+        {
+            try
+            {
+                Thread.sleep( ( requestBody.length + responseBody.length ) * 1000L / bandwidth );
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+
+        // Record before responding so the log is complete once the client has received every response.
+        RequestRecord record = new RequestRecord( index, target, size, status,
+                                                  TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - start ),
+                                                  requestBody.length, responseBody.length, connection );
+        requests.add( record );
+        logger.debug( "{}", record );
+
+        response.setStatus( status );
+        response.setContentLength( responseBody.length );
+        response.getOutputStream().write( responseBody );
+        baseRequest.setHandled( true );
+    }
+
+    private static byte[] gzip( byte[] body ) throws IOException
+    {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try ( GZIPOutputStream out = new GZIPOutputStream( bytes ) )
+        {
+            out.write( body );
+        }
+        return bytes.toByteArray();
+    }
+
+    private Fault injectFault( int size )
+    {
+        if ( faultRate <= 0 || size < faultMinimumSize )
+        {
+            return null;
+        }
+        synchronized ( this )
+        {
+            return faultRandom.nextDouble() < faultRate ? fault : null;
+        }
+    }
+
+    private List<Map<String, Object>> createResults( MavenLookupRequest lookupRequest, boolean latest )
+    {
+        final List<Map<String, Object>> results = new ArrayList<>( lookupRequest.getArtifacts().size() );
+
+        for ( GAV gav : lookupRequest.getArtifacts() )
+        {
+            final Map<String, Object> result = new LinkedHashMap<>();
+            final String version = gav.getVersion() + '-' + suffix;
+
+            result.put( "groupId", gav.getGroupId() );
+            result.put( "artifactId", gav.getArtifactId() );
+            result.put( "version", gav.getVersion() );
+            result.put( latest ? "latestVersion" : "bestMatchVersion", version );
+
+            if ( responsePadding > 0 )
+            {
+                final List<String> available = new ArrayList<>( responsePadding );
+                for ( int i = 0; i < responsePadding; i++ )
+                {
+                    available.add( gav.getVersion() + '-' + suffix.replaceAll( "[0-9]+$", "" ) + i );
+                }
+                result.put( "availableVersions", available );
+            }
+            results.add( result );
+        }
+        return results;
+    }
+}
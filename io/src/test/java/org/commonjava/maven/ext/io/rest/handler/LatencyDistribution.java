@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.rest.handler;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Latency to inject into responses from the {@link DAStandInHandler}.
+ */
+@FunctionalInterface
+public interface LatencyDistribution
+{
+    LatencyDistribution NONE = ( index, size ) -> 0;
+
+    /**
+     * @param index the zero based index of the request in order of arrival.
+     * @param size the number of GAVs in the request.
+     * @return the latency in milliseconds to inject.
+     */
+    long next( int index, int size );
+
+    static LatencyDistribution fixed( long millis )
+    {
+        return ( index, size ) -> millis;
+    }
+
+    /**
+     * @param millis the latency in milliseconds per GAV within the request.
+     * @return a distribution that scales linearly with the request size.
+     */
+    static LatencyDistribution perGav( double millis )
+    {
+        return ( index, size ) -> Math.round( millis * size );
+    }
+
+    static LatencyDistribution uniform( long min, long max, long seed )
+    {
+        final Random random = new Random( seed );
+        return ( index, size ) -> {
+            synchronized ( random )
+            {
+                return min + (long) ( random.nextDouble() * ( max - min ) );
+            }
+        };
+    }
+
+    /**
+     * A log-normal distribution which gives a long tail, similar to that observed from a loaded server.
+     *
+     * @param median the median latency in milliseconds.
+     * @param sigma the standard deviation of the underlying normal distribution ; larger values give a longer tail.
+     * @param seed the random seed.
+     * @return the distribution
+     */
+    static LatencyDistribution logNormal( long median, double sigma, long seed )
+    {
+        final Random random = new Random( seed );
+        return ( index, size ) -> {
+            synchronized ( random )
+            {
+                return Math.round( median * Math.exp( sigma * random.nextGaussian() ) );
+            }
+        };
+    }
+
+    /**
+     * @param millis the latency to inject for each of the first requests, in order of arrival.
+     * @return a distribution with the scripted latencies followed by none.
+     */
+    static LatencyDistribution sequence( Long... millis )
+    {
+        final List<Long> delays = Arrays.asList( millis );
+        return ( index, size ) -> index < delays.size() ? delays.get( index ) : 0;
+    }
+}
@@ -20,11 +20,10 @@ import org.commonjava.maven.ext.io.server.exception.ServerSetupException;
 import org.eclipse.jetty.server.Handler;
 import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.net.InetSocketAddress;
-
 /**
  * @author vdedik@redhat.com
  */
@@ -33,15 +32,29 @@ public class JettyHttpServer
 {
     private static final Logger logger = LoggerFactory.getLogger( JettyHttpServer.class );
 
+    private static final int DEFAULT_MAX_THREADS = 200;
+
     private final Server jettyServer;
 
     private final Handler handler;
 
+    private final int maxThreads;
+
     private Integer port;
 
     public JettyHttpServer( Handler handler )
+    {
+        this( handler, DEFAULT_MAX_THREADS );
+    }
+
+    /**
+     * @param handler the handler to serve requests with
+     * @param maxThreads the maximum number of threads to serve requests ; increase this for load testing.
+     */
+    public JettyHttpServer( Handler handler, int maxThreads )
     {
         this.handler = handler;
+        this.maxThreads = maxThreads;
         this.jettyServer = createAndStartJetty();
     }
 
@@ -64,7 +77,11 @@ public class JettyHttpServer
 
     private Server createAndStartJetty()
     {
-        Server jetty = new Server(new InetSocketAddress( "127.0.0.1", 0 ) );
+        Server jetty = new Server( new QueuedThreadPool( maxThreads ) );
+        ServerConnector connector = new ServerConnector( jetty );
+        connector.setHost( "127.0.0.1" );
+        connector.setPort( 0 );
+        jetty.addConnector( connector );
         jetty.setHandler( handler );
 
         try